@@ -0,0 +1,179 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.repository.AircraftRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of aircraft keyed by id, with a secondary index by registration number. Misses are
+ * loaded from the repository; writes go through {@link #put} and {@link #evict}. Callers get copies, so a
+ * cached aircraft cannot be changed by mutating a returned entity. The operational fleet is cached as a whole
+ * next to the LRU and dropped on every write.
+ */
+@Component
+public class AircraftRegistry {
+    private static final int DEFAULT_MAX_ENTRIES = 5_000;
+
+    private final AircraftRepository aircraftRepository;
+    private final Map<UUID, Aircraft> byId;
+    private final Map<String, UUID> idByRegistration = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // Bumped on every write so a load that raced with it does not put the stale row back
+    private long generation;
+    // Every operational aircraft in registration order, or null until the next load
+    private List<Aircraft> operationalFleet;
+
+    @Autowired
+    public AircraftRegistry(AircraftRepository aircraftRepository) {
+        this(aircraftRepository, DEFAULT_MAX_ENTRIES);
+    }
+
+    public AircraftRegistry(AircraftRepository aircraftRepository, int maxEntries) {
+        this.aircraftRepository = aircraftRepository;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Aircraft> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                idByRegistration.remove(eldest.getValue().getRegistrationNumber(), eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    public Optional<Aircraft> findById(UUID id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        long loadGeneration;
+        synchronized (this) {
+            Aircraft cached = byId.get(id);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return Optional.of(copy(cached));
+            }
+            loadGeneration = generation;
+        }
+        misses.incrementAndGet();
+        Optional<Aircraft> loaded = aircraftRepository.findById(id);
+        loaded.ifPresent(aircraft -> putIfCurrent(aircraft, loadGeneration));
+        return loaded;
+    }
+
+    public Optional<Aircraft> findByRegistrationNumber(String registrationNumber) {
+        if (registrationNumber == null) {
+            return Optional.empty();
+        }
+        long loadGeneration;
+        synchronized (this) {
+            UUID id = idByRegistration.get(registrationNumber);
+            Aircraft cached = id == null ? null : byId.get(id);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return Optional.of(copy(cached));
+            }
+            loadGeneration = generation;
+        }
+        misses.incrementAndGet();
+        Optional<Aircraft> loaded = aircraftRepository.findAircraftByRegistrationNumber(registrationNumber);
+        loaded.ifPresent(aircraft -> putIfCurrent(aircraft, loadGeneration));
+        return loaded;
+    }
+
+    /**
+     * Resolves many registration numbers at once; everything not cached is loaded with a single query.
+     */
+    public List<Aircraft> findAllByRegistrationNumberIn(Collection<String> registrationNumbers) {
+        List<Aircraft> found = new ArrayList<>(registrationNumbers.size());
+        Set<String> missing = new HashSet<>();
+        long loadGeneration;
+        synchronized (this) {
+            for (String registrationNumber : registrationNumbers) {
+                UUID id = idByRegistration.get(registrationNumber);
+                Aircraft cached = id == null ? null : byId.get(id);
+                if (cached != null) {
+                    found.add(copy(cached));
+                } else if (registrationNumber != null) {
+                    missing.add(registrationNumber);
+                }
+            }
+            loadGeneration = generation;
+        }
+        hits.addAndGet(found.size());
+        if (!missing.isEmpty()) {
+            misses.addAndGet(missing.size());
+            for (Aircraft aircraft : aircraftRepository.findAllByRegistrationNumberIn(missing)) {
+                putIfCurrent(aircraft, loadGeneration);
+                found.add(aircraft);
+            }
+        }
+        return found;
+    }
+
+    public List<Aircraft> findAllOperational() {
+        long loadGeneration;
+        synchronized (this) {
+            if (operationalFleet != null) {
+                hits.incrementAndGet();
+                return operationalFleet.stream().map(AircraftRegistry::copy).toList();
+            }
+            loadGeneration = generation;
+        }
+        misses.incrementAndGet();
+        List<Aircraft> loaded = aircraftRepository.findAllOperational(null);
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                operationalFleet = loaded.stream().map(AircraftRegistry::copy).toList();
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void put(Aircraft aircraft) {
+        generation++;
+        operationalFleet = null;
+        removeEntry(aircraft.getId());
+        addEntry(aircraft);
+    }
+
+    public synchronized void evict(UUID id) {
+        generation++;
+        operationalFleet = null;
+        removeEntry(id);
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits.get(), misses.get(), byId.size());
+    }
+
+    private synchronized void putIfCurrent(Aircraft aircraft, long loadGeneration) {
+        if (generation == loadGeneration) {
+            removeEntry(aircraft.getId());
+            addEntry(aircraft);
+        }
+    }
+
+    private void addEntry(Aircraft aircraft) {
+        idByRegistration.put(aircraft.getRegistrationNumber(), aircraft.getId());
+        byId.put(aircraft.getId(), copy(aircraft));
+    }
+
+    private void removeEntry(UUID id) {
+        Aircraft previous = byId.remove(id);
+        if (previous != null) {
+            idByRegistration.remove(previous.getRegistrationNumber(), id);
+        }
+    }
+
+    private static Aircraft copy(Aircraft aircraft) {
+        return new Aircraft(aircraft.getId(), aircraft.getRegistrationNumber(), aircraft.getType(), aircraft.getStatus());
+    }
+
+    public record Stats(long hits, long misses, int size) {}
+}
@@ -0,0 +1,30 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.Aircraft;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+import static com.sd.stratos.util.TransactionHooks.afterCommit;
+
+/**
+ * Evicts aircraft changed outside {@code AircraftService}, which writes through to the registry itself.
+ */
+@Component
+@RequiredArgsConstructor
+public class AircraftRegistryListener {
+
+    // Resolved on use: the registry needs a repository, which needs the EntityManagerFactory this listener is built for
+    private final ObjectProvider<AircraftRegistry> aircraftRegistry;
+
+    @PostUpdate
+    @PostRemove
+    public void onAircraftChanged(Aircraft aircraft) {
+        UUID aircraftId = aircraft.getId();
+        afterCommit(() -> aircraftRegistry.getObject().evict(aircraftId));
+    }
+}
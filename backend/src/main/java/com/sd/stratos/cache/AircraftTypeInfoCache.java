@@ -0,0 +1,68 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.entity.AircraftTypeInfo;
+import com.sd.stratos.repository.AircraftTypeInfoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Range and speed per {@link AircraftType}. The table holds at most one row per enum constant, so it is
+ * kept whole in an EnumMap that is replaced on reload rather than mutated, and dropped after any committed
+ * write so the next read loads it again.
+ */
+@Component
+@RequiredArgsConstructor
+public class AircraftTypeInfoCache {
+
+    private final AircraftTypeInfoRepository aircraftTypeInfoRepository;
+
+    private volatile Map<AircraftType, AircraftTypeInfo> infoByType;
+    // Bumped on every invalidation so a reload that raced with it does not publish the stale table
+    private long generation;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        infoByType = null;
+    }
+
+    public Optional<AircraftTypeInfo> get(AircraftType type) {
+        return type == null ? Optional.empty() : Optional.ofNullable(current().get(type));
+    }
+
+    public Map<AircraftType, AircraftTypeInfo> getAll() {
+        return Collections.unmodifiableMap(current());
+    }
+
+    private Map<AircraftType, AircraftTypeInfo> current() {
+        Map<AircraftType, AircraftTypeInfo> current = infoByType;
+        return current != null ? current : reload();
+    }
+
+    private Map<AircraftType, AircraftTypeInfo> reload() {
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        Map<AircraftType, AircraftTypeInfo> loaded = new EnumMap<>(AircraftType.class);
+        aircraftTypeInfoRepository.findAll().forEach(info -> loaded.put(info.getAircraftType(), info));
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                infoByType = loaded;
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,26 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.AircraftTypeInfo;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import static com.sd.stratos.util.TransactionHooks.afterCommit;
+
+@Component
+@RequiredArgsConstructor
+public class AircraftTypeInfoCacheListener {
+
+    // Resolved on use, for the same reason as in AircraftRegistryListener
+    private final ObjectProvider<AircraftTypeInfoCache> aircraftTypeInfoCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onAircraftTypeInfoChanged(AircraftTypeInfo aircraftTypeInfo) {
+        afterCommit(() -> aircraftTypeInfoCache.getObject().invalidate());
+    }
+}
@@ -0,0 +1,134 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.Airport;
+import com.sd.stratos.repository.AirportRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Airport coordinates indexed by IATA code packed into an int (base 26), with a direct-mapped cache of
+ * computed pair distances. Lookups read primitive arrays only, so they neither hit the database nor allocate.
+ * The distance cache belongs to one coordinate snapshot: a lookup still holding a replaced snapshot can only
+ * fill the cache of that snapshot, which nothing reads any more.
+ */
+@Component
+@RequiredArgsConstructor
+public class AirportDistanceTable {
+    private static final int IATA_CODE_SPACE = 26 * 26 * 26;
+    private static final int DISTANCE_CACHE_SIZE = 1 << 13;
+    private static final int EARTH_RADIUS_KM = 6371;
+    private static final double KM_TO_NAUTICAL_MILES = 1.8;
+
+    private final AirportRepository airportRepository;
+
+    private volatile Coordinates coordinates;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        Coordinates loaded = Coordinates.empty();
+        airportRepository.findAll().forEach(loaded::set);
+        coordinates = loaded;
+    }
+
+    public synchronized void put(Airport airport) {
+        Coordinates updated = current().copy();
+        updated.set(airport);
+        coordinates = updated;
+    }
+
+    public int distanceBetween(String originIata, String destinationIata) {
+        int origin = encodeIata(originIata);
+        int destination = encodeIata(destinationIata);
+        if (origin < 0 || destination < 0) {
+            return -1;
+        }
+        Coordinates table = current();
+        if (!table.present[origin] || !table.present[destination]) {
+            return -1;
+        }
+
+        int low = Math.min(origin, destination);
+        int high = Math.max(origin, destination);
+        long pairKey = (long) low * IATA_CODE_SPACE + high + 1;
+        int slot = (int) ((pairKey * 0x9E3779B97F4A7C15L) >>> 51) & (DISTANCE_CACHE_SIZE - 1);
+        long cached = table.distances.get(slot);
+        if (cached >>> 32 == pairKey) {
+            return (int) cached;
+        }
+
+        int distance = haversine(
+                table.latitudeRad[low], table.longitudeRad[low], table.cosLatitude[low],
+                table.latitudeRad[high], table.longitudeRad[high], table.cosLatitude[high]);
+        table.distances.set(slot, (pairKey << 32) | distance);
+        return distance;
+    }
+
+    public static int encodeIata(String iataCode) {
+        if (iataCode == null || iataCode.length() != 3) {
+            return -1;
+        }
+        int code = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = iataCode.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            code = code * 26 + (c - 'A');
+        }
+        return code;
+    }
+
+    public static int haversine(double latRad1, double lonRad1, double cosLat1,
+                                double latRad2, double lonRad2, double cosLat2) {
+        double sinHalfDeltaLat = Math.sin((latRad2 - latRad1) / 2);
+        double sinHalfDeltaLon = Math.sin((lonRad2 - lonRad1) / 2);
+        double a = sinHalfDeltaLat * sinHalfDeltaLat + cosLat1 * cosLat2 * sinHalfDeltaLon * sinHalfDeltaLon;
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return (int) Math.round(EARTH_RADIUS_KM * c / KM_TO_NAUTICAL_MILES);
+    }
+
+    private Coordinates current() {
+        Coordinates table = coordinates;
+        if (table == null) {
+            synchronized (this) {
+                if (coordinates == null) {
+                    load();
+                }
+                table = coordinates;
+            }
+        }
+        return table;
+    }
+
+    private record Coordinates(boolean[] present, double[] latitudeRad, double[] longitudeRad, double[] cosLatitude,
+                               AtomicLongArray distances) {
+        static Coordinates empty() {
+            return new Coordinates(new boolean[IATA_CODE_SPACE], new double[IATA_CODE_SPACE],
+                    new double[IATA_CODE_SPACE], new double[IATA_CODE_SPACE], new AtomicLongArray(DISTANCE_CACHE_SIZE));
+        }
+
+        // The copy starts with an empty distance cache, since distances cached for this snapshot may be stale
+        Coordinates copy() {
+            return new Coordinates(Arrays.copyOf(present, IATA_CODE_SPACE), Arrays.copyOf(latitudeRad, IATA_CODE_SPACE),
+                    Arrays.copyOf(longitudeRad, IATA_CODE_SPACE), Arrays.copyOf(cosLatitude, IATA_CODE_SPACE),
+                    new AtomicLongArray(DISTANCE_CACHE_SIZE));
+        }
+
+        void set(Airport airport) {
+            int code = encodeIata(airport.getIataCode());
+            if (code < 0) {
+                return;
+            }
+            double latitude = Math.toRadians(airport.getLatitudeDeg());
+            present[code] = true;
+            latitudeRad[code] = latitude;
+            longitudeRad[code] = Math.toRadians(airport.getLongitudeDeg());
+            cosLatitude[code] = Math.cos(latitude);
+        }
+    }
+}
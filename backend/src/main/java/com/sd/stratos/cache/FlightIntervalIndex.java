@@ -0,0 +1,129 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.Flight;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-aircraft flight windows ordered by departure time. Flights of one aircraft are kept
+ * disjoint by validation, so overlap and predecessor lookups only need to look at the
+ * neighbours of the probed time.
+ */
+@Component
+public class FlightIntervalIndex {
+
+    private static final Comparator<FlightWindow> BY_DEPARTURE = Comparator
+            .comparing(FlightWindow::departureTime)
+            .thenComparing(FlightWindow::flightId);
+
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final UUID MAX_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final Map<UUID, NavigableSet<FlightWindow>> windowsByAircraft = new ConcurrentHashMap<>();
+    private final Map<UUID, FlightWindow> windowsByFlight = new ConcurrentHashMap<>();
+    private volatile boolean warm = false;
+    private volatile Instant coveredFrom = Instant.MIN;
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Whether every flight arriving at or after {@code from} is in the index, so range queries starting
+     * there can be answered from memory.
+     */
+    public boolean covers(Instant from) {
+        return warm && !from.isBefore(coveredFrom);
+    }
+
+    public synchronized void load(Collection<Flight> flights) {
+        load(flights, Instant.MIN);
+    }
+
+    public synchronized void load(Collection<Flight> flights, Instant coveredFrom) {
+        windowsByAircraft.clear();
+        windowsByFlight.clear();
+        flights.forEach(this::putWindow);
+        this.coveredFrom = coveredFrom;
+        warm = true;
+    }
+
+    public synchronized void put(Flight flight) {
+        if (flight.getId() == null || flight.getAircraft() == null) {
+            return;
+        }
+        removeWindow(flight.getId());
+        putWindow(flight);
+    }
+
+    public synchronized void remove(UUID flightId) {
+        removeWindow(flightId);
+    }
+
+    public boolean existsOverlap(UUID flightId, UUID aircraftId, Instant departureTime, Instant arrivalTime) {
+        NavigableSet<FlightWindow> windows = windowsByAircraft.get(aircraftId);
+        if (windows == null) {
+            return false;
+        }
+        for (FlightWindow window : windows.headSet(probe(arrivalTime, MAX_ID), true).descendingSet()) {
+            if (window.flightId().equals(flightId)) {
+                continue;
+            }
+            return !window.arrivalTime().isBefore(departureTime);
+        }
+        return false;
+    }
+
+    public Optional<FlightWindow> findLastBefore(UUID aircraftId, Instant departureTime) {
+        NavigableSet<FlightWindow> windows = windowsByAircraft.get(aircraftId);
+        if (windows == null) {
+            return Optional.empty();
+        }
+        for (FlightWindow window : windows.headSet(probe(departureTime, MIN_ID), false).descendingSet()) {
+            if (window.arrivalTime().isBefore(departureTime)) {
+                return Optional.of(window);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<FlightWindow> windowsBetween(UUID aircraftId, Instant from, Instant to) {
+        NavigableSet<FlightWindow> windows = windowsByAircraft.get(aircraftId);
+        if (windows == null) {
+            return List.of();
+        }
+        List<FlightWindow> result = new ArrayList<>();
+        FlightWindow spillover = windows.lower(probe(from, MIN_ID));
+        if (spillover != null && !spillover.arrivalTime().isBefore(from)) {
+            result.add(spillover);
+        }
+        result.addAll(windows.subSet(probe(from, MIN_ID), true, probe(to, MAX_ID), true));
+        return result;
+    }
+
+    private void putWindow(Flight flight) {
+        FlightWindow window = FlightWindow.fromFlight(flight);
+        windowsByFlight.put(window.flightId(), window);
+        windowsByAircraft
+                .computeIfAbsent(window.aircraftId(), id -> new ConcurrentSkipListSet<>(BY_DEPARTURE))
+                .add(window);
+    }
+
+    private void removeWindow(UUID flightId) {
+        FlightWindow previous = windowsByFlight.remove(flightId);
+        if (previous != null) {
+            NavigableSet<FlightWindow> windows = windowsByAircraft.get(previous.aircraftId());
+            if (windows != null) {
+                windows.remove(previous);
+            }
+        }
+    }
+
+    private static FlightWindow probe(Instant departureTime, UUID flightId) {
+        return new FlightWindow(flightId, null, departureTime, departureTime, null, null);
+    }
+}
@@ -0,0 +1,31 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.Flight;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+import static com.sd.stratos.util.TransactionHooks.afterCommit;
+
+@Component
+@RequiredArgsConstructor
+public class FlightIntervalIndexListener {
+
+    private final FlightIntervalIndex flightIntervalIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onFlightSaved(Flight flight) {
+        afterCommit(() -> flightIntervalIndex.put(flight));
+    }
+
+    @PostRemove
+    public void onFlightRemoved(Flight flight) {
+        UUID flightId = flight.getId();
+        afterCommit(() -> flightIntervalIndex.remove(flightId));
+    }
+}
@@ -0,0 +1,26 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.Flight;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record FlightWindow(
+        UUID flightId,
+        UUID aircraftId,
+        Instant departureTime,
+        Instant arrivalTime,
+        String departureAirport,
+        String arrivalAirport
+) {
+    public static FlightWindow fromFlight(Flight flight) {
+        return new FlightWindow(
+                flight.getId(),
+                flight.getAircraft().getId(),
+                flight.getDepartureTime().toInstant(),
+                flight.getArrivalTime().toInstant(),
+                flight.getDepartureAirport(),
+                flight.getArrivalAirport()
+        );
+    }
+}
@@ -0,0 +1,110 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.MaintenanceRecord;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-aircraft maintenance windows ordered by start time, the maintenance counterpart of
+ * {@link FlightIntervalIndex}. Windows of one aircraft are kept disjoint by validation.
+ */
+@Component
+public class MaintenanceIntervalIndex {
+
+    private static final Comparator<MaintenanceWindow> BY_START = Comparator
+            .comparing(MaintenanceWindow::startTime)
+            .thenComparing(MaintenanceWindow::maintenanceRecordId);
+
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final UUID MAX_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final Map<UUID, NavigableSet<MaintenanceWindow>> windowsByAircraft = new ConcurrentHashMap<>();
+    private final Map<UUID, MaintenanceWindow> windowsByRecord = new ConcurrentHashMap<>();
+    private volatile boolean warm = false;
+    private volatile Instant coveredFrom = Instant.MIN;
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Whether every maintenance window ending at or after {@code from} is in the index.
+     */
+    public boolean covers(Instant from) {
+        return warm && !from.isBefore(coveredFrom);
+    }
+
+    public synchronized void load(Collection<MaintenanceRecord> records, Instant coveredFrom) {
+        windowsByAircraft.clear();
+        windowsByRecord.clear();
+        records.forEach(this::putWindow);
+        this.coveredFrom = coveredFrom;
+        warm = true;
+    }
+
+    public synchronized void put(MaintenanceRecord record) {
+        if (record.getId() == null || record.getAircraft() == null) {
+            return;
+        }
+        removeWindow(record.getId());
+        putWindow(record);
+    }
+
+    public synchronized void remove(UUID maintenanceRecordId) {
+        removeWindow(maintenanceRecordId);
+    }
+
+    public boolean existsOverlap(UUID maintenanceRecordId, UUID aircraftId, Instant start, Instant end) {
+        NavigableSet<MaintenanceWindow> windows = windowsByAircraft.get(aircraftId);
+        if (windows == null) {
+            return false;
+        }
+        for (MaintenanceWindow window : windows.headSet(probe(end, MAX_ID), true).descendingSet()) {
+            if (window.maintenanceRecordId().equals(maintenanceRecordId)) {
+                continue;
+            }
+            return !window.endTime().isBefore(start);
+        }
+        return false;
+    }
+
+    public List<MaintenanceWindow> windowsBetween(UUID aircraftId, Instant from, Instant to) {
+        NavigableSet<MaintenanceWindow> windows = windowsByAircraft.get(aircraftId);
+        if (windows == null) {
+            return List.of();
+        }
+        List<MaintenanceWindow> result = new ArrayList<>();
+        MaintenanceWindow spillover = windows.lower(probe(from, MIN_ID));
+        if (spillover != null && !spillover.endTime().isBefore(from)) {
+            result.add(spillover);
+        }
+        result.addAll(windows.subSet(probe(from, MIN_ID), true, probe(to, MAX_ID), true));
+        return result;
+    }
+
+    private void putWindow(MaintenanceRecord record) {
+        MaintenanceWindow window = MaintenanceWindow.fromRecord(record);
+        windowsByRecord.put(window.maintenanceRecordId(), window);
+        windowsByAircraft
+                .computeIfAbsent(window.aircraftId(), id -> new ConcurrentSkipListSet<>(BY_START))
+                .add(window);
+    }
+
+    private void removeWindow(UUID maintenanceRecordId) {
+        MaintenanceWindow previous = windowsByRecord.remove(maintenanceRecordId);
+        if (previous != null) {
+            NavigableSet<MaintenanceWindow> windows = windowsByAircraft.get(previous.aircraftId());
+            if (windows != null) {
+                windows.remove(previous);
+            }
+        }
+    }
+
+    private static MaintenanceWindow probe(Instant startTime, UUID maintenanceRecordId) {
+        return new MaintenanceWindow(maintenanceRecordId, null, startTime, startTime);
+    }
+}
@@ -0,0 +1,31 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.MaintenanceRecord;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+import static com.sd.stratos.util.TransactionHooks.afterCommit;
+
+@Component
+@RequiredArgsConstructor
+public class MaintenanceIntervalIndexListener {
+
+    private final MaintenanceIntervalIndex maintenanceIntervalIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onMaintenanceSaved(MaintenanceRecord record) {
+        afterCommit(() -> maintenanceIntervalIndex.put(record));
+    }
+
+    @PostRemove
+    public void onMaintenanceRemoved(MaintenanceRecord record) {
+        UUID recordId = record.getId();
+        afterCommit(() -> maintenanceIntervalIndex.remove(recordId));
+    }
+}
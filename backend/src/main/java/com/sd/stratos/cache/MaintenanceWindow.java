@@ -0,0 +1,22 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.MaintenanceRecord;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record MaintenanceWindow(
+        UUID maintenanceRecordId,
+        UUID aircraftId,
+        Instant startTime,
+        Instant endTime
+) {
+    public static MaintenanceWindow fromRecord(MaintenanceRecord record) {
+        return new MaintenanceWindow(
+                record.getId(),
+                record.getAircraft().getId(),
+                record.getStartDate().toInstant(),
+                record.getEndDate().toInstant()
+        );
+    }
+}
@@ -0,0 +1,144 @@
+package com.sd.stratos.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Lists that rarely change (airports, enum values), held as ready-to-send JSON and gzip bytes. A cached list is
+ * answered without touching the database or Jackson, and a client that already holds it gets {@code 304 Not
+ * Modified}. Entity tags are a digest of the JSON, so they stay valid across restarts and agree between
+ * instances; the gzip representation has its own tag. Writers of a list call {@link #invalidate} after changing it.
+ */
+@Component
+public class ReferenceDataCache {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final CacheControl cacheControl;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ReferenceDataCache(ObjectMapper objectMapper,
+                              @Value("${stratos.reference-data.max-age:5m}") Duration maxAge) {
+        this.objectMapper = objectMapper;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePrivate().mustRevalidate();
+    }
+
+    public ResponseEntity<byte[]> respond(String name, Supplier<?> loader, String ifNoneMatch, String acceptEncoding) {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            misses.increment();
+            // Loading under the map's lock means an invalidate() that runs meanwhile waits and removes the result
+            entry = entries.computeIfAbsent(name, key -> Entry.of(serialize(loader.get())));
+        } else {
+            hits.increment();
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String eTag = gzip ? entry.gzipETag() : entry.eTag();
+        boolean notModified = matches(ifNoneMatch, eTag);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (notModified) {
+            return response.build();
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(gzip ? entry.gzip() : entry.json());
+    }
+
+    public void invalidate(String name) {
+        entries.remove(name);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Reference data is not serializable", e);
+        }
+    }
+
+    // If-None-Match uses the weak comparison, so a tag the client got back weakened by a proxy still matches
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        ETag current = ETag.create(eTag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private record Entry(byte[] json, byte[] gzip, String eTag, String gzipETag) {
+
+        static Entry of(byte[] json) {
+            String digest = digest(json);
+            return new Entry(json, gzip(json), "\"" + digest + "\"", "\"" + digest + "-gzip\"");
+        }
+
+        private static String digest(byte[] json) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static byte[] gzip(byte[] json) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 2 + 32);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return compressed.toByteArray();
+        }
+    }
+}
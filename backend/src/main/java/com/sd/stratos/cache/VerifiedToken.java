@@ -0,0 +1,19 @@
+package com.sd.stratos.cache;
+
+import io.jsonwebtoken.Claims;
+
+// scope is null for a regular session token
+public record VerifiedToken(String subject, String role, String scope, long expiresAtMillis) {
+    public static VerifiedToken fromClaims(Claims claims) {
+        return new VerifiedToken(
+                claims.getSubject(),
+                String.valueOf(claims.get("role")),
+                claims.get("scope", String.class),
+                claims.getExpiration().getTime()
+        );
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+}
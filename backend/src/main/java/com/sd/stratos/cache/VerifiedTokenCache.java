@@ -0,0 +1,87 @@
+package com.sd.stratos.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tokens whose signature and claims have already been verified, keyed by the SHA-256 of the raw token and
+ * kept until the token expires. The map is bounded: when it is full, expired entries are dropped first and
+ * the whole map is cleared if that does not free any room.
+ */
+@Component
+public class VerifiedTokenCache {
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final int maxEntries;
+    private final Map<String, VerifiedToken> tokens = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public VerifiedToken get(String token) {
+        if (maxEntries == 0) {
+            return null;
+        }
+        String key = hash(token);
+        VerifiedToken verified = tokens.get(key);
+        if (verified != null && verified.isExpired(System.currentTimeMillis())) {
+            tokens.remove(key, verified);
+            verified = null;
+        }
+        (verified != null ? hits : misses).increment();
+        return verified;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (maxEntries == 0) {
+            return;
+        }
+        if (tokens.size() >= maxEntries) {
+            evict();
+        }
+        tokens.put(hash(token), verified);
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private synchronized void evict() {
+        long now = System.currentTimeMillis();
+        tokens.values().removeIf(verified -> verified.isExpired(now));
+        if (tokens.size() >= maxEntries) {
+            tokens.clear();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
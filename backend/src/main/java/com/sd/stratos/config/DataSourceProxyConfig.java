@@ -0,0 +1,40 @@
+package com.sd.stratos.config;
+
+import com.sd.stratos.util.ConnectionLimitingDataSource;
+import com.sd.stratos.util.SqlStatementListener;
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class DataSourceProxyConfig {
+    private static final int DEFAULT_MAX_CONNECTIONS = 10;
+
+    // Static and lazily resolved so the post processor is registered before the DataSource is created
+    @Bean
+    public static BeanPostProcessor sqlStatementDataSourceProxy(ObjectProvider<SqlStatementListener> sqlStatementListener, Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                // Permits default to the pool size, so waiting happens in the FIFO semaphore rather than inside the pool
+                int maxConnections = environment.getProperty("stratos.db.max-connections", Integer.class,
+                        dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : DEFAULT_MAX_CONNECTIONS);
+                Duration maxWait = environment.getProperty("stratos.db.connection-wait", Duration.class, Duration.ofSeconds(10));
+                return ProxyDataSourceBuilder.create(beanName, new ConnectionLimitingDataSource(dataSource, maxConnections, maxWait))
+                        .listener(sqlStatementListener.getObject())
+                        .build();
+            }
+        };
+    }
+}
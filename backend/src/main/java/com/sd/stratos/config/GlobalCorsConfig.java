@@ -1,7 +1,9 @@
 package com.sd.stratos.config;
 
+import com.sd.stratos.util.SqlStatementFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -15,7 +17,8 @@ public class GlobalCorsConfig {
                 registry.addMapping("/**")
                         .allowedOrigins("*") // or "http://localhost:3000"
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
-                        .allowedHeaders("*");
+                        .allowedHeaders("*")
+                        .exposedHeaders(HttpHeaders.ETAG, SqlStatementFilter.STATEMENTS_HEADER, SqlStatementFilter.TIMING_HEADER);
             }
         };
     }
@@ -3,6 +3,8 @@ package com.sd.stratos.config;
 import com.sd.stratos.exception.*;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -93,4 +95,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorMap);
     }
 
+    @ExceptionHandler(StaleVersionException.class)
+    public ResponseEntity<Map<String, String>> handleStaleVersionException(StaleVersionException ex) {
+        Map<String, String> errorMap = new HashMap<>();
+        errorMap.put("error", StaleVersionException.class.getSimpleName());
+        errorMap.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorMap);
+    }
+
+    @ExceptionHandler(CannotAcquireLockException.class)
+    public ResponseEntity<Map<String, String>> handleCannotAcquireLockException(CannotAcquireLockException ex) {
+        Map<String, String> errorMap = new HashMap<>();
+        errorMap.put("error", CannotAcquireLockException.class.getSimpleName());
+        errorMap.put("message", "The aircraft schedule is being changed by another request, try again");
+        log.warn("Schedule lock not acquired: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorMap);
+    }
+
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConcurrencyFailureException(ConcurrencyFailureException ex) {
+        Map<String, String> errorMap = new HashMap<>();
+        errorMap.put("error", ConcurrencyFailureException.class.getSimpleName());
+        errorMap.put("message", "The record was changed by another request, reload it and try again");
+        log.warn("Concurrent update rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorMap);
+    }
+
 }
@@ -0,0 +1,43 @@
+package com.sd.stratos.config;
+
+import com.sd.stratos.cache.AircraftRegistry;
+import com.sd.stratos.cache.ReferenceDataCache;
+import com.sd.stratos.cache.VerifiedTokenCache;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // Same names and tags as Micrometer's own cache binders, so hit rate is cache_gets{result="hit"} / cache_gets
+    @Bean
+    public MeterBinder cacheMetrics(AircraftRegistry aircraftRegistry, VerifiedTokenCache verifiedTokenCache,
+                                    ReferenceDataCache referenceDataCache) {
+        return registry -> {
+            bindCache(registry, "aircraft", aircraftRegistry,
+                    cache -> cache.stats().hits(), cache -> cache.stats().misses(), cache -> cache.stats().size());
+            bindCache(registry, "verifiedTokens", verifiedTokenCache,
+                    VerifiedTokenCache::hits, VerifiedTokenCache::misses, VerifiedTokenCache::size);
+            bindCache(registry, "referenceData", referenceDataCache,
+                    ReferenceDataCache::hits, ReferenceDataCache::misses, ReferenceDataCache::size);
+        };
+    }
+
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache,
+                                      ToDoubleFunction<T> hits, ToDoubleFunction<T> misses, ToDoubleFunction<T> size) {
+        FunctionCounter.builder("cache.gets", cache, hits).tags("cache", name, "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, misses).tags("cache", name, "result", "miss").register(registry);
+        Gauge.builder("cache.size", cache, size).tag("cache", name).register(registry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.sd.stratos.config;
+
+import com.sd.stratos.util.RouteAccess;
+import com.sd.stratos.util.RoutePermissionTable;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RoutePermissionConfig {
+    @Bean
+    public RoutePermissionTable routePermissionTable() {
+        return RoutePermissionTable.builder()
+                // CORS preflight
+                .route("OPTIONS", "/**", RouteAccess.PUBLIC)
+                .route("/api/airports/**", RouteAccess.PUBLIC)
+                .route("/api/auth/login", RouteAccess.PUBLIC)
+                .route("/api/auth/verify-otp-reset", RouteAccess.PUBLIC)
+                .route("/api/auth/enable-otp/{username}", RouteAccess.OWNER)
+                .route("/api/aircraft/**", RouteAccess.ADMIN)
+                .route("/api/users/**", RouteAccess.ADMIN)
+                .route("/api/maintenance-records/audit/**", RouteAccess.ADMIN)
+                .route("/api/maintenance-records/**", RouteAccess.ENGINEER)
+                .defaultAccess(RouteAccess.AUTHENTICATED)
+                .build();
+    }
+}
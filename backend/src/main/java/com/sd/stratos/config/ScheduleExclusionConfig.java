@@ -0,0 +1,27 @@
+package com.sd.stratos.config;
+
+import org.flywaydb.core.api.Location;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * Lets PostgreSQL reject overlapping flights and maintenance windows of one aircraft, closing the gap between
+ * the service overlap checks and the insert when two schedulers write at the same time.
+ */
+@Configuration
+@ConditionalOnProperty(name = "stratos.schedule.exclusion-constraints", havingValue = "true")
+public class ScheduleExclusionConfig {
+
+    @Bean
+    public FlywayConfigurationCustomizer scheduleExclusionConstraints() {
+        return configuration -> configuration.locations(Stream.concat(
+                Arrays.stream(configuration.getLocations()),
+                Stream.of(new Location("classpath:db/exclusion/postgresql"))
+        ).toArray(Location[]::new));
+    }
+}
@@ -1,15 +1,23 @@
 package com.sd.stratos.controller;
 
+import com.sd.stratos.cache.AircraftRegistry;
+import com.sd.stratos.cache.ReferenceDataCache;
+import com.sd.stratos.dto.AircraftAvailabilityDTO;
 import com.sd.stratos.dto.AircraftCreateDTO;
 import com.sd.stratos.dto.AircraftUpdateDTO;
 import com.sd.stratos.entity.Aircraft;
-import com.sd.stratos.entity.AircraftStatus;
 import com.sd.stratos.entity.AircraftType;
 import com.sd.stratos.service.AircraftService;
+import com.sd.stratos.service.AvailabilityService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,12 +27,33 @@ import java.util.UUID;
 @CrossOrigin
 public class AircraftController {
     private final AircraftService aircraftService;
+    private final AvailabilityService availabilityService;
+    private final ReferenceDataCache referenceDataCache;
 
     @GetMapping
     public List<Aircraft> getAllAircrafts() {
         return aircraftService.getAllAircrafts();
     }
 
+    @GetMapping("/availability")
+    public List<AircraftAvailabilityDTO> getFleetAvailability(
+            @RequestParam(required = false) AircraftType type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to,
+            @RequestParam(required = false, defaultValue = "0") long minFreeMinutes
+    ) {
+        return availabilityService.getFleetAvailability(type, from, to, Duration.ofMinutes(minFreeMinutes));
+    }
+
+    @GetMapping("/{id}/availability")
+    public AircraftAvailabilityDTO getAircraftAvailability(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to
+    ) {
+        return availabilityService.getAvailability(id, from, to);
+    }
+
     @GetMapping("/{id}")
     public Aircraft getAircraft(@PathVariable UUID id) {
         return aircraftService.getAircraftById(id);
@@ -45,9 +74,24 @@ public class AircraftController {
         aircraftService.deleteAircraft(id);
     }
 
+    @GetMapping("/registry/stats")
+    public AircraftRegistry.Stats getRegistryStats() {
+        return aircraftService.getRegistryStats();
+    }
+
     @GetMapping("/types")
-    public List<AircraftType> getAllAircraftTypes() {return aircraftService.getAllAircraftTypes();}
+    public ResponseEntity<byte[]> getAllAircraftTypes(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return referenceDataCache.respond("aircraft-types", aircraftService::getAllAircraftTypes, ifNoneMatch, acceptEncoding);
+    }
 
     @GetMapping("/statuses")
-    public List<AircraftStatus> getAllAircraftStatuses() {return aircraftService.getAllAircraftStatuses();}
+    public ResponseEntity<byte[]> getAllAircraftStatuses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return referenceDataCache.respond("aircraft-statuses", aircraftService::getAllAircraftStatuses, ifNoneMatch, acceptEncoding);
+    }
 }
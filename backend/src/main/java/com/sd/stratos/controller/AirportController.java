@@ -1,11 +1,14 @@
 package com.sd.stratos.controller;
 
+import com.sd.stratos.cache.ReferenceDataCache;
 import com.sd.stratos.entity.Airport;
 import com.sd.stratos.repository.AirportRepository;
 import com.sd.stratos.service.AirportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.repository.query.Param;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,10 +20,14 @@ import java.util.List;
 public class AirportController {
 
     private final AirportService airportService;
+    private final ReferenceDataCache referenceDataCache;
 
     @GetMapping
-    public List<String> getAllIataCodes() {
-        return airportService.getAllIataCodes();
+    public ResponseEntity<byte[]> getAllIataCodes(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return referenceDataCache.respond(AirportService.IATA_CODES, airportService::getAllIataCodes, ifNoneMatch, acceptEncoding);
     }
 
     @PostMapping
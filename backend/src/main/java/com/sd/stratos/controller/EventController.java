@@ -0,0 +1,75 @@
+package com.sd.stratos.controller;
+
+import com.sd.stratos.cache.VerifiedToken;
+import com.sd.stratos.entity.User;
+import com.sd.stratos.event.ChangeFeed;
+import com.sd.stratos.repository.UserRepository;
+import com.sd.stratos.util.JwtAuthFilter;
+import com.sd.stratos.util.JwtUtil;
+import com.sd.stratos.util.RoutePermissionTable;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin
+public class EventController {
+    private final ChangeFeed changeFeed;
+    private final RoutePermissionTable routePermissionTable;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final Duration timeout;
+    private final Duration tokenDuration;
+
+    public EventController(ChangeFeed changeFeed,
+                           RoutePermissionTable routePermissionTable,
+                           UserRepository userRepository,
+                           JwtUtil jwtUtil,
+                           @Value("${stratos.events.timeout:30m}") Duration timeout,
+                           @Value("${stratos.events.token-duration:1m}") Duration tokenDuration) {
+        this.changeFeed = changeFeed;
+        this.routePermissionTable = routePermissionTable;
+        this.userRepository = userRepository;
+        this.jwtUtil = jwtUtil;
+        this.timeout = timeout;
+        this.tokenDuration = tokenDuration;
+    }
+
+    /*
+     * EventSource cannot send the Authorization header, so browsers first POST here with it and open
+     * GET /api/events?access_token=<token>. The token is only checked when the stream is opened; once it has
+     * expired the client fetches a new one before reconnecting and passes since=<last event id> with it.
+     */
+    @PostMapping("/token")
+    public ResponseEntity<?> eventStreamToken(HttpServletRequest request) {
+        VerifiedToken token = (VerifiedToken) request.getAttribute(JwtAuthFilter.VERIFIED_TOKEN);
+        Optional<User> maybeUser = token == null ? Optional.empty() : userRepository.findByUsername(token.subject());
+        if (maybeUser.isEmpty()) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(Map.of("token", jwtUtil.generateScopedToken(maybeUser.get(), JwtUtil.EVENT_STREAM_SCOPE, tokenDuration)));
+    }
+
+    // Browsers resend the last event id as Last-Event-ID when they reconnect; since serves the first connection
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                             @RequestParam(required = false) String since,
+                             HttpServletRequest request) {
+        VerifiedToken token = (VerifiedToken) request.getAttribute(JwtAuthFilter.VERIFIED_TOKEN);
+        String role = token == null ? null : token.role();
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        // A topic is only sent to users who may read its list endpoint
+        changeFeed.subscribe(emitter,
+                topic -> routePermissionTable.resolve("GET", topic.path()).access().allowsRole(role),
+                lastEventId != null ? lastEventId : since);
+        return emitter;
+    }
+}
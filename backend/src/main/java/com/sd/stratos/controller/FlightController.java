@@ -1,15 +1,32 @@
 package com.sd.stratos.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sd.stratos.dto.FlightAssignmentLegDTO;
+import com.sd.stratos.dto.FlightAssignmentReport;
 import com.sd.stratos.dto.FlightCreateDTO;
 import com.sd.stratos.dto.FlightDisplayDTO;
+import com.sd.stratos.dto.FlightFilterDTO;
+import com.sd.stratos.dto.FlightImportReport;
+import com.sd.stratos.dto.FlightPageDTO;
 import com.sd.stratos.dto.FlightPartialDTO;
 import com.sd.stratos.dto.FlightUpdateDTO;
 import com.sd.stratos.entity.Flight;
+import com.sd.stratos.service.FlightImportService;
 import com.sd.stratos.service.FlightService;
+import com.sd.stratos.service.TailAssignmentService;
+import com.sd.stratos.util.NdjsonWriter;
+import com.sd.stratos.util.VersionTags;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -20,15 +37,52 @@ import java.util.UUID;
 @CrossOrigin
 public class FlightController {
     private final FlightService flightService;
+    private final FlightImportService flightImportService;
+    private final TailAssignmentService tailAssignmentService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public List<FlightDisplayDTO> getAllFlights() {
         return flightService.getAllFlights();
     }
 
+    @GetMapping("/page")
+    public FlightPageDTO getFlightPage(
+            @RequestParam(required = false) String aircraft,
+            @RequestParam(required = false) String departureAirport,
+            @RequestParam(required = false) String arrivalAirport,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "100") int limit
+    ) {
+        return flightService.getFlightPage(new FlightFilterDTO(aircraft, departureAirport, arrivalAirport, from, to), cursor, limit);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFlights(
+            @RequestParam(required = false) String aircraft,
+            @RequestParam(required = false) String departureAirport,
+            @RequestParam(required = false) String arrivalAirport,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to
+    ) {
+        FlightFilterDTO filter = new FlightFilterDTO(aircraft, departureAirport, arrivalAirport, from, to);
+        StreamingResponseBody body = outputStream -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+                flightService.streamFlights(filter, writer::write);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{id}")
-    public Flight getFlightById(@PathVariable UUID id) {
-        return flightService.getFlightById(id);
+    public ResponseEntity<Flight> getFlightById(@PathVariable UUID id) {
+        Flight flight = flightService.getFlightById(id);
+        if (flight == null) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.ok().eTag(VersionTags.of(flight.getVersion())).body(flight);
     }
 
     @PostMapping
@@ -36,14 +90,40 @@ public class FlightController {
         return flightService.addFlight(flightDTO);
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public FlightImportReport importFlights(@RequestBody List<FlightCreateDTO> flights) {
+        return flightImportService.importFlights(flights);
+    }
+
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public FlightImportReport importFlightStream(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        if (MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+            return flightImportService.importCsv(body);
+        }
+        return flightImportService.importNdjson(body);
+    }
+
+    @PostMapping("/assign")
+    public FlightAssignmentReport assignFlights(
+            @RequestBody List<FlightAssignmentLegDTO> flights,
+            @RequestParam(required = false, defaultValue = "false") boolean save
+    ) {
+        return tailAssignmentService.assign(flights, save);
+    }
+
     @PostMapping("/arrival-time")
     public ZonedDateTime getArrivalTime(@Valid @RequestBody FlightPartialDTO flightDTO) {
         return flightService.getArrivalTime(flightDTO);
     }
 
     @PutMapping("/{id}")
-    public Flight updateFlight(@PathVariable UUID id, @Valid @RequestBody FlightUpdateDTO flightUpdateDTO) {
-        return flightService.updateFlight(id, flightUpdateDTO);
+    public ResponseEntity<Flight> updateFlight(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody FlightUpdateDTO flightUpdateDTO
+    ) {
+        Flight flight = flightService.updateFlight(id, flightUpdateDTO, VersionTags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(flight.getVersion())).body(flight);
     }
 
     @DeleteMapping("/{id}")
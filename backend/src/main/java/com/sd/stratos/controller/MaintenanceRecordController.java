@@ -1,20 +1,32 @@
 package com.sd.stratos.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sd.stratos.cache.ReferenceDataCache;
+import com.sd.stratos.dto.MaintenanceAuditFilterDTO;
+import com.sd.stratos.dto.MaintenanceAuditPageDTO;
 import com.sd.stratos.dto.MaintenanceRecordCreateDTO;
+import com.sd.stratos.dto.MaintenanceRecordListDTO;
 import com.sd.stratos.dto.MaintenanceRecordUpdateDTO;
 import com.sd.stratos.entity.MaintenanceRecord;
-import com.sd.stratos.entity.MaintenanceRecordLogEntry;
+import com.sd.stratos.entity.ActionType;
 import com.sd.stratos.entity.MaintenanceStatus;
 import com.sd.stratos.entity.MaintenanceType;
-import com.sd.stratos.repository.MaintenanceRecordLogEntryRepository;
+import com.sd.stratos.service.MaintenanceAuditService;
 import com.sd.stratos.service.MaintenanceRecordService;
+import com.sd.stratos.util.NdjsonWriter;
+import com.sd.stratos.util.VersionTags;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/maintenance-records")
@@ -22,10 +34,12 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
 public class MaintenanceRecordController {
     private final MaintenanceRecordService maintenanceRecordService;
-    private final MaintenanceRecordLogEntryRepository maintenanceRecordLogEntryRepository;
+    private final MaintenanceAuditService maintenanceAuditService;
+    private final ObjectMapper objectMapper;
+    private final ReferenceDataCache referenceDataCache;
 
     @GetMapping
-    public List<MaintenanceRecord> getMaintenanceRecords(
+    public List<MaintenanceRecordListDTO> getMaintenanceRecords(
             @RequestParam(required = false) MaintenanceStatus status,
             @RequestParam(required = false) MaintenanceType type,
             @RequestParam(required = false) UUID engineerId,
@@ -37,8 +51,12 @@ public class MaintenanceRecordController {
     }
 
     @GetMapping("/{id}")
-    public MaintenanceRecord getMaintenanceRecord(@PathVariable UUID id) {
-        return maintenanceRecordService.getMaintenanceRecordById(id);
+    public ResponseEntity<MaintenanceRecord> getMaintenanceRecord(@PathVariable UUID id) {
+        MaintenanceRecord maintenanceRecord = maintenanceRecordService.getMaintenanceRecordById(id);
+        if (maintenanceRecord == null) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.ok().eTag(VersionTags.of(maintenanceRecord.getVersion())).body(maintenanceRecord);
     }
 
     @PostMapping
@@ -47,8 +65,13 @@ public class MaintenanceRecordController {
     }
 
     @PutMapping("/{id}")
-    public MaintenanceRecord updateMaintenanceRecord(@PathVariable UUID id,@Valid @RequestBody MaintenanceRecordUpdateDTO maintenanceRecordUpdateDTO) {
-        return maintenanceRecordService.updateMaintenanceRecord(id, maintenanceRecordUpdateDTO);
+    public ResponseEntity<MaintenanceRecord> updateMaintenanceRecord(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody MaintenanceRecordUpdateDTO maintenanceRecordUpdateDTO
+    ) {
+        MaintenanceRecord maintenanceRecord = maintenanceRecordService.updateMaintenanceRecord(id, maintenanceRecordUpdateDTO, VersionTags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(maintenanceRecord.getVersion())).body(maintenanceRecord);
     }
 
     @DeleteMapping("/{id}")
@@ -57,14 +80,51 @@ public class MaintenanceRecordController {
     }
 
     @GetMapping("/types")
-    public List<MaintenanceType> getAllMaintenanceTypes() {return maintenanceRecordService.getAllMaintenanceTypes();}
+    public ResponseEntity<byte[]> getAllMaintenanceTypes(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return referenceDataCache.respond("maintenance-types", maintenanceRecordService::getAllMaintenanceTypes, ifNoneMatch, acceptEncoding);
+    }
 
     @GetMapping("/statuses")
-    public List<MaintenanceStatus> getAllMaintenanceStatuses() {return maintenanceRecordService.getAllMaintenanceStatuses();}
+    public ResponseEntity<byte[]> getAllMaintenanceStatuses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return referenceDataCache.respond("maintenance-statuses", maintenanceRecordService::getAllMaintenanceStatuses, ifNoneMatch, acceptEncoding);
+    }
 
     @GetMapping("/audit")
-    public List<String> getAllMaintenanceRecordLogEntries() {
-        return maintenanceRecordLogEntryRepository.findAll().stream().map(MaintenanceRecordLogEntry::toString).collect(Collectors.toList());
+    public MaintenanceAuditPageDTO getMaintenanceAuditPage(
+            @RequestParam(required = false) UUID maintenanceRecordId,
+            @RequestParam(required = false) String aircraft,
+            @RequestParam(required = false) String engineer,
+            @RequestParam(required = false) ActionType actionType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "100") int limit
+    ) {
+        MaintenanceAuditFilterDTO filter = new MaintenanceAuditFilterDTO(maintenanceRecordId, aircraft, engineer, actionType, from, to);
+        return maintenanceAuditService.getAuditPage(filter, cursor, limit);
     }
-}
 
+    @GetMapping(value = "/audit/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMaintenanceAudit(
+            @RequestParam(required = false) UUID maintenanceRecordId,
+            @RequestParam(required = false) String aircraft,
+            @RequestParam(required = false) String engineer,
+            @RequestParam(required = false) ActionType actionType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        MaintenanceAuditFilterDTO filter = new MaintenanceAuditFilterDTO(maintenanceRecordId, aircraft, engineer, actionType, from, to);
+        StreamingResponseBody body = outputStream -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+                maintenanceAuditService.streamAudit(filter, writer::write);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -1,6 +1,7 @@
 package com.sd.stratos.controller;
 
 
+import com.sd.stratos.cache.ReferenceDataCache;
 import com.sd.stratos.dto.ExistingUserDTO;
 import com.sd.stratos.dto.UserCreateDTO;
 import com.sd.stratos.dto.UserUpdateDTO;
@@ -9,6 +10,8 @@ import com.sd.stratos.entity.UserRole;
 import com.sd.stratos.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,6 +24,7 @@ import java.util.UUID;
 public class UserController {
 
     private final UserService userService;
+    private final ReferenceDataCache referenceDataCache;
 
     @GetMapping
     public List<ExistingUserDTO> findAll(
@@ -33,8 +37,11 @@ public class UserController {
     }
 
     @GetMapping("/roles")
-    public List<UserRole> findAllRoles() {
-        return userService.getAllUserRoles();
+    public ResponseEntity<byte[]> findAllRoles(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return referenceDataCache.respond("user-roles", userService::getAllUserRoles, ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,17 @@
+package com.sd.stratos.dto;
+
+import com.sd.stratos.entity.AircraftStatus;
+import com.sd.stratos.entity.AircraftType;
+
+import java.util.List;
+import java.util.UUID;
+
+public record AircraftAvailabilityDTO(
+        UUID aircraftId,
+        String registrationNumber,
+        AircraftType type,
+        AircraftStatus status,
+        boolean available,
+        List<OccupancyDTO> occupied,
+        List<TimeWindowDTO> free
+) {}
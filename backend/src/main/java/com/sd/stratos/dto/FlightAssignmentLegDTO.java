@@ -0,0 +1,30 @@
+package com.sd.stratos.dto;
+
+import com.sd.stratos.entity.AircraftType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+import java.time.ZonedDateTime;
+
+public record FlightAssignmentLegDTO(
+        @Pattern(regexp = "^[A-Z]{2}[1-9][0-9]{0,3}$", message = "Invalid flight number format")
+        String flightNumber,
+
+        @Pattern(regexp = "^[A-Z]{3}$", message = "Departure airport code not in IATA format")
+        String departureAirport,
+
+        @Pattern(regexp = "^[A-Z]{3}$", message = "Arrival airport code not in IATA format")
+        String arrivalAirport,
+
+        @NotNull
+        ZonedDateTime departureTime,
+
+        @NotNull
+        ZonedDateTime arrivalTime,
+
+        AircraftType aircraftType
+) {
+    public FlightCreateDTO withAircraft(String aircraft) {
+        return new FlightCreateDTO(flightNumber, departureAirport, arrivalAirport, departureTime, arrivalTime, aircraft);
+    }
+}
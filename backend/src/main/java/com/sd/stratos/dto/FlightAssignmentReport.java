@@ -0,0 +1,15 @@
+package com.sd.stratos.dto;
+
+import java.util.List;
+
+public record FlightAssignmentReport(
+        int assigned,
+        int unassigned,
+        List<FlightAssignmentResultDTO> flights,
+        FlightImportReport saved
+) {
+    public static FlightAssignmentReport of(List<FlightAssignmentResultDTO> flights, FlightImportReport saved) {
+        int assigned = (int) flights.stream().filter(FlightAssignmentResultDTO::assigned).count();
+        return new FlightAssignmentReport(assigned, flights.size() - assigned, flights, saved);
+    }
+}
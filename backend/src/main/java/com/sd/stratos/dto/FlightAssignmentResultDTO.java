@@ -0,0 +1,19 @@
+package com.sd.stratos.dto;
+
+import com.sd.stratos.entity.AircraftType;
+
+public record FlightAssignmentResultDTO(
+        String flightNumber,
+        boolean assigned,
+        String aircraft,
+        AircraftType aircraftType,
+        String message
+) {
+    public static FlightAssignmentResultDTO assigned(String flightNumber, String aircraft, AircraftType aircraftType) {
+        return new FlightAssignmentResultDTO(flightNumber, true, aircraft, aircraftType, null);
+    }
+
+    public static FlightAssignmentResultDTO unassigned(String flightNumber, String message) {
+        return new FlightAssignmentResultDTO(flightNumber, false, null, null, message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.sd.stratos.dto;
+
+import java.time.ZonedDateTime;
+
+public record FlightFilterDTO(
+        String aircraft,
+        String departureAirport,
+        String arrivalAirport,
+        ZonedDateTime from,
+        ZonedDateTime to
+) {}
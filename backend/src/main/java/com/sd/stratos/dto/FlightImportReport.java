@@ -0,0 +1,14 @@
+package com.sd.stratos.dto;
+
+import java.util.List;
+
+public record FlightImportReport(
+        int accepted,
+        int rejected,
+        List<FlightImportRowResult> rows
+) {
+    public static FlightImportReport of(List<FlightImportRowResult> rows) {
+        int accepted = (int) rows.stream().filter(FlightImportRowResult::accepted).count();
+        return new FlightImportReport(accepted, rows.size() - accepted, rows);
+    }
+}
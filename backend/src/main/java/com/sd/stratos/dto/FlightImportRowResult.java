@@ -0,0 +1,19 @@
+package com.sd.stratos.dto;
+
+import java.util.UUID;
+
+public record FlightImportRowResult(
+        int row,
+        String flightNumber,
+        boolean accepted,
+        UUID id,
+        String message
+) {
+    public static FlightImportRowResult accepted(int row, String flightNumber, UUID id) {
+        return new FlightImportRowResult(row, flightNumber, true, id, null);
+    }
+
+    public static FlightImportRowResult rejected(int row, String flightNumber, String message) {
+        return new FlightImportRowResult(row, flightNumber, false, null, message);
+    }
+}
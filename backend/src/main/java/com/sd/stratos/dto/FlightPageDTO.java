@@ -0,0 +1,8 @@
+package com.sd.stratos.dto;
+
+import java.util.List;
+
+public record FlightPageDTO(
+        List<FlightDisplayDTO> items,
+        String nextCursor
+) {}
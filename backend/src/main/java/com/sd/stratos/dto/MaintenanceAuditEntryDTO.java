@@ -0,0 +1,16 @@
+package com.sd.stratos.dto;
+
+import com.sd.stratos.entity.ActionType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record MaintenanceAuditEntryDTO(
+        UUID logEntryId,
+        ActionType actionType,
+        UUID maintenanceRecordId,
+        String aircraftRegistrationNumber,
+        String performedBy,
+        LocalDateTime timestamp,
+        String changes
+) {}
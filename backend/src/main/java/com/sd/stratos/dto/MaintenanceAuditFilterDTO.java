@@ -0,0 +1,15 @@
+package com.sd.stratos.dto;
+
+import com.sd.stratos.entity.ActionType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record MaintenanceAuditFilterDTO(
+        UUID maintenanceRecordId,
+        String aircraft,
+        String engineer,
+        ActionType actionType,
+        LocalDateTime from,
+        LocalDateTime to
+) {}
@@ -0,0 +1,8 @@
+package com.sd.stratos.dto;
+
+import java.util.List;
+
+public record MaintenanceAuditPageDTO(
+        List<MaintenanceAuditEntryDTO> items,
+        String nextCursor
+) {}
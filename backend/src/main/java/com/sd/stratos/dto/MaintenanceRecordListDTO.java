@@ -0,0 +1,50 @@
+package com.sd.stratos.dto;
+
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.entity.AircraftStatus;
+import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.entity.MaintenanceRecord;
+import com.sd.stratos.entity.MaintenanceStatus;
+import com.sd.stratos.entity.MaintenanceType;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+public record MaintenanceRecordListDTO(
+        UUID id,
+        AircraftSummary aircraft,
+        EngineerSummary engineer,
+        MaintenanceType type,
+        ZonedDateTime startDate,
+        ZonedDateTime endDate,
+        MaintenanceStatus status
+) {
+    public MaintenanceRecordListDTO(UUID id,
+                                    UUID aircraftId,
+                                    String aircraftRegistrationNumber,
+                                    AircraftType aircraftType,
+                                    AircraftStatus aircraftStatus,
+                                    UUID engineerId,
+                                    String engineerUsername,
+                                    MaintenanceType type,
+                                    ZonedDateTime startDate,
+                                    ZonedDateTime endDate,
+                                    MaintenanceStatus status) {
+        this(id,
+                new AircraftSummary(aircraftId, aircraftRegistrationNumber, aircraftType, aircraftStatus),
+                new EngineerSummary(engineerId, engineerUsername),
+                type, startDate, endDate, status);
+    }
+
+    public static MaintenanceRecordListDTO fromRecord(MaintenanceRecord record) {
+        Aircraft aircraft = record.getAircraft();
+        return new MaintenanceRecordListDTO(record.getId(),
+                aircraft.getId(), aircraft.getRegistrationNumber(), aircraft.getType(), aircraft.getStatus(),
+                record.getEngineer().getId(), record.getEngineer().getUsername(),
+                record.getType(), record.getStartDate(), record.getEndDate(), record.getStatus());
+    }
+
+    public record AircraftSummary(UUID id, String registrationNumber, AircraftType type, AircraftStatus status) {}
+
+    public record EngineerSummary(UUID id, String username) {}
+}
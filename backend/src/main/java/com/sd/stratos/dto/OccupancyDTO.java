@@ -0,0 +1,16 @@
+package com.sd.stratos.dto;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+public record OccupancyDTO(
+        Kind kind,
+        UUID id,
+        ZonedDateTime start,
+        ZonedDateTime end
+) {
+    public enum Kind {
+        FLIGHT,
+        MAINTENANCE
+    }
+}
@@ -0,0 +1,8 @@
+package com.sd.stratos.dto;
+
+import java.time.ZonedDateTime;
+
+public record TimeWindowDTO(
+        ZonedDateTime start,
+        ZonedDateTime end
+) {}
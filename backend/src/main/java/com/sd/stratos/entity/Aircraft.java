@@ -1,5 +1,7 @@
 package com.sd.stratos.entity;
 
+import com.sd.stratos.cache.AircraftRegistryListener;
+import com.sd.stratos.event.ChangeFeedListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Pattern;
 import lombok.*;
@@ -7,6 +9,7 @@ import lombok.*;
 import java.util.UUID;
 
 @Entity
+@EntityListeners({AircraftRegistryListener.class, ChangeFeedListener.class})
 @Data
 @Getter
 @Setter
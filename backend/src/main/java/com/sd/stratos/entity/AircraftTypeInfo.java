@@ -1,6 +1,8 @@
 package com.sd.stratos.entity;
 
+import com.sd.stratos.cache.AircraftTypeInfoCacheListener;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
@@ -10,6 +12,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@EntityListeners(AircraftTypeInfoCacheListener.class)
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -1,5 +1,7 @@
 package com.sd.stratos.entity;
 
+import com.sd.stratos.cache.FlightIntervalIndexListener;
+import com.sd.stratos.event.ChangeFeedListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
@@ -13,6 +15,7 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners({FlightIntervalIndexListener.class, ChangeFeedListener.class})
 public class Flight {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -39,4 +42,11 @@ public class Flight {
     @ManyToOne(optional = false)
     private Aircraft aircraft;
 
+    @Version
+    private Long version;
+
+    public Flight(UUID id, String flightNumber, String departureAirport, String arrivalAirport,
+                  ZonedDateTime departureTime, ZonedDateTime arrivalTime, Aircraft aircraft) {
+        this(id, flightNumber, departureAirport, arrivalAirport, departureTime, arrivalTime, aircraft, null);
+    }
 }
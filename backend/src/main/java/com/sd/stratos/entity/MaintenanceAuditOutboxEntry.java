@@ -0,0 +1,57 @@
+package com.sd.stratos.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Audit entry written in the same transaction as the maintenance record change. The audit writer moves
+ * these rows into {@link MaintenanceRecordLogEntry} in batches, so an entry survives a crash until it has
+ * been copied.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+public class MaintenanceAuditOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ActionType actionType;
+
+    @Column(nullable = false)
+    private UUID maintenanceRecordId;
+
+    @Column(nullable = false)
+    private String aircraftRegistrationNumber;
+
+    @Column(nullable = false)
+    private String performedBy;
+
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+
+    @Column
+    private String changes;
+
+    public static MaintenanceAuditOutboxEntry from(MaintenanceRecordLogEntry logEntry) {
+        MaintenanceAuditOutboxEntry entry = new MaintenanceAuditOutboxEntry();
+        entry.setActionType(logEntry.getActionType());
+        entry.setMaintenanceRecordId(logEntry.getMaintenanceRecordId());
+        entry.setAircraftRegistrationNumber(logEntry.getAircraftRegistrationNumber());
+        entry.setPerformedBy(logEntry.getPerformedBy());
+        entry.setTimestamp(logEntry.getTimestamp());
+        entry.setChanges(logEntry.getChanges());
+        return entry;
+    }
+
+    public MaintenanceRecordLogEntry toLogEntry() {
+        return new MaintenanceRecordLogEntry(actionType, maintenanceRecordId, aircraftRegistrationNumber, performedBy, timestamp, changes);
+    }
+}
@@ -1,5 +1,7 @@
 package com.sd.stratos.entity;
 
+import com.sd.stratos.cache.MaintenanceIntervalIndexListener;
+import com.sd.stratos.event.ChangeFeedListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,6 +11,7 @@ import java.time.ZonedDateTime;
 import java.util.UUID;
 
 @Entity
+@EntityListeners({MaintenanceIntervalIndexListener.class, ChangeFeedListener.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -44,4 +47,12 @@ public class MaintenanceRecord {
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
     private MaintenanceStatus status;
+
+    @Version
+    private Long version;
+
+    public MaintenanceRecord(UUID id, Aircraft aircraft, User engineer, MaintenanceType type,
+                             ZonedDateTime startDate, ZonedDateTime endDate, MaintenanceStatus status) {
+        this(id, aircraft, engineer, type, startDate, endDate, status, null);
+    }
 }
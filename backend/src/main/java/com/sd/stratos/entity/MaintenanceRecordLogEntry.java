@@ -9,6 +9,12 @@ import java.time.format.DateTimeFormatter;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_audit_timestamp", columnList = "timestamp, logEntryId"),
+        @Index(name = "idx_audit_record_timestamp", columnList = "maintenanceRecordId, timestamp"),
+        @Index(name = "idx_audit_aircraft_timestamp", columnList = "aircraftRegistrationNumber, timestamp"),
+        @Index(name = "idx_audit_engineer_timestamp", columnList = "performedBy, timestamp")
+})
 @Data
 @NoArgsConstructor
 public class MaintenanceRecordLogEntry {
@@ -0,0 +1,9 @@
+package com.sd.stratos.event;
+
+import java.util.UUID;
+
+/**
+ * One committed change. {@code data} is the row as the topic's list endpoint returns it, or null for deletions.
+ */
+public record ChangeEvent(long sequence, ChangeTopic topic, ChangeType type, UUID id, Object data) {
+}
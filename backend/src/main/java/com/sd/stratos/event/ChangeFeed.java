@@ -0,0 +1,184 @@
+package com.sd.stratos.event;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Server-sent events for committed changes, so clients load a list once and then apply deltas instead of
+ * re-fetching it. Events are numbered in commit order, and the last {@code stratos.events.buffer-size} are kept
+ * in a ring buffer. A client that reconnects with the id of the last event it saw gets the events it missed.
+ * If the buffer no longer reaches back that far, or the id belongs to an earlier run of the backend, it gets a
+ * {@code reset} event and has to load its lists again.
+ * <p>
+ * Every subscriber is written to from its own virtual thread and queue, so a client that stops reading only
+ * stalls itself. It is disconnected when its queue fills up, and it catches up by reconnecting.
+ * <p>
+ * Rows removed by a database cascade, such as the maintenance records of a deleted aircraft, produce no events of
+ * their own.
+ */
+@Slf4j
+@Component
+public class ChangeFeed {
+    static final String READY = "ready";
+    static final String RESET = "reset";
+    static final String HEARTBEAT = "heartbeat";
+
+    // Distinguishes event ids of this run from those handed out before a restart, when numbering starts over
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private final ChangeEvent[] buffer;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("change-feed-heartbeat").factory());
+    private long lastSequence;
+
+    public ChangeFeed(@Value("${stratos.events.buffer-size:4096}") int bufferSize,
+                      @Value("${stratos.events.heartbeat:25s}") Duration heartbeat,
+                      MeterRegistry meterRegistry) {
+        this.buffer = new ChangeEvent[bufferSize];
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        Gauge.builder("stratos.events.subscribers", subscribers, List::size)
+                .description("Clients connected to the change feed")
+                .register(meterRegistry);
+    }
+
+    public synchronized void publish(ChangeTopic topic, ChangeType type, UUID id, Object data) {
+        ChangeEvent event = new ChangeEvent(++lastSequence, topic, type, id, data);
+        buffer[(int) (event.sequence() % buffer.length)] = event;
+        subscribers.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    // Replays the events after lastEventId that the subscriber may see, then streams new ones
+    public synchronized void subscribe(SseEmitter emitter, Predicate<ChangeTopic> visible, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, visible, buffer.length + 1);
+        boolean resuming = lastEventId != null && !lastEventId.isBlank();
+        Long since = resuming ? sequenceOf(lastEventId) : null;
+        long oldest = Math.max(1, lastSequence - buffer.length + 1);
+        if (!resuming) {
+            subscriber.offer(READY, lastSequence, Map.of("sequence", lastSequence));
+        } else if (since == null || since > lastSequence || since + 1 < oldest) {
+            subscriber.offer(RESET, lastSequence, Map.of("sequence", lastSequence));
+        } else {
+            for (long sequence = since + 1; sequence <= lastSequence; sequence++) {
+                subscriber.offer(buffer[(int) (sequence % buffer.length)]);
+            }
+        }
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+        subscriber.start();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeats.shutdownNow();
+        // Completing the response tells the client to reconnect, to another instance or after the restart
+        subscribers.forEach(Subscriber::disconnect);
+    }
+
+    // Heartbeats carry the current position, so a client that sees few of the events does not fall behind the buffer
+    private synchronized void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT, lastSequence, Map.of("sequence", lastSequence)));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.close();
+    }
+
+    private String eventId(long sequence) {
+        return instance + "-" + sequence;
+    }
+
+    private Long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(instance)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final Predicate<ChangeTopic> visible;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private Thread writer;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Predicate<ChangeTopic> visible, int capacity) {
+            this.emitter = emitter;
+            this.visible = visible;
+            this.queue = new LinkedBlockingQueue<>(capacity);
+        }
+
+        void offer(ChangeEvent event) {
+            if (visible.test(event.topic())) {
+                offer(event.topic().eventName(), event.sequence(), event);
+            }
+        }
+
+        void offer(String name, long sequence, Object data) {
+            if (!closed && !queue.offer(SseEmitter.event().id(eventId(sequence)).name(name).data(data))) {
+                log.warn("Disconnecting change feed subscriber that fell {} events behind", queue.size());
+                disconnect();
+            }
+        }
+
+        void disconnect() {
+            unsubscribe(this);
+            emitter.complete();
+        }
+
+        void start() {
+            writer = Thread.ofVirtual().name("change-feed-subscriber").start(this);
+        }
+
+        void close() {
+            closed = true;
+            if (writer != null) {
+                writer.interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    emitter.send(queue.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // The client went away
+                log.debug("Change feed subscriber disconnected: {}", e.getMessage());
+                unsubscribe(this);
+            }
+        }
+    }
+}
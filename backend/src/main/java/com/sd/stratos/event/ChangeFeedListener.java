@@ -0,0 +1,60 @@
+package com.sd.stratos.event;
+
+import com.sd.stratos.dto.FlightDisplayDTO;
+import com.sd.stratos.dto.MaintenanceRecordListDTO;
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.entity.MaintenanceRecord;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+import static com.sd.stratos.util.TransactionHooks.afterCommit;
+
+/**
+ * Publishes every committed flight, maintenance record and aircraft change to the {@link ChangeFeed}, whichever
+ * service or import made it. The payload is captured when the row is written, so later changes to the entity in
+ * the same transaction produce their own events.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeFeedListener {
+
+    private final ChangeFeed changeFeed;
+
+    @PostPersist
+    public void onCreated(Object entity) {
+        publish(ChangeType.CREATED, entity);
+    }
+
+    @PostUpdate
+    public void onUpdated(Object entity) {
+        publish(ChangeType.UPDATED, entity);
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        publish(ChangeType.DELETED, entity);
+    }
+
+    private void publish(ChangeType type, Object entity) {
+        boolean deleted = type == ChangeType.DELETED;
+        switch (entity) {
+            case Flight flight -> publish(ChangeTopic.FLIGHT, type, flight.getId(),
+                    deleted ? null : FlightDisplayDTO.fromFlight(flight));
+            case MaintenanceRecord record -> publish(ChangeTopic.MAINTENANCE_RECORD, type, record.getId(),
+                    deleted ? null : MaintenanceRecordListDTO.fromRecord(record));
+            case Aircraft aircraft -> publish(ChangeTopic.AIRCRAFT, type, aircraft.getId(), deleted ? null
+                    : new Aircraft(aircraft.getId(), aircraft.getRegistrationNumber(), aircraft.getType(), aircraft.getStatus()));
+            default -> throw new IllegalArgumentException("No change topic for " + entity.getClass().getSimpleName());
+        }
+    }
+
+    private void publish(ChangeTopic topic, ChangeType type, UUID id, Object data) {
+        afterCommit(() -> changeFeed.publish(topic, type, id, data));
+    }
+}
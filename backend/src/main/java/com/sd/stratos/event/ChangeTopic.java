@@ -0,0 +1,27 @@
+package com.sd.stratos.event;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum ChangeTopic {
+    FLIGHT("flight", "/api/flights"),
+    MAINTENANCE_RECORD("maintenance-record", "/api/maintenance-records"),
+    AIRCRAFT("aircraft", "/api/aircraft");
+
+    private final String eventName;
+    // The list endpoint whose access rule decides who receives this topic
+    private final String path;
+
+    ChangeTopic(String eventName, String path) {
+        this.eventName = eventName;
+        this.path = path;
+    }
+
+    @JsonValue
+    public String eventName() {
+        return eventName;
+    }
+
+    public String path() {
+        return path;
+    }
+}
@@ -0,0 +1,7 @@
+package com.sd.stratos.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
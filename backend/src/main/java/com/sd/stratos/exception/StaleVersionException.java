@@ -0,0 +1,7 @@
+package com.sd.stratos.exception;
+
+public class StaleVersionException extends RuntimeException {
+    public StaleVersionException(String message) {
+        super(message);
+    }
+}
@@ -1,11 +1,13 @@
 package com.sd.stratos.repository;
 
 import com.sd.stratos.entity.Aircraft;
-import com.sd.stratos.entity.AircraftTypeInfo;
+import com.sd.stratos.entity.AircraftType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,7 +15,9 @@ import java.util.UUID;
 public interface AircraftRepository extends JpaRepository<Aircraft, UUID> {
     Optional<Aircraft> findAircraftByRegistrationNumber(String registrationNumber);
 
-    @Query("SELECT ati from Aircraft a join AircraftTypeInfo ati on a.type = ati.aircraftType " +
-           "where a.registrationNumber = :registrationNumber")
-    Optional<AircraftTypeInfo> getAircraftInfo(String registrationNumber);
+    List<Aircraft> findAllByRegistrationNumberIn(Collection<String> registrationNumbers);
+
+    @Query("SELECT a FROM Aircraft a WHERE a.status = com.sd.stratos.entity.AircraftStatus.OPERATIONAL " +
+           "AND (:type IS NULL OR a.type = :type) ORDER BY a.registrationNumber")
+    List<Aircraft> findAllOperational(AircraftType type);
 }
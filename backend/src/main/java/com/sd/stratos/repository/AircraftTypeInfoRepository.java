@@ -0,0 +1,10 @@
+package com.sd.stratos.repository;
+
+import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.entity.AircraftTypeInfo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AircraftTypeInfoRepository extends JpaRepository<AircraftTypeInfo, AircraftType> {
+}
@@ -1,28 +1,47 @@
 package com.sd.stratos.repository;
 
+import com.sd.stratos.dto.FlightDisplayDTO;
 import com.sd.stratos.entity.Aircraft;
 import com.sd.stratos.entity.Flight;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface FlightRepository extends JpaRepository<Flight, UUID> {
 
+    @Override
+    @EntityGraph(attributePaths = "aircraft")
+    Optional<Flight> findById(UUID id);
+
+    @EntityGraph(attributePaths = "aircraft")
     Optional<Flight> findByFlightNumber(String flightNumber);
 
+    @Query("""
+        SELECT new com.sd.stratos.dto.FlightDisplayDTO(f.id, f.flightNumber, f.departureAirport, f.arrivalAirport, f.departureTime, f.arrivalTime, a.registrationNumber)
+        FROM Flight f JOIN f.aircraft a
+    """)
+    List<FlightDisplayDTO> findAllForDisplay();
+
     @Query("""
         SELECT COUNT(f) > 0 FROM Flight f
         WHERE (:id IS NULL or :id <> f.id)
         AND f.aircraft.id = :aircraftId
-        AND ((f.departureTime <= :newDepartureTime AND :newDepartureTime <= f.arrivalTime) OR
-             (:newDepartureTime <= f.departureTime AND f.departureTime <= :newArrivalTime) OR
-             (f.departureTime <= :newDepartureTime AND :newArrivalTime <= f.arrivalTime) OR
-             (:newDepartureTime <= f.departureTime AND f.arrivalTime <=  :newArrivalTime))
+        AND f.departureTime <= :newArrivalTime
+        AND :newDepartureTime <= f.arrivalTime
     """)
     boolean existsOverlappingFlight(UUID id, UUID aircraftId, ZonedDateTime newDepartureTime, ZonedDateTime newArrivalTime);
 
@@ -33,6 +52,49 @@ public interface FlightRepository extends JpaRepository<Flight, UUID> {
         ORDER BY f.arrivalTime DESC
         LIMIT 1
     """)
+    @EntityGraph(attributePaths = "aircraft")
     Optional<Flight> findLastFlightBefore(Aircraft aircraft, ZonedDateTime departureTime);
 
+    @Query("SELECT f FROM Flight f JOIN FETCH f.aircraft WHERE f.arrivalTime > :since")
+    List<Flight> findAllArrivingAfter(ZonedDateTime since);
+
+    @Query("SELECT f.flightNumber FROM Flight f WHERE f.flightNumber IN :flightNumbers")
+    List<String> findExistingFlightNumbers(Collection<String> flightNumbers);
+
+    @Query("""
+        SELECT f FROM Flight f JOIN FETCH f.aircraft
+        WHERE f.aircraft.id IN :aircraftIds
+        AND f.arrivalTime >= :from
+        AND f.departureTime <= :to
+    """)
+    List<Flight> findAllForAircraftBetween(Collection<UUID> aircraftIds, ZonedDateTime from, ZonedDateTime to);
+
+    @Query("""
+        SELECT new com.sd.stratos.dto.FlightDisplayDTO(f.id, f.flightNumber, f.departureAirport, f.arrivalAirport, f.departureTime, f.arrivalTime, a.registrationNumber)
+        FROM Flight f JOIN f.aircraft a
+        WHERE (:aircraft IS NULL OR a.registrationNumber = :aircraft)
+        AND (:departureAirport IS NULL OR f.departureAirport = :departureAirport)
+        AND (:arrivalAirport IS NULL OR f.arrivalAirport = :arrivalAirport)
+        AND (:from IS NULL OR f.departureTime >= :from)
+        AND (:to IS NULL OR f.departureTime < :to)
+        AND (:afterTime IS NULL OR f.departureTime > :afterTime OR (f.departureTime = :afterTime AND f.id > :afterId))
+        ORDER BY f.departureTime, f.id
+    """)
+    List<FlightDisplayDTO> findPage(String aircraft, String departureAirport, String arrivalAirport,
+                                    ZonedDateTime from, ZonedDateTime to,
+                                    ZonedDateTime afterTime, UUID afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.sd.stratos.dto.FlightDisplayDTO(f.id, f.flightNumber, f.departureAirport, f.arrivalAirport, f.departureTime, f.arrivalTime, a.registrationNumber)
+        FROM Flight f JOIN f.aircraft a
+        WHERE (:aircraft IS NULL OR a.registrationNumber = :aircraft)
+        AND (:departureAirport IS NULL OR f.departureAirport = :departureAirport)
+        AND (:arrivalAirport IS NULL OR f.arrivalAirport = :arrivalAirport)
+        AND (:from IS NULL OR f.departureTime >= :from)
+        AND (:to IS NULL OR f.departureTime < :to)
+        ORDER BY f.departureTime, f.id
+    """)
+    Stream<FlightDisplayDTO> streamAll(String aircraft, String departureAirport, String arrivalAirport,
+                                       ZonedDateTime from, ZonedDateTime to);
 }
@@ -0,0 +1,22 @@
+package com.sd.stratos.repository;
+
+import com.sd.stratos.entity.MaintenanceAuditOutboxEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface MaintenanceAuditOutboxRepository extends JpaRepository<MaintenanceAuditOutboxEntry, UUID> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM MaintenanceAuditOutboxEntry e WHERE e.id IN :ids")
+    List<MaintenanceAuditOutboxEntry> lockAllById(@Param("ids") Collection<UUID> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<MaintenanceAuditOutboxEntry> findAllByOrderByTimestampAsc(Limit limit);
+}
@@ -1,9 +1,50 @@
 package com.sd.stratos.repository;
 
+import com.sd.stratos.dto.MaintenanceAuditEntryDTO;
+import com.sd.stratos.entity.ActionType;
 import com.sd.stratos.entity.MaintenanceRecordLogEntry;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface MaintenanceRecordLogEntryRepository extends JpaRepository<MaintenanceRecordLogEntry, UUID> {
+    @Query("""
+        SELECT new com.sd.stratos.dto.MaintenanceAuditEntryDTO(e.logEntryId, e.actionType, e.maintenanceRecordId, e.aircraftRegistrationNumber, e.performedBy, e.timestamp, e.changes)
+        FROM MaintenanceRecordLogEntry e
+        WHERE (:maintenanceRecordId IS NULL OR e.maintenanceRecordId = :maintenanceRecordId)
+        AND (:aircraft IS NULL OR e.aircraftRegistrationNumber = :aircraft)
+        AND (:engineer IS NULL OR e.performedBy = :engineer)
+        AND (:actionType IS NULL OR e.actionType = :actionType)
+        AND (:from IS NULL OR e.timestamp >= :from)
+        AND (:to IS NULL OR e.timestamp < :to)
+        AND (:afterTime IS NULL OR e.timestamp > :afterTime OR (e.timestamp = :afterTime AND e.logEntryId > :afterId))
+        ORDER BY e.timestamp, e.logEntryId
+    """)
+    List<MaintenanceAuditEntryDTO> findPage(UUID maintenanceRecordId, String aircraft, String engineer, ActionType actionType,
+                                            LocalDateTime from, LocalDateTime to,
+                                            LocalDateTime afterTime, UUID afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.sd.stratos.dto.MaintenanceAuditEntryDTO(e.logEntryId, e.actionType, e.maintenanceRecordId, e.aircraftRegistrationNumber, e.performedBy, e.timestamp, e.changes)
+        FROM MaintenanceRecordLogEntry e
+        WHERE (:maintenanceRecordId IS NULL OR e.maintenanceRecordId = :maintenanceRecordId)
+        AND (:aircraft IS NULL OR e.aircraftRegistrationNumber = :aircraft)
+        AND (:engineer IS NULL OR e.performedBy = :engineer)
+        AND (:actionType IS NULL OR e.actionType = :actionType)
+        AND (:from IS NULL OR e.timestamp >= :from)
+        AND (:to IS NULL OR e.timestamp < :to)
+        ORDER BY e.timestamp, e.logEntryId
+    """)
+    Stream<MaintenanceAuditEntryDTO> streamAll(UUID maintenanceRecordId, String aircraft, String engineer, ActionType actionType,
+                                               LocalDateTime from, LocalDateTime to);
 }
@@ -1,24 +1,40 @@
 package com.sd.stratos.repository;
 
-import com.sd.stratos.entity.Aircraft;
 import com.sd.stratos.entity.MaintenanceRecord;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface MaintenanceRecordRepository extends JpaRepository<MaintenanceRecord, UUID>, JpaSpecificationExecutor<MaintenanceRecord> {
+public interface MaintenanceRecordRepository extends JpaRepository<MaintenanceRecord, UUID>, JpaSpecificationExecutor<MaintenanceRecord>, MaintenanceRecordRepositoryCustom {
+
+    @Override
+    @EntityGraph(attributePaths = {"aircraft", "engineer"})
+    Optional<MaintenanceRecord> findById(UUID id);
 
     @Query("""
         SELECT COUNT(mr) > 0 FROM MaintenanceRecord mr
         WHERE (:id is null or mr.id != :id)
         AND mr.aircraft.id = :aircraft
-        AND ((mr.startDate <= :startDate AND :startDate <= mr.endDate) OR
-             (:startDate <= mr.startDate AND mr.startDate <= :endDate) OR
-             (mr.startDate <= :startDate AND :endDate <= mr.endDate) OR
-             (:startDate <= mr.startDate AND mr.endDate <=  :endDate))
+        AND mr.startDate <= :endDate
+        AND :startDate <= mr.endDate
     """)
     boolean existsOverlappingMaintenance(UUID id, UUID aircraft, ZonedDateTime startDate, ZonedDateTime endDate);
+
+    @Query("SELECT mr FROM MaintenanceRecord mr JOIN FETCH mr.aircraft WHERE mr.endDate > :since")
+    List<MaintenanceRecord> findAllEndingAfter(ZonedDateTime since);
+
+    @Query("""
+        SELECT mr FROM MaintenanceRecord mr JOIN FETCH mr.aircraft
+        WHERE mr.aircraft.id IN :aircraftIds
+        AND mr.endDate >= :from
+        AND mr.startDate <= :to
+    """)
+    List<MaintenanceRecord> findAllForAircraftBetween(Collection<UUID> aircraftIds, ZonedDateTime from, ZonedDateTime to);
 }
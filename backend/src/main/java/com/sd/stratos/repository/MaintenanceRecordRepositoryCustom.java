@@ -0,0 +1,12 @@
+package com.sd.stratos.repository;
+
+import com.sd.stratos.dto.MaintenanceRecordListDTO;
+import com.sd.stratos.entity.MaintenanceRecord;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface MaintenanceRecordRepositoryCustom {
+    List<MaintenanceRecordListDTO> findAllForList(Specification<MaintenanceRecord> spec, Sort sort);
+}
@@ -0,0 +1,48 @@
+package com.sd.stratos.repository;
+
+import com.sd.stratos.dto.MaintenanceRecordListDTO;
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.entity.MaintenanceRecord;
+import com.sd.stratos.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+class MaintenanceRecordRepositoryCustomImpl implements MaintenanceRecordRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<MaintenanceRecordListDTO> findAllForList(Specification<MaintenanceRecord> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MaintenanceRecordListDTO> query = cb.createQuery(MaintenanceRecordListDTO.class);
+        Root<MaintenanceRecord> root = query.from(MaintenanceRecord.class);
+        Join<MaintenanceRecord, Aircraft> aircraft = root.join("aircraft");
+        Join<MaintenanceRecord, User> engineer = root.join("engineer");
+
+        query.select(cb.construct(MaintenanceRecordListDTO.class,
+                root.get("id"),
+                aircraft.get("id"),
+                aircraft.get("registrationNumber"),
+                aircraft.get("type"),
+                aircraft.get("status"),
+                engineer.get("id"),
+                engineer.get("username"),
+                root.get("type"),
+                root.get("startDate"),
+                root.get("endDate"),
+                root.get("status")));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
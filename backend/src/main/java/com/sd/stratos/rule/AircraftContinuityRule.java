@@ -0,0 +1,52 @@
+package com.sd.stratos.rule;
+
+import com.sd.stratos.cache.FlightIntervalIndex;
+import com.sd.stratos.cache.FlightWindow;
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.repository.FlightRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * An aircraft that landed within the last 24 hours has to depart from the airport it landed at.
+ */
+@Component
+@Order(70)
+@RequiredArgsConstructor
+public class AircraftContinuityRule implements FlightRule {
+    private static final Duration CONTINUITY_WINDOW = Duration.ofHours(24);
+
+    private final FlightRepository flightRepository;
+    private final FlightIntervalIndex flightIntervalIndex;
+
+    @Override
+    public String check(Flight flight) {
+        if (flight.getAircraft() == null) {
+            return null;
+        }
+        Optional<FlightWindow> maybeLastFlight = flightIntervalIndex.isWarm()
+                ? flightIntervalIndex.findLastBefore(flight.getAircraft().getId(), flight.getDepartureTime().toInstant())
+                : flightRepository.findLastFlightBefore(flight.getAircraft(), flight.getDepartureTime()).map(FlightWindow::fromFlight);
+        if (maybeLastFlight.isEmpty()) {
+            return null;
+        }
+        FlightWindow lastFlight = maybeLastFlight.get();
+        boolean isWithin24Hours = lastFlight.arrivalTime().isAfter(flight.getDepartureTime().minus(CONTINUITY_WINDOW).toInstant());
+        boolean isAtWrongAirport = !lastFlight.arrivalAirport().equals(flight.getDepartureAirport());
+        return isWithin24Hours && isAtWrongAirport ? "Aircraft cannot reach departure airport" : null;
+    }
+
+    @Override
+    public boolean checksSchedule() {
+        return true;
+    }
+
+    @Override
+    public boolean queriesDatabase() {
+        return !flightIntervalIndex.isWarm();
+    }
+}
@@ -0,0 +1,23 @@
+package com.sd.stratos.rule;
+
+import com.sd.stratos.entity.AircraftStatus;
+import com.sd.stratos.entity.Flight;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(30)
+public class AircraftOperationalRule implements FlightRule {
+
+    @Override
+    public String check(Flight flight) {
+        // The aircraft was resolved by the caller in this request, so it is not re-read here
+        if (flight.getAircraft() == null) {
+            return "Aircraft not found";
+        }
+        if (flight.getAircraft().getStatus() != AircraftStatus.OPERATIONAL) {
+            return "Aircraft is not operational";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.sd.stratos.rule;
+
+import com.sd.stratos.cache.AircraftTypeInfoCache;
+import com.sd.stratos.entity.AircraftTypeInfo;
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.service.AirportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@Order(40)
+@RequiredArgsConstructor
+public class AircraftRangeRule implements FlightRule {
+    private final AirportService airportService;
+    private final AircraftTypeInfoCache aircraftTypeInfoCache;
+
+    @Override
+    public String check(Flight flight) {
+        if (flight.getAircraft() == null) {
+            return null;
+        }
+        Optional<AircraftTypeInfo> maybeTypeInfo = aircraftTypeInfoCache.get(flight.getAircraft().getType());
+        if (maybeTypeInfo.isEmpty()) {
+            return "Aircraft type info not found";
+        }
+        int flightDistance = airportService.getDistanceBetween(flight.getDepartureAirport(), flight.getArrivalAirport());
+        if (flightDistance > maybeTypeInfo.get().getCruisingDistanceMiles()) {
+            return "Aircraft doesn't have enough range to complete flight";
+        }
+        return null;
+    }
+}
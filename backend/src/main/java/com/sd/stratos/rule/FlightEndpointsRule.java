@@ -0,0 +1,24 @@
+package com.sd.stratos.rule;
+
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.exception.InvalidFlightEndpointsException;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(20)
+public class FlightEndpointsRule implements FlightRule {
+
+    @Override
+    public String check(Flight flight) {
+        if (flight.getDepartureAirport().equals(flight.getArrivalAirport())) {
+            return "Arrival and departure airports must be different";
+        }
+        return null;
+    }
+
+    @Override
+    public RuntimeException rejection(String message) {
+        return new InvalidFlightEndpointsException(message);
+    }
+}
@@ -0,0 +1,37 @@
+package com.sd.stratos.rule;
+
+import com.sd.stratos.cache.FlightIntervalIndex;
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.repository.FlightRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(50)
+@RequiredArgsConstructor
+public class FlightOverlapRule implements FlightRule {
+    private final FlightRepository flightRepository;
+    private final FlightIntervalIndex flightIntervalIndex;
+
+    @Override
+    public String check(Flight flight) {
+        if (flight.getAircraft() == null) {
+            return null;
+        }
+        boolean overlaps = flightIntervalIndex.isWarm()
+                ? flightIntervalIndex.existsOverlap(flight.getId(), flight.getAircraft().getId(), flight.getDepartureTime().toInstant(), flight.getArrivalTime().toInstant())
+                : flightRepository.existsOverlappingFlight(flight.getId(), flight.getAircraft().getId(), flight.getDepartureTime(), flight.getArrivalTime());
+        return overlaps ? "Flight overlaps assigned aircraft's existing flight" : null;
+    }
+
+    @Override
+    public boolean checksSchedule() {
+        return true;
+    }
+
+    @Override
+    public boolean queriesDatabase() {
+        return !flightIntervalIndex.isWarm();
+    }
+}
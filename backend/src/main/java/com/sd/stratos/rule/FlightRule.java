@@ -0,0 +1,41 @@
+package com.sd.stratos.rule;
+
+import com.sd.stratos.entity.Flight;
+
+/**
+ * A condition every scheduled flight has to meet. Rules are Spring beans picked up by {@link FlightRuleRegistry},
+ * so a new rule (a curfew, a crew limit) is added by declaring another {@code @Component}; it then applies to
+ * single flights and to bulk imports, including the flights the tail assignment solver saves. {@code @Order} is
+ * the order violations are reported in; the registry evaluates rules in order of their measured cost and reject
+ * rate.
+ * <p>
+ * Rules are evaluated independently of each other and possibly concurrently, so a rule must not assume that
+ * another one has already passed. Rules about the aircraft pass when there is no aircraft, because
+ * {@link AircraftOperationalRule} rejects that case.
+ */
+public interface FlightRule {
+
+    // The message to reject the flight with, or null when the flight passes
+    String check(Flight flight);
+
+    // Whether the next check has to query the database rather than an in-memory index
+    default boolean queriesDatabase() {
+        return false;
+    }
+
+    /**
+     * Whether the rule checks the flight against the aircraft's other flights or maintenance. Bulk imports leave
+     * these rules out and run their own sweep, which also sees the other rows of the batch.
+     */
+    default boolean checksSchedule() {
+        return false;
+    }
+
+    default RuntimeException rejection(String message) {
+        return new IllegalStateException(message);
+    }
+
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
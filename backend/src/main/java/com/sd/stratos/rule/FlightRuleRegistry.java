@@ -0,0 +1,190 @@
+package com.sd.stratos.rule;
+
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.service.ParallelValidator;
+import com.sd.stratos.service.ValidationCheck;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates every {@link FlightRule} bean, cheapest first. A rule's cost is its mean evaluation time divided by
+ * how often it rejects, so a fast rule that rejects often runs before a slow one that rarely does, and most
+ * rejected flights never reach a database lookup. Rules start in {@code @Order} order and are re-ranked every
+ * {@value #RERANK_INTERVAL} evaluations once each has {@value #MIN_SAMPLES} samples; until then a rule ranks
+ * first so it gets measured.
+ * <p>
+ * The ranking only decides what runs first. A flight breaking several rules is reported with the first of them
+ * in {@code @Order} order, so the exception and message do not depend on past traffic: once a rule rejects, the
+ * rules declared before it that have not run yet are evaluated too.
+ * <p>
+ * Each evaluation is recorded in the {@code stratos.flight.rule} timer, tagged with the rule and its outcome.
+ */
+@Component
+public class FlightRuleRegistry {
+    static final int MIN_SAMPLES = 32;
+    static final int RERANK_INTERVAL = 256;
+
+    private final ParallelValidator parallelValidator;
+    private final List<RankedRule> rules;
+    private final AtomicLong evaluations = new AtomicLong();
+    private volatile List<RankedRule> ranking;
+
+    public FlightRuleRegistry(List<FlightRule> flightRules, ParallelValidator parallelValidator, MeterRegistry meterRegistry) {
+        List<FlightRule> ordered = new ArrayList<>(flightRules);
+        AnnotationAwareOrderComparator.sort(ordered);
+        this.parallelValidator = parallelValidator;
+        this.rules = IntStream.range(0, ordered.size())
+                .mapToObj(order -> new RankedRule(ordered.get(order), order, meterRegistry))
+                .toList();
+        this.ranking = rules;
+    }
+
+    public void validate(Flight flight) {
+        List<RankedRule> current = currentRanking();
+        AtomicIntegerArray passed = new AtomicIntegerArray(rules.size());
+        List<ValidationCheck> checks = current.stream()
+                .map(ranked -> new ValidationCheck(ranked.rule().queriesDatabase(), () -> {
+                    String violation = ranked.check(flight);
+                    if (violation == null) {
+                        passed.set(ranked.order(), 1);
+                    }
+                    return violation;
+                }))
+                .toList();
+        parallelValidator.firstViolation(checks).ifPresent(violation -> {
+            Rejection rejection = firstDeclared(flight, current.get(violation.index()), violation.message(),
+                    ranked -> passed.get(ranked.order()) == 1);
+            throw rejection.ranked().rule().rejection(rejection.message());
+        });
+    }
+
+    /**
+     * Applies each rule that is not a {@linkplain FlightRule#checksSchedule() schedule rule} to all flights not yet
+     * rejected; the result holds null for flights that pass every such rule. Bulk callers check the schedule
+     * themselves, against each other's flights as well as the stored ones.
+     */
+    public List<FlightRuleViolation> validateAll(List<Flight> flights) {
+        List<RankedRule> current = currentRanking().stream().filter(ranked -> !ranked.rule().checksSchedule()).toList();
+        int[] position = new int[rules.size()];
+        for (int i = 0; i < current.size(); i++) {
+            position[current.get(i).order()] = i;
+        }
+
+        RankedRule[] violatedBy = new RankedRule[flights.size()];
+        String[] messages = new String[flights.size()];
+        List<Integer> remaining = IntStream.range(0, flights.size()).boxed().toList();
+        for (RankedRule ranked : current) {
+            List<Integer> passed = new ArrayList<>(remaining.size());
+            for (int index : remaining) {
+                String violation = ranked.check(flights.get(index));
+                if (violation == null) {
+                    passed.add(index);
+                } else {
+                    violatedBy[index] = ranked;
+                    messages[index] = violation;
+                }
+            }
+            if (passed.isEmpty()) {
+                break;
+            }
+            remaining = passed;
+        }
+
+        FlightRuleViolation[] violations = new FlightRuleViolation[flights.size()];
+        for (int index = 0; index < flights.size(); index++) {
+            RankedRule violated = violatedBy[index];
+            if (violated == null) {
+                continue;
+            }
+            // Every rule ranked before the violated one passed this flight
+            Rejection rejection = firstDeclared(flights.get(index), violated, messages[index],
+                    ranked -> ranked.rule().checksSchedule() || position[ranked.order()] < position[violated.order()]);
+            violations[index] = new FlightRuleViolation(rejection.ranked().rule().name(), rejection.message());
+        }
+        return Arrays.asList(violations);
+    }
+
+    public List<String> ruleNames() {
+        return ranking.stream().map(ranked -> ranked.rule().name()).toList();
+    }
+
+    private List<RankedRule> currentRanking() {
+        if (evaluations.incrementAndGet() % RERANK_INTERVAL == 0) {
+            ranking = rules.stream().sorted(Comparator.comparingDouble(RankedRule::cost)).toList();
+        }
+        return ranking;
+    }
+
+    // The first rule in declared order that rejects the flight, evaluating the unsettled ones declared before it
+    private Rejection firstDeclared(Flight flight, RankedRule violated, String message, Predicate<RankedRule> settled) {
+        for (RankedRule ranked : rules.subList(0, violated.order())) {
+            if (settled.test(ranked)) {
+                continue;
+            }
+            String violation = ranked.check(flight);
+            if (violation != null) {
+                return new Rejection(ranked, violation);
+            }
+        }
+        return new Rejection(violated, message);
+    }
+
+    private record Rejection(RankedRule ranked, String message) {
+    }
+
+    private record RankedRule(FlightRule rule, int order, LongAdder evaluations, LongAdder rejections, LongAdder nanos,
+                              Timer passed, Timer rejected) {
+
+        RankedRule(FlightRule rule, int order, MeterRegistry meterRegistry) {
+            this(rule, order, new LongAdder(), new LongAdder(), new LongAdder(),
+                    ruleTimer(meterRegistry, rule, "pass"), ruleTimer(meterRegistry, rule, "reject"));
+        }
+
+        String check(Flight flight) {
+            long started = System.nanoTime();
+            String violation = rule.check(flight);
+            long elapsed = System.nanoTime() - started;
+            evaluations.increment();
+            nanos.add(elapsed);
+            if (violation == null) {
+                passed.record(elapsed, TimeUnit.NANOSECONDS);
+            } else {
+                rejections.increment();
+                rejected.record(elapsed, TimeUnit.NANOSECONDS);
+            }
+            return violation;
+        }
+
+        // Expected time spent per rejection; the smoothing keeps a rule that never rejected finitely expensive
+        double cost() {
+            long count = evaluations.sum();
+            if (count < MIN_SAMPLES) {
+                return 0;
+            }
+            double meanNanos = (double) nanos.sum() / count;
+            double rejectRate = (rejections.sum() + 1.0) / (count + 2.0);
+            return meanNanos / rejectRate;
+        }
+
+        private static Timer ruleTimer(MeterRegistry meterRegistry, FlightRule rule, String outcome) {
+            return Timer.builder("stratos.flight.rule")
+                    .description("Time spent evaluating one flight validation rule")
+                    .tag("rule", rule.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
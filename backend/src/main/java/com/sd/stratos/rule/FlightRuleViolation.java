@@ -0,0 +1,4 @@
+package com.sd.stratos.rule;
+
+public record FlightRuleViolation(String rule, String message) {
+}
@@ -0,0 +1,30 @@
+package com.sd.stratos.rule;
+
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.exception.InvalidTimeIntervalException;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+
+@Component
+@Order(10)
+public class FlightTimesRule implements FlightRule {
+
+    @Override
+    public String check(Flight flight) {
+        if (flight.getDepartureTime().isAfter(flight.getArrivalTime())) {
+            return "Departure time is after arrival time";
+        }
+        ZonedDateTime now = ZonedDateTime.now();
+        if (flight.getDepartureTime().isBefore(now) || flight.getArrivalTime().isBefore(now)) {
+            return "Departure time is before current time";
+        }
+        return null;
+    }
+
+    @Override
+    public RuntimeException rejection(String message) {
+        return new InvalidTimeIntervalException(message);
+    }
+}
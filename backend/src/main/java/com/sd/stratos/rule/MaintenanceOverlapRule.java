@@ -0,0 +1,37 @@
+package com.sd.stratos.rule;
+
+import com.sd.stratos.cache.MaintenanceIntervalIndex;
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.repository.MaintenanceRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(60)
+@RequiredArgsConstructor
+public class MaintenanceOverlapRule implements FlightRule {
+    private final MaintenanceRecordRepository maintenanceRecordRepository;
+    private final MaintenanceIntervalIndex maintenanceIntervalIndex;
+
+    @Override
+    public String check(Flight flight) {
+        if (flight.getAircraft() == null) {
+            return null;
+        }
+        boolean overlaps = maintenanceIntervalIndex.isWarm()
+                ? maintenanceIntervalIndex.existsOverlap(null, flight.getAircraft().getId(), flight.getDepartureTime().toInstant(), flight.getArrivalTime().toInstant())
+                : maintenanceRecordRepository.existsOverlappingMaintenance(null, flight.getAircraft().getId(), flight.getDepartureTime(), flight.getArrivalTime());
+        return overlaps ? "Aircraft is under maintenance during the flight" : null;
+    }
+
+    @Override
+    public boolean checksSchedule() {
+        return true;
+    }
+
+    @Override
+    public boolean queriesDatabase() {
+        return !maintenanceIntervalIndex.isWarm();
+    }
+}
@@ -0,0 +1,77 @@
+package com.sd.stratos.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Serializes schedule changes per aircraft so an overlap check and the write it guards cannot interleave with
+ * another change to the same aircraft. Aircraft map onto {@value #STRIPES} in-process locks, held until the
+ * surrounding transaction completes and always taken in ascending order, so moving a flight between two aircraft
+ * cannot deadlock.
+ * <p>
+ * The locks only exclude writers within one JVM, which matches the checks they guard: those read the in-memory
+ * interval indexes, which only see this instance's commits. The backend is deployed as a single instance; with
+ * {@code stratos.schedule.exclusion-constraints} enabled, PostgreSQL still rejects an overlapping row written
+ * by anything else.
+ */
+@Component
+public class AircraftScheduleLock {
+    static final int STRIPES = 1024;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Duration timeout;
+
+    public AircraftScheduleLock(@Value("${stratos.schedule.lock-timeout:5s}") Duration timeout) {
+        this.timeout = timeout;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lock(UUID... aircraftIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Aircraft schedule locks need an active transaction");
+        }
+        List<ReentrantLock> held = new ArrayList<>(aircraftIds.length);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                held.reversed().forEach(ReentrantLock::unlock);
+            }
+        });
+        int[] indexes = Stream.of(aircraftIds).filter(Objects::nonNull).mapToInt(AircraftScheduleLock::stripe).distinct().sorted().toArray();
+        for (int index : indexes) {
+            ReentrantLock stripe = stripes[index];
+            if (!tryLock(stripe)) {
+                throw new CannotAcquireLockException("Aircraft schedule is being changed by another request");
+            }
+            held.add(stripe);
+        }
+    }
+
+    static int stripe(UUID aircraftId) {
+        int hash = aircraftId.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private boolean tryLock(ReentrantLock stripe) {
+        try {
+            return stripe.tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.sd.stratos.service;
 
+import com.sd.stratos.cache.AircraftRegistry;
 import com.sd.stratos.dto.AircraftCreateDTO;
 import com.sd.stratos.dto.AircraftUpdateDTO;
 import com.sd.stratos.entity.Aircraft;
@@ -7,6 +8,7 @@ import com.sd.stratos.entity.AircraftStatus;
 import com.sd.stratos.entity.AircraftType;
 import com.sd.stratos.exception.AircraftRegistrationNumberAlreadyExistsException;
 import com.sd.stratos.repository.AircraftRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -15,10 +17,12 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Service
+@Timed("stratos.service")
 @AllArgsConstructor
 public class AircraftService {
 
     private final AircraftRepository aircraftRepository;
+    private final AircraftRegistry aircraftRegistry;
 
     public List<Aircraft> getAllAircrafts() {
         return aircraftRepository.findAll();
@@ -36,7 +40,9 @@ public class AircraftService {
         aircraft.setRegistrationNumber(aircraftCreateDTO.registrationNumber());
         aircraft.setType(aircraftCreateDTO.type());
         aircraft.setStatus(aircraftCreateDTO.status());
-        return aircraftRepository.save(aircraft);
+        Aircraft saved = aircraftRepository.save(aircraft);
+        aircraftRegistry.put(saved);
+        return saved;
     }
 
     public Aircraft updateAircraft(UUID id, AircraftUpdateDTO aircraftUpdateDTO) {
@@ -46,13 +52,20 @@ public class AircraftService {
             updatedAircraft.setType(aircraftUpdateDTO.type());
             updatedAircraft.setRegistrationNumber(aircraftUpdateDTO.registrationNumber());
             updatedAircraft.setStatus(aircraftUpdateDTO.status());
-            return aircraftRepository.save(updatedAircraft);
+            Aircraft saved = aircraftRepository.save(updatedAircraft);
+            aircraftRegistry.put(saved);
+            return saved;
         }
         throw new IllegalStateException("Aircraft not found");
     }
 
     public void deleteAircraft(UUID id) {
         aircraftRepository.deleteById(id);
+        aircraftRegistry.evict(id);
+    }
+
+    public AircraftRegistry.Stats getRegistryStats() {
+        return aircraftRegistry.stats();
     }
 
     public List<AircraftType> getAllAircraftTypes() {
@@ -0,0 +1,145 @@
+package com.sd.stratos.service;
+
+import com.sd.stratos.cache.AircraftRegistry;
+import com.sd.stratos.cache.FlightIntervalIndex;
+import com.sd.stratos.cache.FlightWindow;
+import com.sd.stratos.cache.MaintenanceIntervalIndex;
+import com.sd.stratos.cache.MaintenanceWindow;
+import com.sd.stratos.dto.AircraftAvailabilityDTO;
+import com.sd.stratos.dto.OccupancyDTO;
+import com.sd.stratos.dto.TimeWindowDTO;
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.entity.AircraftStatus;
+import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.repository.AircraftRepository;
+import com.sd.stratos.repository.FlightRepository;
+import com.sd.stratos.repository.MaintenanceRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * Per-aircraft occupancy timeline merging flights and maintenance windows. Served from the interval indexes
+ * when they cover the requested range, otherwise from one query per source for all requested aircraft.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityService {
+    private static final Duration MAX_RANGE = Duration.ofDays(31);
+    private static final Comparator<OccupancyDTO> BY_START = Comparator.comparing(OccupancyDTO::start);
+
+    private final AircraftRepository aircraftRepository;
+    private final AircraftRegistry aircraftRegistry;
+    private final FlightRepository flightRepository;
+    private final MaintenanceRecordRepository maintenanceRecordRepository;
+    private final FlightIntervalIndex flightIntervalIndex;
+    private final MaintenanceIntervalIndex maintenanceIntervalIndex;
+
+    public AircraftAvailabilityDTO getAvailability(UUID aircraftId, ZonedDateTime from, ZonedDateTime to) {
+        validateRange(from, to);
+        Aircraft aircraft = aircraftRegistry.findById(aircraftId)
+                .orElseThrow(() -> new IllegalArgumentException("Aircraft not found"));
+        return availability(aircraft, occupancy(List.of(aircraftId), from, to).get(aircraftId), from, to, Duration.ZERO);
+    }
+
+    public List<AircraftAvailabilityDTO> getFleetAvailability(AircraftType type, ZonedDateTime from, ZonedDateTime to, Duration minimumFree) {
+        validateRange(from, to);
+        List<Aircraft> fleet = aircraftRepository.findAllOperational(type);
+        if (fleet.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, List<OccupancyDTO>> occupancy = occupancy(fleet.stream().map(Aircraft::getId).toList(), from, to);
+        List<AircraftAvailabilityDTO> result = new ArrayList<>(fleet.size());
+        for (Aircraft aircraft : fleet) {
+            AircraftAvailabilityDTO availability = availability(aircraft, occupancy.get(aircraft.getId()), from, to, minimumFree);
+            if (!availability.free().isEmpty()) {
+                result.add(availability);
+            }
+        }
+        return result;
+    }
+
+    private Map<UUID, List<OccupancyDTO>> occupancy(Collection<UUID> aircraftIds, ZonedDateTime from, ZonedDateTime to) {
+        Map<UUID, List<OccupancyDTO>> occupancy = new HashMap<>();
+        aircraftIds.forEach(id -> occupancy.put(id, new ArrayList<>()));
+        Instant start = from.toInstant();
+        Instant end = to.toInstant();
+
+        if (flightIntervalIndex.covers(start)) {
+            for (UUID aircraftId : aircraftIds) {
+                for (FlightWindow window : flightIntervalIndex.windowsBetween(aircraftId, start, end)) {
+                    occupancy.get(aircraftId).add(occupied(OccupancyDTO.Kind.FLIGHT, window.flightId(), window.departureTime(), window.arrivalTime()));
+                }
+            }
+        } else {
+            flightRepository.findAllForAircraftBetween(aircraftIds, from, to).forEach(flight -> occupancy.get(flight.getAircraft().getId())
+                    .add(occupied(OccupancyDTO.Kind.FLIGHT, flight.getId(), flight.getDepartureTime().toInstant(), flight.getArrivalTime().toInstant())));
+        }
+
+        if (maintenanceIntervalIndex.covers(start)) {
+            for (UUID aircraftId : aircraftIds) {
+                for (MaintenanceWindow window : maintenanceIntervalIndex.windowsBetween(aircraftId, start, end)) {
+                    occupancy.get(aircraftId).add(occupied(OccupancyDTO.Kind.MAINTENANCE, window.maintenanceRecordId(), window.startTime(), window.endTime()));
+                }
+            }
+        } else {
+            maintenanceRecordRepository.findAllForAircraftBetween(aircraftIds, from, to).forEach(record -> occupancy.get(record.getAircraft().getId())
+                    .add(occupied(OccupancyDTO.Kind.MAINTENANCE, record.getId(), record.getStartDate().toInstant(), record.getEndDate().toInstant())));
+        }
+
+        occupancy.values().forEach(windows -> windows.sort(BY_START));
+        return occupancy;
+    }
+
+    private static AircraftAvailabilityDTO availability(Aircraft aircraft, List<OccupancyDTO> occupied, ZonedDateTime from, ZonedDateTime to, Duration minimumFree) {
+        boolean operational = aircraft.getStatus() == AircraftStatus.OPERATIONAL;
+        List<TimeWindowDTO> free = operational ? freeWindows(occupied, from, to, minimumFree) : List.of();
+        return new AircraftAvailabilityDTO(
+                aircraft.getId(),
+                aircraft.getRegistrationNumber(),
+                aircraft.getType(),
+                aircraft.getStatus(),
+                operational && occupied.isEmpty(),
+                occupied,
+                free
+        );
+    }
+
+    private static List<TimeWindowDTO> freeWindows(List<OccupancyDTO> occupied, ZonedDateTime from, ZonedDateTime to, Duration minimumFree) {
+        List<TimeWindowDTO> free = new ArrayList<>();
+        ZonedDateTime cursor = from.withZoneSameInstant(ZoneOffset.UTC);
+        ZonedDateTime end = to.withZoneSameInstant(ZoneOffset.UTC);
+        for (OccupancyDTO window : occupied) {
+            addFreeWindow(free, cursor, window.start(), minimumFree);
+            if (window.end().isAfter(cursor)) {
+                cursor = window.end();
+            }
+        }
+        addFreeWindow(free, cursor, end, minimumFree);
+        return free;
+    }
+
+    private static void addFreeWindow(List<TimeWindowDTO> free, ZonedDateTime start, ZonedDateTime end, Duration minimumFree) {
+        if (end.isAfter(start) && Duration.between(start, end).compareTo(minimumFree) >= 0) {
+            free.add(new TimeWindowDTO(start, end));
+        }
+    }
+
+    private static OccupancyDTO occupied(OccupancyDTO.Kind kind, UUID id, Instant start, Instant end) {
+        return new OccupancyDTO(kind, id, start.atZone(ZoneOffset.UTC), end.atZone(ZoneOffset.UTC));
+    }
+
+    private static void validateRange(ZonedDateTime from, ZonedDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Invalid time range");
+        }
+        if (Duration.between(from, to).compareTo(MAX_RANGE) > 0) {
+            throw new IllegalArgumentException("Time range cannot exceed 31 days");
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.sd.stratos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sd.stratos.cache.AircraftRegistry;
+import com.sd.stratos.cache.FlightWindow;
+import com.sd.stratos.cache.MaintenanceWindow;
+import com.sd.stratos.dto.FlightCreateDTO;
+import com.sd.stratos.dto.FlightImportReport;
+import com.sd.stratos.dto.FlightImportRowResult;
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.repository.FlightRepository;
+import com.sd.stratos.repository.MaintenanceRecordRepository;
+import com.sd.stratos.rule.FlightRuleRegistry;
+import com.sd.stratos.rule.FlightRuleViolation;
+import com.sd.stratos.util.ScheduleConstraints;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Validates and stores flight schedules in bulk. Every chunk of rows is checked with a fixed number of
+ * queries: rows go through the {@link FlightRuleRegistry} rules that look at one flight alone, and overlaps are
+ * found with one sweep per aircraft over the new and already scheduled flights.
+ */
+@Service
+public class FlightImportService {
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final Duration CONTINUITY_WINDOW = Duration.ofHours(24);
+
+    private final FlightRepository flightRepository;
+    private final AircraftRegistry aircraftRegistry;
+    private final MaintenanceRecordRepository maintenanceRecordRepository;
+    private final FlightRuleRegistry flightRuleRegistry;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final AircraftScheduleLock aircraftScheduleLock;
+    private final TransactionTemplate transactionTemplate;
+
+    public FlightImportService(FlightRepository flightRepository,
+                               AircraftRegistry aircraftRegistry,
+                               MaintenanceRecordRepository maintenanceRecordRepository,
+                               FlightRuleRegistry flightRuleRegistry,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               AircraftScheduleLock aircraftScheduleLock,
+                               PlatformTransactionManager transactionManager) {
+        this.flightRepository = flightRepository;
+        this.aircraftRegistry = aircraftRegistry;
+        this.maintenanceRecordRepository = maintenanceRecordRepository;
+        this.flightRuleRegistry = flightRuleRegistry;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.aircraftScheduleLock = aircraftScheduleLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public FlightImportReport importFlights(List<FlightCreateDTO> flights) {
+        List<FlightImportRowResult> results = new ArrayList<>(flights.size());
+        for (int start = 0; start < flights.size(); start += STREAM_CHUNK_SIZE) {
+            int end = Math.min(start + STREAM_CHUNK_SIZE, flights.size());
+            List<ImportRow> chunk = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                FlightCreateDTO flight = flights.get(i);
+                chunk.add(new ImportRow(i + 1, flight, flight == null ? "Empty row" : null));
+            }
+            results.addAll(importChunk(chunk));
+        }
+        return FlightImportReport.of(results);
+    }
+
+    public FlightImportReport importNdjson(InputStream input) throws IOException {
+        return importLines(input, false, line -> objectMapper.readValue(line, FlightCreateDTO.class));
+    }
+
+    public FlightImportReport importCsv(InputStream input) throws IOException {
+        return importLines(input, true, FlightImportService::parseCsvLine);
+    }
+
+    private FlightImportReport importLines(InputStream input, boolean skipHeader, LineParser parser) throws IOException {
+        List<FlightImportRowResult> results = new ArrayList<>();
+        List<ImportRow> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        int rowNumber = 0;
+        boolean headerPending = skipHeader;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (headerPending) {
+                headerPending = false;
+                continue;
+            }
+            rowNumber++;
+            try {
+                chunk.add(new ImportRow(rowNumber, parser.parse(line), null));
+            } catch (Exception e) {
+                chunk.add(new ImportRow(rowNumber, null, malformed(e)));
+            }
+            if (chunk.size() == STREAM_CHUNK_SIZE) {
+                results.addAll(importChunk(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk));
+        }
+        return FlightImportReport.of(results);
+    }
+
+    // Each chunk is checked and stored in its own transaction, holding the schedule locks of its aircraft; chunks
+    // also bound the IN lists of the per-chunk lookups
+    private List<FlightImportRowResult> importChunk(List<ImportRow> rows) {
+        FlightImportRowResult[] results = new FlightImportRowResult[rows.size()];
+        try {
+            transactionTemplate.executeWithoutResult(status -> importChunkInTransaction(rows, results));
+        } catch (DataIntegrityViolationException e) {
+            if (!ScheduleConstraints.isViolated(e, ScheduleConstraints.FLIGHT_AIRCRAFT_PERIOD)) {
+                throw e;
+            }
+            // A flight stored outside the schedule locks collided with an accepted row and the chunk was rolled back.
+            // Rows without a result were all accepted by the sweep; each is stored again in its own transaction so
+            // only the rows that really collide are reported as overlaps
+            if (rows.size() == 1) {
+                ImportRow row = rows.getFirst();
+                results[0] = FlightImportRowResult.rejected(row.number(), row.flight().flightNumber(), "Flight overlaps assigned aircraft's existing flight");
+            } else {
+                for (int i = 0; i < rows.size(); i++) {
+                    if (results[i] == null) {
+                        results[i] = importChunk(List.of(rows.get(i))).getFirst();
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void importChunkInTransaction(List<ImportRow> rows, FlightImportRowResult[] results) {
+        Set<String> existingFlightNumbers = new HashSet<>(flightRepository.findExistingFlightNumbers(
+                collectNonNull(rows, FlightCreateDTO::flightNumber)));
+        Map<String, Aircraft> aircraftByRegistration = aircraftRegistry.findAllByRegistrationNumberIn(
+                        collectNonNull(rows, FlightCreateDTO::aircraft)).stream()
+                .collect(Collectors.toMap(Aircraft::getRegistrationNumber, Function.identity()));
+
+        List<Integer> checked = new ArrayList<>();
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            String rejection = row.parseError() != null
+                    ? row.parseError()
+                    : checkRow(row.flight(), existingFlightNumbers);
+            if (rejection != null) {
+                results[i] = FlightImportRowResult.rejected(row.number(), row.flight() == null ? null : row.flight().flightNumber(), rejection);
+                continue;
+            }
+            checked.add(i);
+            flights.add(toFlight(row.flight(), aircraftByRegistration.get(row.flight().aircraft())));
+        }
+
+        List<FlightRuleViolation> violations = flightRuleRegistry.validateAll(flights);
+        List<Candidate> candidates = new ArrayList<>();
+        for (int k = 0; k < flights.size(); k++) {
+            int i = checked.get(k);
+            if (violations.get(k) != null) {
+                ImportRow row = rows.get(i);
+                results[i] = FlightImportRowResult.rejected(row.number(), row.flight().flightNumber(), violations.get(k).message());
+                continue;
+            }
+            candidates.add(new Candidate(i, flights.get(k), FlightWindow.fromFlight(flights.get(k))));
+        }
+
+        aircraftScheduleLock.lock(candidates.stream().map(candidate -> candidate.window().aircraftId())
+                .distinct().sorted().toArray(UUID[]::new));
+        List<Candidate> accepted = sweep(candidates, results, rows);
+        // A flight number belongs to the first row the sweep accepts; later rows reusing it are dropped and the
+        // rest swept again, since a dropped row may have been what blocked another
+        List<Candidate> duplicates = laterDuplicates(accepted);
+        while (!duplicates.isEmpty()) {
+            for (Candidate duplicate : duplicates) {
+                ImportRow row = rows.get(duplicate.index());
+                results[duplicate.index()] = FlightImportRowResult.rejected(row.number(), row.flight().flightNumber(), "Flight number already exists");
+            }
+            candidates.removeAll(duplicates);
+            candidates.forEach(candidate -> results[candidate.index()] = null);
+            accepted = sweep(candidates, results, rows);
+            duplicates = laterDuplicates(accepted);
+        }
+        flightRepository.saveAll(accepted.stream().map(Candidate::flight).toList());
+        flightRepository.flush();
+        for (Candidate candidate : accepted) {
+            ImportRow row = rows.get(candidate.index());
+            results[candidate.index()] = FlightImportRowResult.accepted(row.number(), row.flight().flightNumber(), candidate.flight().getId());
+        }
+    }
+
+    // What the rules take for granted about a row; everything else is left to the FlightRuleRegistry
+    private String checkRow(FlightCreateDTO dto, Set<String> existingFlightNumbers) {
+        Set<ConstraintViolation<FlightCreateDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (dto.flightNumber() == null || dto.departureAirport() == null || dto.arrivalAirport() == null) {
+            return "Missing required field";
+        }
+        if (existingFlightNumbers.contains(dto.flightNumber())) {
+            return "Flight number already exists";
+        }
+        return null;
+    }
+
+    private List<Candidate> sweep(List<Candidate> candidates, FlightImportRowResult[] results, List<ImportRow> rows) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, List<Candidate>> candidatesByAircraft = candidates.stream()
+                .collect(Collectors.groupingBy(candidate -> candidate.window().aircraftId()));
+        Instant from = candidates.stream().map(c -> c.window().departureTime()).min(Comparator.naturalOrder()).orElseThrow();
+        Instant to = candidates.stream().map(c -> c.window().arrivalTime()).max(Comparator.naturalOrder()).orElseThrow();
+        Map<UUID, List<FlightWindow>> existingByAircraft = flightRepository.findAllForAircraftBetween(
+                        candidatesByAircraft.keySet(),
+                        from.minus(CONTINUITY_WINDOW).atZone(ZoneOffset.UTC),
+                        to.atZone(ZoneOffset.UTC)).stream()
+                .map(FlightWindow::fromFlight)
+                .collect(Collectors.groupingBy(FlightWindow::aircraftId));
+        Map<UUID, List<MaintenanceWindow>> maintenanceByAircraft = maintenanceRecordRepository.findAllForAircraftBetween(
+                        candidatesByAircraft.keySet(), from.atZone(ZoneOffset.UTC), to.atZone(ZoneOffset.UTC)).stream()
+                .map(MaintenanceWindow::fromRecord)
+                .collect(Collectors.groupingBy(MaintenanceWindow::aircraftId));
+
+        List<Candidate> accepted = new ArrayList<>();
+        candidatesByAircraft.forEach((aircraftId, aircraftCandidates) -> {
+            List<Slot> slots = new ArrayList<>();
+            existingByAircraft.getOrDefault(aircraftId, List.of()).forEach(window -> slots.add(new Slot(window, null)));
+            aircraftCandidates.forEach(candidate -> slots.add(new Slot(candidate.window(), candidate)));
+            slots.sort(Comparator.comparing((Slot slot) -> slot.window().departureTime())
+                    .thenComparing(slot -> slot.candidate() != null));
+
+            Instant[] nextExistingDeparture = new Instant[slots.size()];
+            Instant next = null;
+            for (int i = slots.size() - 1; i >= 0; i--) {
+                nextExistingDeparture[i] = next;
+                if (slots.get(i).candidate() == null) {
+                    next = slots.get(i).window().departureTime();
+                }
+            }
+
+            Slot last = null;
+            for (int i = 0; i < slots.size(); i++) {
+                Slot slot = slots.get(i);
+                FlightWindow window = slot.window();
+                if (slot.candidate() == null) {
+                    if (last == null || window.arrivalTime().isAfter(last.window().arrivalTime())) {
+                        last = slot;
+                    }
+                    continue;
+                }
+                String rejection = null;
+                if (overlapsMaintenance(window, maintenanceByAircraft.getOrDefault(aircraftId, List.of()))) {
+                    rejection = "Aircraft is under maintenance during the flight";
+                } else if (last != null && !last.window().arrivalTime().isBefore(window.departureTime())) {
+                    rejection = last.candidate() == null
+                            ? "Flight overlaps assigned aircraft's existing flight"
+                            : "Flight overlaps another flight in the batch";
+                } else if (nextExistingDeparture[i] != null && !nextExistingDeparture[i].isAfter(window.arrivalTime())) {
+                    rejection = "Flight overlaps assigned aircraft's existing flight";
+                } else if (last != null
+                           && last.window().arrivalTime().isAfter(window.departureTime().minus(CONTINUITY_WINDOW))
+                           && !last.window().arrivalAirport().equals(window.departureAirport())) {
+                    rejection = "Aircraft cannot reach departure airport";
+                }
+                if (rejection != null) {
+                    ImportRow row = rows.get(slot.candidate().index());
+                    results[slot.candidate().index()] = FlightImportRowResult.rejected(row.number(), row.flight().flightNumber(), rejection);
+                } else {
+                    accepted.add(slot.candidate());
+                    last = slot;
+                }
+            }
+        });
+        return accepted;
+    }
+
+    private static List<Candidate> laterDuplicates(List<Candidate> accepted) {
+        Set<String> claimed = new HashSet<>();
+        return accepted.stream()
+                .sorted(Comparator.comparingInt(Candidate::index))
+                .filter(candidate -> !claimed.add(candidate.flight().getFlightNumber()))
+                .toList();
+    }
+
+    private static boolean overlapsMaintenance(FlightWindow window, List<MaintenanceWindow> maintenance) {
+        for (MaintenanceWindow maintenanceWindow : maintenance) {
+            if (!maintenanceWindow.startTime().isAfter(window.arrivalTime()) && !maintenanceWindow.endTime().isBefore(window.departureTime())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Flight toFlight(FlightCreateDTO dto, Aircraft aircraft) {
+        Flight flight = new Flight();
+        flight.setFlightNumber(dto.flightNumber());
+        flight.setDepartureAirport(dto.departureAirport());
+        flight.setArrivalAirport(dto.arrivalAirport());
+        flight.setDepartureTime(dto.departureTime());
+        flight.setArrivalTime(dto.arrivalTime());
+        flight.setAircraft(aircraft);
+        return flight;
+    }
+
+    private static Set<String> collectNonNull(List<ImportRow> rows, Function<FlightCreateDTO, String> field) {
+        return rows.stream()
+                .map(ImportRow::flight)
+                .filter(Objects::nonNull)
+                .map(field)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static String malformed(Exception e) {
+        String reason = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+        return reason == null ? "Malformed row" : "Malformed row: " + reason;
+    }
+
+    private static FlightCreateDTO parseCsvLine(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Expected 6 columns but got " + fields.length);
+        }
+        return new FlightCreateDTO(
+                fields[0].trim(),
+                fields[1].trim(),
+                fields[2].trim(),
+                ZonedDateTime.parse(fields[3].trim()),
+                ZonedDateTime.parse(fields[4].trim()),
+                fields[5].trim()
+        );
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        FlightCreateDTO parse(String line) throws Exception;
+    }
+
+    private record ImportRow(int number, FlightCreateDTO flight, String parseError) {}
+
+    private record Candidate(int index, Flight flight, FlightWindow window) {}
+
+    private record Slot(FlightWindow window, Candidate candidate) {}
+}
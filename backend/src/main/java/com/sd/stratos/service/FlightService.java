@@ -1,44 +1,97 @@
 package com.sd.stratos.service;
 
+import com.sd.stratos.cache.AircraftRegistry;
+import com.sd.stratos.cache.AircraftTypeInfoCache;
+import com.sd.stratos.cache.FlightIntervalIndex;
 import com.sd.stratos.dto.FlightCreateDTO;
 import com.sd.stratos.dto.FlightDisplayDTO;
+import com.sd.stratos.dto.FlightFilterDTO;
+import com.sd.stratos.dto.FlightPageDTO;
 import com.sd.stratos.dto.FlightPartialDTO;
 import com.sd.stratos.dto.FlightUpdateDTO;
 import com.sd.stratos.entity.Aircraft;
-import com.sd.stratos.entity.AircraftStatus;
 import com.sd.stratos.entity.AircraftTypeInfo;
 import com.sd.stratos.entity.Flight;
 import com.sd.stratos.exception.FlightNumberAlreadyExistsException;
-import com.sd.stratos.exception.InvalidFlightEndpointsException;
-import com.sd.stratos.exception.InvalidTimeIntervalException;
-import com.sd.stratos.repository.AircraftRepository;
+import com.sd.stratos.exception.StaleVersionException;
 import com.sd.stratos.repository.FlightRepository;
+import com.sd.stratos.rule.FlightRuleRegistry;
+import com.sd.stratos.util.KeysetCursor;
+import com.sd.stratos.util.ScheduleConstraints;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("stratos.service")
 @RequiredArgsConstructor
 public class FlightService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final FlightRepository flightRepository;
-    private final AircraftRepository aircraftRepository;
+    private final AircraftRegistry aircraftRegistry;
     private final AirportService airportService;
+    private final AircraftTypeInfoCache aircraftTypeInfoCache;
+    private final FlightIntervalIndex flightIntervalIndex;
+    private final AircraftScheduleLock aircraftScheduleLock;
+    private final FlightRuleRegistry flightRuleRegistry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmFlightIntervalIndex() {
+        // Only flights that can still conflict with a future departure or act as its predecessor within 24 hours
+        ZonedDateTime horizon = ZonedDateTime.now().minus(Duration.ofHours(24));
+        flightIntervalIndex.load(flightRepository.findAllArrivingAfter(horizon), horizon.toInstant());
+    }
 
     public List<FlightDisplayDTO> getAllFlights() {
-        return flightRepository.findAll().stream().map(FlightDisplayDTO::fromFlight).collect(Collectors.toList());
+        return flightRepository.findAllForDisplay();
+    }
+
+    public FlightPageDTO getFlightPage(FlightFilterDTO filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        List<FlightDisplayDTO> flights = flightRepository.findPage(
+                filter.aircraft(), filter.departureAirport(), filter.arrivalAirport(), filter.from(), filter.to(),
+                after == null ? null : after.position(ZonedDateTime::parse),
+                after == null ? null : after.id(),
+                Limit.of(pageSize + 1));
+        if (flights.size() <= pageSize) {
+            return new FlightPageDTO(flights, null);
+        }
+        List<FlightDisplayDTO> page = flights.subList(0, pageSize);
+        FlightDisplayDTO last = page.get(pageSize - 1);
+        String nextCursor = new KeysetCursor(last.departureTime().withZoneSameInstant(ZoneOffset.UTC).toString(), last.id()).encode();
+        return new FlightPageDTO(page, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamFlights(FlightFilterDTO filter, Consumer<FlightDisplayDTO> consumer) {
+        try (Stream<FlightDisplayDTO> flights = flightRepository.streamAll(
+                filter.aircraft(), filter.departureAirport(), filter.arrivalAirport(), filter.from(), filter.to())) {
+            flights.forEach(consumer);
+        }
     }
 
     public Flight getFlightById(UUID id) {
         return flightRepository.findById(id).orElse(null);
     }
 
+    @Transactional
     public Flight addFlight(FlightCreateDTO flightCreateDTO) {
         if (flightRepository.findByFlightNumber(flightCreateDTO.flightNumber()).isPresent()) {
             throw new FlightNumberAlreadyExistsException("Flight number already exists");
@@ -49,97 +102,62 @@ public class FlightService {
         flightToAdd.setDepartureTime(flightCreateDTO.departureTime());
         flightToAdd.setDepartureAirport(flightCreateDTO.departureAirport());
         flightToAdd.setArrivalAirport(flightCreateDTO.arrivalAirport());
-        Optional<Aircraft> maybeAircraft = aircraftRepository.findAircraftByRegistrationNumber(flightCreateDTO.aircraft());
+        Optional<Aircraft> maybeAircraft = aircraftRegistry.findByRegistrationNumber(flightCreateDTO.aircraft());
         if (maybeAircraft.isEmpty()) {
             throw new IllegalArgumentException("Aircraft not found");
         }
         flightToAdd.setAircraft(maybeAircraft.get());
+        aircraftScheduleLock.lock(flightToAdd.getAircraft().getId());
         validateFlight(flightToAdd);
-        return flightRepository.save(flightToAdd);
+        return saveFlight(flightToAdd);
     }
 
-    public Flight updateFlight(UUID id, FlightUpdateDTO flight) {
+    @Transactional
+    public Flight updateFlight(UUID id, FlightUpdateDTO flight, Long expectedVersion) {
         Optional<Flight> existingFlight = flightRepository.findById(id);
         if (existingFlight.isPresent()) {
             Flight updatedFlight = existingFlight.get();
+            Optional<Aircraft> maybeAircraft = aircraftRegistry.findByRegistrationNumber(flight.aircraft());
+            aircraftScheduleLock.lock(updatedFlight.getAircraft().getId(), maybeAircraft.map(Aircraft::getId).orElse(null));
+            if (expectedVersion != null && !expectedVersion.equals(updatedFlight.getVersion())) {
+                throw new StaleVersionException("Flight was changed by another request");
+            }
             updatedFlight.setFlightNumber(flight.flightNumber());
             updatedFlight.setDepartureTime(flight.departureTime());
             updatedFlight.setArrivalTime(flight.arrivalTime());
             updatedFlight.setDepartureAirport(flight.departureAirport());
             updatedFlight.setArrivalAirport(flight.arrivalAirport());
-            updatedFlight.setAircraft(aircraftRepository.findAircraftByRegistrationNumber(flight.aircraft()).orElse(null));
+            updatedFlight.setAircraft(maybeAircraft.orElse(null));
             validateFlight(updatedFlight);
-            return flightRepository.save(updatedFlight);
+            return saveFlight(updatedFlight);
         }
         throw new IllegalArgumentException("Flight not found");
     }
 
-    public void deleteFlight(UUID id) {
-        flightRepository.deleteById(id);
-    }
-
-    private void validateTimes(ZonedDateTime departureTime, ZonedDateTime arrivalTime) {
-        if (departureTime.isAfter(arrivalTime)) {
-            throw new InvalidTimeIntervalException("Departure time is after arrival time");
-        }
-        if (departureTime.isBefore(ZonedDateTime.now()) || arrivalTime.isBefore(ZonedDateTime.now())) {
-            throw new InvalidTimeIntervalException("Departure time is before current time");
+    // Flushed inside the transaction so version and exclusion constraint conflicts surface here rather than at commit
+    private Flight saveFlight(Flight flight) {
+        try {
+            return flightRepository.saveAndFlush(flight);
+        } catch (DataIntegrityViolationException e) {
+            if (ScheduleConstraints.isViolated(e, ScheduleConstraints.FLIGHT_AIRCRAFT_PERIOD)) {
+                throw new IllegalStateException("Flight overlaps assigned aircraft's existing flight");
+            }
+            throw e;
         }
     }
 
-    private void validateFlight(Flight flight) {
-        validateTimes(flight.getDepartureTime(), flight.getArrivalTime());
-        validateAssignedAircraft(flight);
-        if (flight.getDepartureAirport().equals(flight.getArrivalAirport())) {
-            throw new InvalidFlightEndpointsException("Arrival and departure airports must be different");
-        }
-        if (aircraftRepository.findById(flight.getAircraft().getId()).isEmpty()) {
-            throw new IllegalStateException("Aircraft not in database");
-        }
+    public void deleteFlight(UUID id) {
+        flightRepository.deleteById(id);
     }
 
-    private void validateAssignedAircraft(Flight flight) {
-        if(flight.getAircraft() == null) {
-            throw new IllegalStateException("Aircraft not found");
-        }
-        Optional<Aircraft> maybeAircraft = aircraftRepository.findById(flight.getAircraft().getId());
-        if (maybeAircraft.isEmpty()) {
-            throw new IllegalStateException("Aircraft not found");
-        }
-        Aircraft assignedAircraft = maybeAircraft.get();
-        if (!assignedAircraft.getStatus().equals(AircraftStatus.OPERATIONAL)) {
-            throw new IllegalStateException("Aircraft is not operational");
-        }
-        if (flightRepository.existsOverlappingFlight(flight.getId(), assignedAircraft.getId(), flight.getDepartureTime(), flight.getArrivalTime())) {
-            throw new IllegalStateException("Flight overlaps assigned aircraft's existing flight");
-        }
-        Optional<Flight> maybeLastFlight = flightRepository.findLastFlightBefore(assignedAircraft, flight.getDepartureTime());
-        boolean departureAirportUnreachable = false;
-        if (maybeLastFlight.isPresent()) {
-            Flight lastFlight = maybeLastFlight.get();
-            boolean isWithin24Hours = lastFlight.getArrivalTime().isAfter(flight.getDepartureTime().minus(Duration.ofHours(24)));
-            boolean isAtWrongAirport = !lastFlight.getArrivalAirport().equals(flight.getDepartureAirport());
-            if (isWithin24Hours && isAtWrongAirport) {
-                departureAirportUnreachable = true;
-
-            }
-        }
-        if (departureAirportUnreachable) {
-            throw new IllegalStateException("Aircraft cannot reach departure airport");
-        }
-        int flightDistance = airportService.getDistanceBetween(flight.getDepartureAirport(), flight.getArrivalAirport());
-        Optional<AircraftTypeInfo> maybeTypeInfo = aircraftRepository.getAircraftInfo(assignedAircraft.getRegistrationNumber());
-        if (maybeTypeInfo.isEmpty()) {
-            throw new IllegalStateException("Aircraft type info not found");
-        }
-        if(flightDistance > maybeTypeInfo.get().getCruisingDistanceMiles()) {
-            throw new IllegalStateException("Aircraft doesn't have enough range to complete flight");
-        }
+    private void validateFlight(Flight flight) {
+        flightRuleRegistry.validate(flight);
     }
 
     public ZonedDateTime getArrivalTime(@Valid FlightPartialDTO flightDTO) {
         int flightDistance = airportService.getDistanceBetween(flightDTO.departureAirport(), flightDTO.arrivalAirport());
-        Optional<AircraftTypeInfo> maybeInfo = aircraftRepository.getAircraftInfo(flightDTO.aircraft());
+        Optional<AircraftTypeInfo> maybeInfo = aircraftRegistry.findByRegistrationNumber(flightDTO.aircraft())
+                .flatMap(aircraft -> aircraftTypeInfoCache.get(aircraft.getType()));
         if (maybeInfo.isEmpty()) {
             throw new IllegalStateException("Aircraft not found");
         }
@@ -149,4 +167,5 @@ public class FlightService {
         int flightTimeInMinutes = (int)(((double)flightDistance / aircraftSpeed ) * 60) + takeoffAndLandingDelay;
         return flightDTO.departureTime().plusMinutes(flightTimeInMinutes);
     }
+
 }
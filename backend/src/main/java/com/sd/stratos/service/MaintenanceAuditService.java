@@ -0,0 +1,48 @@
+package com.sd.stratos.service;
+
+import com.sd.stratos.dto.MaintenanceAuditEntryDTO;
+import com.sd.stratos.dto.MaintenanceAuditFilterDTO;
+import com.sd.stratos.dto.MaintenanceAuditPageDTO;
+import com.sd.stratos.repository.MaintenanceRecordLogEntryRepository;
+import com.sd.stratos.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class MaintenanceAuditService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final MaintenanceRecordLogEntryRepository maintenanceRecordLogEntryRepository;
+
+    public MaintenanceAuditPageDTO getAuditPage(MaintenanceAuditFilterDTO filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        List<MaintenanceAuditEntryDTO> entries = maintenanceRecordLogEntryRepository.findPage(
+                filter.maintenanceRecordId(), filter.aircraft(), filter.engineer(), filter.actionType(), filter.from(), filter.to(),
+                after == null ? null : after.position(LocalDateTime::parse),
+                after == null ? null : after.id(),
+                Limit.of(pageSize + 1));
+        if (entries.size() <= pageSize) {
+            return new MaintenanceAuditPageDTO(entries, null);
+        }
+        List<MaintenanceAuditEntryDTO> page = entries.subList(0, pageSize);
+        MaintenanceAuditEntryDTO last = page.get(pageSize - 1);
+        return new MaintenanceAuditPageDTO(page, new KeysetCursor(last.timestamp().toString(), last.logEntryId()).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAudit(MaintenanceAuditFilterDTO filter, Consumer<MaintenanceAuditEntryDTO> consumer) {
+        try (Stream<MaintenanceAuditEntryDTO> entries = maintenanceRecordLogEntryRepository.streamAll(
+                filter.maintenanceRecordId(), filter.aircraft(), filter.engineer(), filter.actionType(), filter.from(), filter.to())) {
+            entries.forEach(consumer);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.sd.stratos.service;
+
+import com.sd.stratos.entity.MaintenanceAuditOutboxEntry;
+import com.sd.stratos.entity.MaintenanceRecordLogEntry;
+import com.sd.stratos.repository.MaintenanceAuditOutboxRepository;
+import com.sd.stratos.repository.MaintenanceRecordLogEntryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.sd.stratos.util.TransactionHooks.afterCommit;
+
+/**
+ * Writes maintenance audit entries off the request path. {@link #record} stores the entry in the outbox
+ * inside the caller's transaction and, once that commits, queues its id. A background thread copies queued
+ * outbox rows into the audit log in batches of {@value #BATCH_SIZE}, or after {@value #MAX_DELAY_MS} ms,
+ * and deletes them from the outbox in the same transaction. Rows that could not be queued (queue full,
+ * failed flush, crash) stay in the outbox and are picked up by a sweep at startup or after the failure.
+ */
+@Service
+@Slf4j
+public class MaintenanceAuditWriter {
+    static final int BATCH_SIZE = 50;
+    static final long MAX_DELAY_MS = 200;
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int SWEEP_PAGE_SIZE = 500;
+    private static final long IDLE_POLL_MS = 1000;
+
+    private final MaintenanceAuditOutboxRepository outboxRepository;
+    private final MaintenanceRecordLogEntryRepository logEntryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<UUID> pending = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private volatile boolean sweepNeeded = true;
+    private volatile boolean running = false;
+    private Thread worker;
+
+    public MaintenanceAuditWriter(MaintenanceAuditOutboxRepository outboxRepository,
+                                  MaintenanceRecordLogEntryRepository logEntryRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.logEntryRepository = logEntryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void record(MaintenanceRecordLogEntry logEntry) {
+        UUID id = outboxRepository.save(MaintenanceAuditOutboxEntry.from(logEntry)).getId();
+        afterCommit(() -> enqueue(id));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("maintenance-audit-writer").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = worker;
+        }
+        if (current != null) {
+            current.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    void flushPending() {
+        List<UUID> batch = new ArrayList<>(BATCH_SIZE);
+        while (pending.drainTo(batch, BATCH_SIZE) > 0) {
+            transfer(() -> outboxRepository.lockAllById(batch));
+            batch.clear();
+        }
+    }
+
+    void sweep() {
+        sweepNeeded = false;
+        int moved;
+        do {
+            moved = transfer(() -> outboxRepository.findAllByOrderByTimestampAsc(Limit.of(SWEEP_PAGE_SIZE)));
+        } while (moved == SWEEP_PAGE_SIZE);
+    }
+
+    private void enqueue(UUID id) {
+        if (!pending.offer(id)) {
+            // the row is still in the outbox, the next sweep will copy it
+            sweepNeeded = true;
+        }
+    }
+
+    private void run() {
+        List<UUID> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !pending.isEmpty()) {
+            try {
+                if (sweepNeeded) {
+                    sweep();
+                }
+                UUID first = pending.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_DELAY_MS);
+                while (batch.size() < BATCH_SIZE) {
+                    pending.drainTo(batch, BATCH_SIZE - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= BATCH_SIZE || remaining <= 0) {
+                        break;
+                    }
+                    UUID next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                transfer(() -> outboxRepository.lockAllById(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Copies the locked outbox rows into the audit log and deletes them in one transaction. Returns the
+     * number of rows moved, or -1 if the transaction failed and the rows were left for a later sweep.
+     */
+    private int transfer(Supplier<List<MaintenanceAuditOutboxEntry>> lockedRows) {
+        try {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<MaintenanceAuditOutboxEntry> rows = lockedRows.get();
+                if (!rows.isEmpty()) {
+                    logEntryRepository.saveAll(rows.stream().map(MaintenanceAuditOutboxEntry::toLogEntry).toList());
+                    outboxRepository.deleteAllInBatch(rows);
+                }
+                return rows.size();
+            });
+            return moved == null ? 0 : moved;
+        } catch (RuntimeException e) {
+            log.error("Could not write maintenance audit entries, they stay in the outbox", e);
+            sweepNeeded = true;
+            return -1;
+        }
+    }
+}
@@ -1,34 +1,58 @@
 package com.sd.stratos.service;
 
+import com.sd.stratos.cache.AircraftRegistry;
+import com.sd.stratos.cache.FlightIntervalIndex;
+import com.sd.stratos.cache.MaintenanceIntervalIndex;
 import com.sd.stratos.dto.MaintenanceRecordCreateDTO;
+import com.sd.stratos.dto.MaintenanceRecordListDTO;
 import com.sd.stratos.dto.MaintenanceRecordUpdateDTO;
 import com.sd.stratos.entity.*;
 import com.sd.stratos.exception.InvalidTimeIntervalException;
-import com.sd.stratos.repository.AircraftRepository;
-import com.sd.stratos.repository.MaintenanceRecordLogEntryRepository;
+import com.sd.stratos.exception.StaleVersionException;
+import com.sd.stratos.repository.FlightRepository;
 import com.sd.stratos.repository.MaintenanceRecordRepository;
 import com.sd.stratos.repository.UserRepository;
 import com.sd.stratos.specification.MaintenanceRecordSpecification;
 import com.sd.stratos.util.MaintenanceRecordDiffUtil;
+import com.sd.stratos.util.ScheduleConstraints;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
+@Timed("stratos.service")
 @RequiredArgsConstructor
 public class MaintenanceRecordService {
     private final MaintenanceRecordRepository maintenanceRecordRepository;
-    private final AircraftRepository aircraftRepository;
+    private final AircraftRegistry aircraftRegistry;
     private final UserRepository userRepository;
-    private final MaintenanceRecordLogEntryRepository maintenanceRecordLogEntryRepository;
+    private final MaintenanceAuditWriter maintenanceAuditWriter;
+    private final MaintenanceIntervalIndex maintenanceIntervalIndex;
+    private final AircraftScheduleLock aircraftScheduleLock;
+    private final FlightRepository flightRepository;
+    private final FlightIntervalIndex flightIntervalIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmMaintenanceIntervalIndex() {
+        // Windows ending before the horizon cannot conflict with anything scheduled from now on
+        ZonedDateTime horizon = ZonedDateTime.now().minus(Duration.ofHours(24));
+        maintenanceIntervalIndex.load(maintenanceRecordRepository.findAllEndingAfter(horizon), horizon.toInstant());
+    }
 
-    public List<MaintenanceRecord> getMaintenanceRecords(
+    public List<MaintenanceRecordListDTO> getMaintenanceRecords(
             MaintenanceStatus status,
             MaintenanceType type,
             UUID engineerId,
@@ -48,7 +72,7 @@ public class MaintenanceRecordService {
                 sortBy != null ? sortBy : "startDate"
         );
 
-        return maintenanceRecordRepository.findAll(spec, sort);
+        return maintenanceRecordRepository.findAllForList(spec, sort);
     }
 
 
@@ -56,13 +80,15 @@ public class MaintenanceRecordService {
         return maintenanceRecordRepository.findById(id).orElse(null);
     }
 
+    @Transactional
     public MaintenanceRecord addMaintenanceRecord(MaintenanceRecordCreateDTO maintenanceRecordCreateDTO) {
         MaintenanceRecord maintenanceRecord = new MaintenanceRecord();
-        Optional<Aircraft> maybeAircraft = aircraftRepository.findAircraftByRegistrationNumber(maintenanceRecordCreateDTO.aircraft());
+        Optional<Aircraft> maybeAircraft = aircraftRegistry.findByRegistrationNumber(maintenanceRecordCreateDTO.aircraft());
         if (maybeAircraft.isEmpty()) {
             throw new IllegalStateException("Aircraft not found");
         }
         maintenanceRecord.setAircraft(maybeAircraft.get());
+        aircraftScheduleLock.lock(maintenanceRecord.getAircraft().getId());
         Optional<User> maybeUser = userRepository.findById(maintenanceRecordCreateDTO.engineer());
         if (maybeUser.isEmpty()) {
             throw new IllegalStateException("User not found");
@@ -73,21 +99,26 @@ public class MaintenanceRecordService {
         maintenanceRecord.setType(maintenanceRecordCreateDTO.type());
         maintenanceRecord.setStatus(maintenanceRecordCreateDTO.status());
         validateMaintenanceRecord(maintenanceRecord);
-        MaintenanceRecord result = maintenanceRecordRepository.save(maintenanceRecord);
+        MaintenanceRecord result = saveMaintenanceRecord(maintenanceRecord);
         MaintenanceRecordLogEntry maintenanceRecordLogEntry = new MaintenanceRecordLogEntry(ActionType.CREATED, result.getId(), result.getAircraft().getRegistrationNumber(), result.getEngineer().getUsername(), LocalDateTime.now(), "");
-        maintenanceRecordLogEntryRepository.save(maintenanceRecordLogEntry);
+        maintenanceAuditWriter.record(maintenanceRecordLogEntry);
         return result;
     }
 
-    public MaintenanceRecord updateMaintenanceRecord(UUID id, MaintenanceRecordUpdateDTO maintenanceRecord) {
+    @Transactional
+    public MaintenanceRecord updateMaintenanceRecord(UUID id, MaintenanceRecordUpdateDTO maintenanceRecord, Long expectedVersion) {
         Optional<MaintenanceRecord> existingMaintenanceRecord = maintenanceRecordRepository.findById(id);
         if (existingMaintenanceRecord.isPresent()) {
             MaintenanceRecord updatedMaintenanceRecord = existingMaintenanceRecord.get();
             MaintenanceRecord originalCopy = copyRecord(updatedMaintenanceRecord);
-            Optional<Aircraft> maybeAircraft = aircraftRepository.findAircraftByRegistrationNumber(maintenanceRecord.aircraft());
+            Optional<Aircraft> maybeAircraft = aircraftRegistry.findByRegistrationNumber(maintenanceRecord.aircraft());
             if(maybeAircraft.isEmpty()) {
                 throw new IllegalStateException("Aircraft not found");
             }
+            aircraftScheduleLock.lock(updatedMaintenanceRecord.getAircraft().getId(), maybeAircraft.get().getId());
+            if (expectedVersion != null && !expectedVersion.equals(updatedMaintenanceRecord.getVersion())) {
+                throw new StaleVersionException("Maintenance record was changed by another request");
+            }
             updatedMaintenanceRecord.setAircraft(maybeAircraft.get());
             Optional<User> maybeEngineer = userRepository.findById(UUID.fromString(maintenanceRecord.engineer()));
             if(maybeEngineer.isEmpty()) {
@@ -99,23 +130,36 @@ public class MaintenanceRecordService {
             updatedMaintenanceRecord.setStartDate(maintenanceRecord.startDate());
             updatedMaintenanceRecord.setEndDate(maintenanceRecord.endDate());
             validateMaintenanceRecord(updatedMaintenanceRecord);
-            MaintenanceRecord result = maintenanceRecordRepository.save(updatedMaintenanceRecord);
+            MaintenanceRecord result = saveMaintenanceRecord(updatedMaintenanceRecord);
             MaintenanceRecordLogEntry maintenanceRecordLogEntry = new MaintenanceRecordLogEntry(ActionType.UPDATED, result.getId(), result.getAircraft().getRegistrationNumber(), result.getEngineer().getUsername(), LocalDateTime.now(), MaintenanceRecordDiffUtil.diffRecords(originalCopy, result));
-            maintenanceRecordLogEntryRepository.save(maintenanceRecordLogEntry);
+            maintenanceAuditWriter.record(maintenanceRecordLogEntry);
             return result;
         }
         throw new IllegalStateException("Could not find maintenance record with id: " + id);
     }
 
+    @Transactional
     public void deleteMaintenanceRecord(UUID id) {
         MaintenanceRecord maintenanceRecord = maintenanceRecordRepository.findById(id).orElse(null);
         if (maintenanceRecord != null) {
             MaintenanceRecordLogEntry maintenanceRecordLogEntry = new MaintenanceRecordLogEntry(ActionType.DELETED, maintenanceRecord.getId(), maintenanceRecord.getAircraft().getRegistrationNumber(),maintenanceRecord.getEngineer().getUsername(), LocalDateTime.now(), "");
-            maintenanceRecordLogEntryRepository.save(maintenanceRecordLogEntry);
+            maintenanceAuditWriter.record(maintenanceRecordLogEntry);
             maintenanceRecordRepository.deleteById(id);
         }
     }
 
+    // Flushed inside the transaction so version and exclusion constraint conflicts surface here rather than at commit
+    private MaintenanceRecord saveMaintenanceRecord(MaintenanceRecord maintenanceRecord) {
+        try {
+            return maintenanceRecordRepository.saveAndFlush(maintenanceRecord);
+        } catch (DataIntegrityViolationException e) {
+            if (ScheduleConstraints.isViolated(e, ScheduleConstraints.MAINTENANCE_AIRCRAFT_PERIOD)) {
+                throw new IllegalStateException("Overlaps existing maintenance");
+            }
+            throw e;
+        }
+    }
+
     private void validateMaintenanceRecord(MaintenanceRecord maintenanceRecord) {
         if (maintenanceRecord == null) {
             return;
@@ -123,13 +167,44 @@ public class MaintenanceRecordService {
         if (maintenanceRecord.getStartDate().isAfter(maintenanceRecord.getEndDate())) {
             throw new InvalidTimeIntervalException("Start date after end date");
         }
-        if (maintenanceRecordRepository.existsOverlappingMaintenance(
+        if (existsOverlappingMaintenance(maintenanceRecord)) {
+            throw new IllegalStateException("Overlaps existing maintenance");
+        }
+        if (existsOverlappingFlight(maintenanceRecord)) {
+            throw new IllegalStateException("Overlaps scheduled flight");
+        }
+    }
+
+    // Records may be dated in the past, before the window the index holds; those are checked in the database
+    private boolean existsOverlappingMaintenance(MaintenanceRecord maintenanceRecord) {
+        if (maintenanceIntervalIndex.covers(maintenanceRecord.getStartDate().toInstant())) {
+            return maintenanceIntervalIndex.existsOverlap(
+                    maintenanceRecord.getId(),
+                    maintenanceRecord.getAircraft().getId(),
+                    maintenanceRecord.getStartDate().toInstant(),
+                    maintenanceRecord.getEndDate().toInstant());
+        }
+        return maintenanceRecordRepository.existsOverlappingMaintenance(
                 maintenanceRecord.getId(),
                 maintenanceRecord.getAircraft().getId(),
                 maintenanceRecord.getStartDate(),
-                maintenanceRecord.getEndDate())) {
-            throw new IllegalStateException("Overlaps existing maintenance");
+                maintenanceRecord.getEndDate());
+    }
+
+    // The flight side of MaintenanceOverlapRule, so neither a flight nor a maintenance window can be placed on the other
+    private boolean existsOverlappingFlight(MaintenanceRecord maintenanceRecord) {
+        if (flightIntervalIndex.covers(maintenanceRecord.getStartDate().toInstant())) {
+            return flightIntervalIndex.existsOverlap(
+                    null,
+                    maintenanceRecord.getAircraft().getId(),
+                    maintenanceRecord.getStartDate().toInstant(),
+                    maintenanceRecord.getEndDate().toInstant());
         }
+        return flightRepository.existsOverlappingFlight(
+                null,
+                maintenanceRecord.getAircraft().getId(),
+                maintenanceRecord.getStartDate(),
+                maintenanceRecord.getEndDate());
     }
 
     public List<MaintenanceType> getAllMaintenanceTypes() {
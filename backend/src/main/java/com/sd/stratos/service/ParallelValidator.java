@@ -0,0 +1,126 @@
+package com.sd.stratos.service;
+
+import com.sd.stratos.util.ConnectionLimitingDataSource;
+import com.sd.stratos.util.SqlStatementListener;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs independent {@link ValidationCheck}s so that a request waits about as long as its slowest database lookup
+ * instead of the sum of all of them. When more than one check queries the database, those checks run on virtual
+ * threads, at most {@code stratos.validation.max-concurrent-lookups} at a time across all requests. The rest run
+ * on the calling thread.
+ * <p>
+ * In-memory checks are evaluated first, in list order, and a violation among them is reported before any lookup
+ * starts. Otherwise the first violated database check in list order is reported, so the message does not depend
+ * on timing. Lookups still running at that point are left to finish and their results are ignored: interrupting
+ * a virtual thread blocked in socket I/O closes the socket, which would break the pooled connection under it.
+ * <p>
+ * Concurrent lookups run outside the caller's transaction, each on its own connection. They only take a connection
+ * that is idle at that moment. Otherwise the check runs on the caller's connection, so callers that already hold
+ * a connection never wait on each other for a second one.
+ */
+@Component
+public class ParallelValidator {
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("validation-", 0).factory());
+    private final Semaphore lookups;
+    private final SqlStatementListener sqlStatementListener;
+
+    public ParallelValidator(SqlStatementListener sqlStatementListener,
+                             @Value("${stratos.validation.max-concurrent-lookups:4}") int maxConcurrentLookups) {
+        this.sqlStatementListener = sqlStatementListener;
+        this.lookups = new Semaphore(maxConcurrentLookups);
+    }
+
+    public Optional<Violation> firstViolation(List<ValidationCheck> checks) {
+        for (int i = 0; i < checks.size(); i++) {
+            if (!checks.get(i).queriesDatabase()) {
+                String violation = checks.get(i).violation().get();
+                if (violation != null) {
+                    return Optional.of(new Violation(i, violation));
+                }
+            }
+        }
+        boolean concurrent = checks.stream().filter(ValidationCheck::queriesDatabase).count() > 1;
+        List<Future<Outcome>> started = new ArrayList<>(checks.size());
+        for (ValidationCheck check : checks) {
+            started.add(concurrent && check.queriesDatabase() && lookups.tryAcquire() ? submit(check) : null);
+        }
+        for (int i = 0; i < checks.size(); i++) {
+            if (!checks.get(i).queriesDatabase()) {
+                continue;
+            }
+            Outcome outcome = started.get(i) == null ? Outcome.NOT_RUN : await(started.get(i));
+            String violation = outcome == Outcome.NOT_RUN ? checks.get(i).violation().get() : outcome.violation();
+            if (violation != null) {
+                return Optional.of(new Violation(i, violation));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private Future<Outcome> submit(ValidationCheck check) {
+        SqlStatementListener.Stats stats = sqlStatementListener.current();
+        return executor.submit(() -> {
+            sqlStatementListener.attach(stats);
+            try {
+                return ConnectionLimitingDataSource.withoutWaiting(() -> new Outcome(check.violation().get()));
+            } catch (RuntimeException e) {
+                if (noConnection(e)) {
+                    return Outcome.NOT_RUN;
+                }
+                throw e;
+            } finally {
+                sqlStatementListener.end();
+                lookups.release();
+            }
+        });
+    }
+
+    private static Outcome await(Future<Outcome> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static boolean noConnection(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The index of the violated check in the list that was passed in
+    public record Violation(int index, String message) {
+    }
+
+    private record Outcome(String violation) {
+        static final Outcome NOT_RUN = new Outcome(null);
+    }
+}
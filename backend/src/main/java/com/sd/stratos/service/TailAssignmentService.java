@@ -0,0 +1,284 @@
+package com.sd.stratos.service;
+
+import com.sd.stratos.cache.AircraftRegistry;
+import com.sd.stratos.cache.AircraftTypeInfoCache;
+import com.sd.stratos.cache.FlightIntervalIndex;
+import com.sd.stratos.cache.FlightWindow;
+import com.sd.stratos.cache.MaintenanceIntervalIndex;
+import com.sd.stratos.cache.MaintenanceWindow;
+import com.sd.stratos.dto.FlightAssignmentLegDTO;
+import com.sd.stratos.dto.FlightAssignmentReport;
+import com.sd.stratos.dto.FlightAssignmentResultDTO;
+import com.sd.stratos.dto.FlightCreateDTO;
+import com.sd.stratos.dto.FlightImportReport;
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.entity.AircraftTypeInfo;
+import com.sd.stratos.repository.FlightRepository;
+import com.sd.stratos.repository.MaintenanceRecordRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Chooses aircraft for flights that have none. Legs are bucketed by aircraft type (the requested one, or the
+ * shortest-range type able to fly them) and every bucket is solved greedily in departure order on the solver
+ * pool, against the existing flights and maintenance windows of that type's operational fleet.
+ */
+@Service
+@RequiredArgsConstructor
+public class TailAssignmentService {
+    private static final Duration CONTINUITY_WINDOW = Duration.ofHours(24);
+    private static final long POSITIONED_COST = CONTINUITY_WINDOW.toSeconds() + 1;
+    private static final long UNPOSITIONED_COST = POSITIONED_COST + 1;
+    private static final long INFEASIBLE = Long.MAX_VALUE;
+
+    private final AircraftRegistry aircraftRegistry;
+    private final FlightRepository flightRepository;
+    private final MaintenanceRecordRepository maintenanceRecordRepository;
+    private final FlightIntervalIndex flightIntervalIndex;
+    private final MaintenanceIntervalIndex maintenanceIntervalIndex;
+    private final AirportService airportService;
+    private final AircraftTypeInfoCache aircraftTypeInfoCache;
+    private final FlightImportService flightImportService;
+    private final Validator validator;
+
+    // Solving is CPU-bound, so one worker per core; kept apart from the common pool so concurrent assignment
+    // requests queue here instead of starving parallel streams elsewhere, and shut down with the context
+    private final ForkJoinPool solverPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    @PreDestroy
+    public void stop() {
+        solverPool.shutdown();
+    }
+
+    public FlightAssignmentReport assign(List<FlightAssignmentLegDTO> legs, boolean save) {
+        ZonedDateTime now = ZonedDateTime.now();
+        Map<AircraftType, AircraftTypeInfo> typeInfo = aircraftTypeInfoCache.getAll();
+        Map<AircraftType, List<Aircraft>> fleetByType = aircraftRegistry.findAllOperational().stream()
+                .collect(Collectors.groupingBy(Aircraft::getType, () -> new EnumMap<>(AircraftType.class), Collectors.toList()));
+        Set<String> existingFlightNumbers = new HashSet<>(flightRepository.findExistingFlightNumbers(
+                legs.stream().map(FlightAssignmentLegDTO::flightNumber).filter(Objects::nonNull).collect(Collectors.toSet())));
+
+        FlightAssignmentResultDTO[] results = new FlightAssignmentResultDTO[legs.size()];
+        Map<AircraftType, List<Leg>> legsByType = new EnumMap<>(AircraftType.class);
+        for (int i = 0; i < legs.size(); i++) {
+            FlightAssignmentLegDTO dto = legs.get(i);
+            String rejection = checkLeg(dto, now, existingFlightNumbers);
+            AircraftType type = null;
+            if (rejection == null) {
+                int distance = airportService.getDistanceBetween(dto.departureAirport(), dto.arrivalAirport());
+                type = dto.aircraftType() != null ? dto.aircraftType() : shortestRangeTypeFor(distance, typeInfo, fleetByType.keySet());
+                if (distance < 0) {
+                    rejection = "Airport not found";
+                } else if (type == null) {
+                    rejection = "No aircraft type has enough range to complete flight";
+                } else if (!fleetByType.containsKey(type)) {
+                    rejection = "No operational aircraft of requested type";
+                } else if (!typeInfo.containsKey(type)) {
+                    rejection = "Aircraft type info not found";
+                } else if (distance > typeInfo.get(type).getCruisingDistanceMiles()) {
+                    rejection = "Aircraft doesn't have enough range to complete flight";
+                }
+            }
+            if (rejection != null) {
+                results[i] = FlightAssignmentResultDTO.unassigned(dto.flightNumber(), rejection);
+                continue;
+            }
+            legsByType.computeIfAbsent(type, t -> new ArrayList<>()).add(Leg.from(i, dto));
+        }
+
+        // A flight number belongs to the first leg that gets an aircraft; later legs reusing it are dropped and the
+        // rest solved again, since a dropped leg may have taken the aircraft another one needed
+        List<Leg> duplicates = List.of();
+        do {
+            for (Leg duplicate : duplicates) {
+                results[duplicate.index()] = FlightAssignmentResultDTO.unassigned(duplicate.flightNumber(), "Flight number already exists");
+                legsByType.values().forEach(typeLegs -> typeLegs.remove(duplicate));
+            }
+            legsByType.values().removeIf(List::isEmpty);
+            if (!legsByType.isEmpty()) {
+                List<Bucket> buckets = loadBuckets(legsByType, fleetByType);
+                solverPool.submit(() -> buckets.parallelStream().forEach(bucket -> solve(bucket, results))).join();
+            }
+            duplicates = laterDuplicates(legsByType, results);
+        } while (!duplicates.isEmpty());
+
+        List<FlightAssignmentResultDTO> flights = Arrays.asList(results);
+        FlightImportReport saved = null;
+        if (save) {
+            List<FlightCreateDTO> assigned = new ArrayList<>();
+            for (int i = 0; i < legs.size(); i++) {
+                if (results[i].assigned()) {
+                    assigned.add(legs.get(i).withAircraft(results[i].aircraft()));
+                }
+            }
+            saved = flightImportService.importFlights(assigned);
+        }
+        return FlightAssignmentReport.of(flights, saved);
+    }
+
+    // Only what a leg needs before an aircraft can be chosen for it; saved assignments go through
+    // FlightImportService, which applies every FlightRule to them
+    private String checkLeg(FlightAssignmentLegDTO dto, ZonedDateTime now, Set<String> existingFlightNumbers) {
+        Set<ConstraintViolation<FlightAssignmentLegDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (dto.flightNumber() == null || dto.departureAirport() == null || dto.arrivalAirport() == null) {
+            return "Missing required field";
+        }
+        if (existingFlightNumbers.contains(dto.flightNumber())) {
+            return "Flight number already exists";
+        }
+        if (dto.departureTime().isAfter(dto.arrivalTime())) {
+            return "Departure time is after arrival time";
+        }
+        if (dto.departureTime().isBefore(now) || dto.arrivalTime().isBefore(now)) {
+            return "Departure time is before current time";
+        }
+        if (dto.departureAirport().equals(dto.arrivalAirport())) {
+            return "Arrival and departure airports must be different";
+        }
+        return null;
+    }
+
+    private static List<Leg> laterDuplicates(Map<AircraftType, List<Leg>> legsByType, FlightAssignmentResultDTO[] results) {
+        Set<String> claimed = new HashSet<>();
+        return legsByType.values().stream()
+                .flatMap(List::stream)
+                .filter(leg -> results[leg.index()].assigned())
+                .sorted(Comparator.comparingInt(Leg::index))
+                .filter(leg -> !claimed.add(leg.flightNumber()))
+                .toList();
+    }
+
+    private static AircraftType shortestRangeTypeFor(int distance, Map<AircraftType, AircraftTypeInfo> typeInfo, Set<AircraftType> fleetTypes) {
+        return fleetTypes.stream()
+                .map(typeInfo::get)
+                .filter(Objects::nonNull)
+                .filter(info -> info.getCruisingDistanceMiles() >= distance)
+                .min(Comparator.comparingInt(AircraftTypeInfo::getCruisingDistanceMiles))
+                .map(AircraftTypeInfo::getAircraftType)
+                .orElse(null);
+    }
+
+    private List<Bucket> loadBuckets(Map<AircraftType, List<Leg>> legsByType, Map<AircraftType, List<Aircraft>> fleetByType) {
+        Instant from = legsByType.values().stream().flatMap(List::stream).map(Leg::departure).min(Comparator.naturalOrder()).orElseThrow()
+                .minus(CONTINUITY_WINDOW);
+        Instant to = legsByType.values().stream().flatMap(List::stream).map(Leg::arrival).max(Comparator.naturalOrder()).orElseThrow()
+                .plus(CONTINUITY_WINDOW);
+
+        Map<UUID, Tail> tails = new HashMap<>();
+        List<Bucket> buckets = new ArrayList<>(legsByType.size());
+        legsByType.forEach((type, legs) -> {
+            List<Tail> fleet = fleetByType.get(type).stream().map(Tail::new).toList();
+            fleet.forEach(tail -> tails.put(tail.aircraft.getId(), tail));
+            buckets.add(new Bucket(type, legs, fleet));
+        });
+
+        if (flightIntervalIndex.covers(from)) {
+            tails.forEach((id, tail) -> flightIntervalIndex.windowsBetween(id, from, to).forEach(tail::addFlight));
+        } else {
+            flightRepository.findAllForAircraftBetween(tails.keySet(), from.atZone(ZoneOffset.UTC), to.atZone(ZoneOffset.UTC))
+                    .forEach(flight -> tails.get(flight.getAircraft().getId()).addFlight(FlightWindow.fromFlight(flight)));
+        }
+        if (maintenanceIntervalIndex.covers(from)) {
+            tails.forEach((id, tail) -> tail.maintenance.addAll(maintenanceIntervalIndex.windowsBetween(id, from, to)));
+        } else {
+            maintenanceRecordRepository.findAllForAircraftBetween(tails.keySet(), from.atZone(ZoneOffset.UTC), to.atZone(ZoneOffset.UTC))
+                    .forEach(record -> tails.get(record.getAircraft().getId()).maintenance.add(MaintenanceWindow.fromRecord(record)));
+        }
+        return buckets;
+    }
+
+    private static void solve(Bucket bucket, FlightAssignmentResultDTO[] results) {
+        List<Leg> legs = new ArrayList<>(bucket.legs());
+        legs.sort(Comparator.comparing(Leg::departure).thenComparing(Leg::arrival).thenComparingInt(Leg::index));
+        for (Leg leg : legs) {
+            Tail best = null;
+            long bestCost = INFEASIBLE;
+            for (Tail tail : bucket.fleet()) {
+                long cost = tail.cost(leg);
+                if (cost < bestCost) {
+                    best = tail;
+                    bestCost = cost;
+                }
+            }
+            if (best == null) {
+                results[leg.index()] = FlightAssignmentResultDTO.unassigned(leg.flightNumber(), "No available aircraft can fly the flight");
+                continue;
+            }
+            best.addFlight(new FlightWindow(null, best.aircraft.getId(), leg.departure(), leg.arrival(), leg.departureAirport(), leg.arrivalAirport()));
+            results[leg.index()] = FlightAssignmentResultDTO.assigned(leg.flightNumber(), best.aircraft.getRegistrationNumber(), bucket.type());
+        }
+    }
+
+    private static boolean withinContinuityWindow(Instant arrival, Instant departure) {
+        return arrival.isAfter(departure.minus(CONTINUITY_WINDOW));
+    }
+
+    private record Leg(int index, String flightNumber, Instant departure, Instant arrival, String departureAirport, String arrivalAirport) {
+        static Leg from(int index, FlightAssignmentLegDTO dto) {
+            return new Leg(index, dto.flightNumber(), dto.departureTime().toInstant(), dto.arrivalTime().toInstant(),
+                    dto.departureAirport(), dto.arrivalAirport());
+        }
+    }
+
+    private record Bucket(AircraftType type, List<Leg> legs, List<Tail> fleet) {}
+
+    private static final class Tail {
+        private final Aircraft aircraft;
+        private final NavigableMap<Instant, FlightWindow> flights = new TreeMap<>();
+        private final List<MaintenanceWindow> maintenance = new ArrayList<>();
+
+        private Tail(Aircraft aircraft) {
+            this.aircraft = aircraft;
+        }
+
+        private void addFlight(FlightWindow window) {
+            flights.put(window.departureTime(), window);
+        }
+
+        /**
+         * Lower is better: the ground time of a connection made within the continuity window, then aircraft
+         * already parked at the departure airport, then any other free aircraft.
+         */
+        private long cost(Leg leg) {
+            Map.Entry<Instant, FlightWindow> latestStarted = flights.floorEntry(leg.arrival());
+            if (latestStarted != null && !latestStarted.getValue().arrivalTime().isBefore(leg.departure())) {
+                return INFEASIBLE;
+            }
+            for (MaintenanceWindow window : maintenance) {
+                if (!window.startTime().isAfter(leg.arrival()) && !window.endTime().isBefore(leg.departure())) {
+                    return INFEASIBLE;
+                }
+            }
+            FlightWindow previous = latestStarted == null ? null : latestStarted.getValue();
+            Map.Entry<Instant, FlightWindow> nextEntry = flights.higherEntry(leg.arrival());
+            if (nextEntry != null
+                && withinContinuityWindow(leg.arrival(), nextEntry.getKey())
+                && !leg.arrivalAirport().equals(nextEntry.getValue().departureAirport())) {
+                return INFEASIBLE;
+            }
+            if (previous == null) {
+                return UNPOSITIONED_COST;
+            }
+            boolean positioned = previous.arrivalAirport().equals(leg.departureAirport());
+            if (withinContinuityWindow(previous.arrivalTime(), leg.departure())) {
+                return positioned ? Duration.between(previous.arrivalTime(), leg.departure()).toSeconds() : INFEASIBLE;
+            }
+            return positioned ? POSITIONED_COST : UNPOSITIONED_COST;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.sd.stratos.exception.UsernameAlreadyExistsException;
 import com.sd.stratos.repository.UserRepository;
 import com.sd.stratos.specification.UserSpecification;
 import com.sd.stratos.util.PasswordUtil;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
@@ -20,6 +21,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("stratos.service")
 @AllArgsConstructor
 public class UserService {
 
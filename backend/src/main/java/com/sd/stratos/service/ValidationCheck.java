@@ -0,0 +1,10 @@
+package com.sd.stratos.service;
+
+import java.util.function.Supplier;
+
+/**
+ * One independent validation rule. {@code violation} returns the message to reject with, or null when the rule
+ * holds. Rules that have to query the database say so, which lets {@link ParallelValidator} run them concurrently.
+ */
+public record ValidationCheck(boolean queriesDatabase, Supplier<String> violation) {
+}
@@ -0,0 +1,114 @@
+package com.sd.stratos.util;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Bounds how many connections are checked out at once. With virtual threads the request thread count is no
+ * longer capped by Tomcat, so the connection pool becomes the real limit on concurrent database work. Requests
+ * beyond it wait here in FIFO order for at most {@code maxWait} instead of piling up inside the pool.
+ * <p>
+ * Sizing: keep the pool small and the permits equal to it. A database server saturates at roughly
+ * {@code 2 * cores + disks} busy connections, and more virtual threads only add waiters, not throughput. The
+ * Hikari {@code maximum-pool-size} should follow the database server, not the number of request threads.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+    private static final ThreadLocal<Boolean> IMMEDIATE = new ThreadLocal<>();
+
+    private final Semaphore permits;
+    private final Duration maxWait;
+
+    public ConnectionLimitingDataSource(DataSource targetDataSource, int maxConnections, Duration maxWait) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return limited(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return limited(() -> super.getConnection(username, password));
+    }
+
+    // Inside work, a connection is only handed out if one is idle right now; otherwise getConnection fails at once
+    public static <T> T withoutWaiting(Supplier<T> work) {
+        IMMEDIATE.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            IMMEDIATE.remove();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            boolean acquired = Boolean.TRUE.equals(IMMEDIATE.get())
+                    ? permits.tryAcquire()
+                    : permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                throw new SQLTransientConnectionException("No database connection available within " + maxWait.toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    private Connection limited(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
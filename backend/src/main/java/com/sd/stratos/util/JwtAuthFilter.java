@@ -1,10 +1,15 @@
 package com.sd.stratos.util;
 
+import com.sd.stratos.cache.VerifiedToken;
+import com.sd.stratos.cache.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,123 +22,170 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private static final String ISSUER = "Stratos";
+    // EventSource cannot set headers, so the change feed also takes a scoped token as a query parameter
+    private static final String EVENT_STREAM_PATH = "/api/events";
+    private static final String ACCESS_TOKEN_PARAMETER = "access_token";
+    // Request attribute holding the VerifiedToken of an authenticated request
+    public static final String VERIFIED_TOKEN = JwtAuthFilter.class.getName() + ".verifiedToken";
+
+    private final JwtParser jwtParser;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RoutePermissionTable routePermissionTable;
+    private final Timer cachedVerification;
+    private final Timer parsedVerification;
+    private final Timer rejectedVerification;
+
+    public JwtAuthFilter(@Value("${jwt.secret}") String secretKey,
+                         VerifiedTokenCache verifiedTokenCache,
+                         RoutePermissionTable routePermissionTable,
+                         MeterRegistry meterRegistry) {
+        this.jwtParser = buildParser(secretKey);
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.routePermissionTable = routePermissionTable;
+        this.cachedVerification = verificationTimer(meterRegistry, "cached");
+        this.parsedVerification = verificationTimer(meterRegistry, "parsed");
+        this.rejectedVerification = verificationTimer(meterRegistry, "rejected");
+    }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("stratos.jwt.verification")
+                .description("Time spent verifying the bearer token of a request")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private static JwtParser buildParser(String secretKey) {
+        try {
+            SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+            return Jwts.parser()
+                    .verifyWith(key)
+                    .requireIssuer(ISSUER)
+                    .build();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("JWT secret is not a valid Base64 HMAC key, authenticated requests will be rejected: {}", e.getMessage());
+            return null;
+        }
     }
 
-    private boolean checkClaims(String token) {
-        Claims claims = getAllClaimsFromToken(token);
+    private VerifiedToken verify(String token) {
+        long started = System.nanoTime();
+        Timer timer = rejectedVerification;
+        try {
+            VerifiedToken verified = verifiedTokenCache.get(token);
+            if (verified != null) {
+                timer = cachedVerification;
+                return verified;
+            }
+            verified = parse(token);
+            if (verified != null) {
+                timer = parsedVerification;
+            }
+            return verified;
+        } finally {
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
 
-        // check issuer
-        if (!"Stratos".equals(claims.getIssuer())) {
-            log.error("Invalid token issuer");
-            return false;
+    private VerifiedToken parse(String token) {
+        if (jwtParser == null) {
+            throw new JwtException("JWT secret is not configured");
         }
 
+        // signature, issuer and expiration are checked by the parser
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+
         // check expiration
-        if (claims.getExpiration().before(new Date())) {
-            log.error("Token has expired");
-            return false;
+        if (claims.getExpiration() == null) {
+            log.error("Token has no expiration");
+            return null;
         }
 
         // check iat
         if (claims.getIssuedAt() == null || claims.getIssuedAt().after(new Date())) {
             log.error("Token issued at date is invalid");
-            return false;
+            return null;
         }
         // check claims
         if (claims.get("userId") == null || claims.get("role") == null) {
             log.error("Token claims are invalid: does not contain userId and role");
-            return false;
+            return null;
         }
-        log.info("Token is valid. User ID: {}, Role: {}",
+        log.debug("Token is valid. User ID: {}, Role: {}",
                 claims.get("userId"), claims.get("role"));
-        return true;
-    }
 
-    private boolean hasRequiredRole(Claims claims, String requiredRole) {
-        String role = (String) claims.get("role");
-        return role != null && role.equalsIgnoreCase(requiredRole);
+        VerifiedToken verified = VerifiedToken.fromClaims(claims);
+        verifiedTokenCache.put(token, verified);
+        return verified;
     }
 
-
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        String path = request.getRequestURI();
+        String path = RoutePermissionTable.lookupPath(request);
         String method = request.getMethod();
 
-        // Allow OPTIONS requests (for CORS preflight) and /login endpoint and otp verification for password reset
-        if (path.contains("/api/airports") || "/api/auth/login".equals(path) || "/api/auth/verify-otp-reset".equals(path) ||"OPTIONS".equalsIgnoreCase(method)) {
-            log.info("Skipping JWT filter for path: {} and method: {}", path, method);
+        RoutePermissionTable.Match route = routePermissionTable.resolve(method, path);
+
+        if (route.access() == RouteAccess.PUBLIC) {
+            log.debug("Skipping JWT filter for path: {} and method: {}", path, method);
             filterChain.doFilter(request, response);
             return;
         }
 
+        boolean eventStream = "GET".equals(method) && EVENT_STREAM_PATH.equals(path);
         String authHeader = request.getHeader("Authorization");
+        boolean fromQuery = authHeader == null || !authHeader.startsWith("Bearer ");
+        String token = !fromQuery ? authHeader.substring(7)
+                : eventStream ? request.getParameter(ACCESS_TOKEN_PARAMETER) : null;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (token == null) {
             log.error("Authorization header is missing or does not start with 'Bearer '");
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return;
         }
 
-        String token = authHeader.substring(7);
-
         try {
-            boolean isValid = checkClaims(token);
-            if (!isValid) {
+            VerifiedToken verified = verify(token);
+            if (verified == null) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
             }
 
-            // Get the claims from the token
-            Claims claims = getAllClaimsFromToken(token);
+            // A scoped token only opens the event stream, and the query parameter only carries scoped tokens,
+            // since URLs end up in access logs and browser history
+            boolean scopeAccepted = verified.scope() == null
+                    ? !fromQuery
+                    : eventStream && JwtUtil.EVENT_STREAM_SCOPE.equals(verified.scope());
+            if (!scopeAccepted) {
+                log.error("Token scope '{}' is not accepted for path '{}'", verified.scope(), path);
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
 
             // Check if the user has the required role for the endpoint
-            String requiredRole = getRequiredRoleForPath(path);
-
-            if (requiredRole != null && !hasRequiredRole(claims, requiredRole)) {
+            if (!route.access().allowsRole(verified.role())) {
                 // If the role doesn't match, return Forbidden
-                log.error("User with role '{}' is not authorized to access path '{}'", claims.get("role"), path);
+                log.error("User with role '{}' is not authorized to access path '{}'", verified.role(), path);
                 response.setStatus(HttpServletResponse.SC_FORBIDDEN);
                 return;
             }
 
-            if (path.matches("^/api/auth/enable-otp/[^/]+$")) {
-                String[] pathSegments = path.split("/");
-                String pathUsername = pathSegments[pathSegments.length - 1];
-
-                String tokenUsername = claims.getSubject();
-
-                if (!pathUsername.equals(tokenUsername)) {
-                    log.error("Token username '{}' does not match path username '{}'", tokenUsername, pathUsername);
-                    response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                    return;
-                }
+            if (route.access() == RouteAccess.OWNER && !route.variable().equals(verified.subject())) {
+                log.error("Token username '{}' does not match path username '{}'", verified.subject(), route.variable());
+                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                return;
             }
 
-
-
+            request.setAttribute(VERIFIED_TOKEN, verified);
             filterChain.doFilter(request, response);
 
         } catch (JwtException e) {
@@ -142,17 +194,4 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         }
     }
-
-    // Helper method to define role-based access
-    private String getRequiredRoleForPath(String path) {
-        // This is where you can map paths to roles (admin, engineer, etc.)
-        if (path.startsWith("/api/aircraft") || path.startsWith("/api/users") || path.equals("/api/maintenance-records/audit")) {
-            return "ADMIN";  // Only users with ADMIN role can access this
-        } else if (path.startsWith("/api/maintenance-records")) {
-            return "ENGINEER";  // Only users with ENGINEER role can access this
-        }
-
-        // Default: No role required for this path
-        return null;
-    }
 }
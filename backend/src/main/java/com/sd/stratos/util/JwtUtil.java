@@ -8,11 +8,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
 import java.util.Map;
 
 @Component
 public class JwtUtil {
+    // Scope of the tokens accepted as the access_token parameter of GET /api/events, and nowhere else
+    public static final String EVENT_STREAM_SCOPE = "events";
 
     @Value("${jwt.secret}")
     private String secretKey;
@@ -23,16 +26,32 @@ public class JwtUtil {
     }
 
     public String generateToken(User user, int durationInMinutes) {
+        return buildToken(user, Map.of(
+                "userId", user.getId(),
+                "role", user.getRole()
+        ), Duration.ofMinutes(durationInMinutes));
+    }
+
+    /**
+     * Short-lived token for clients that cannot set the Authorization header, such as the browser's EventSource.
+     * It is only accepted for the request its scope names.
+     */
+    public String generateScopedToken(User user, String scope, Duration duration) {
+        return buildToken(user, Map.of(
+                "userId", user.getId(),
+                "role", user.getRole(),
+                "scope", scope
+        ), duration);
+    }
+
+    private String buildToken(User user, Map<String, ?> claims, Duration duration) {
         return Jwts
                 .builder()
                 .subject(user.getUsername())
                 .issuer("Stratos")
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .claims(Map.of(
-                        "userId", user.getId(),
-                        "role", user.getRole()
-                ))
-                .expiration(new Date(System.currentTimeMillis() + 1000L * 60 * durationInMinutes))
+                .claims(claims)
+                .expiration(new Date(System.currentTimeMillis() + duration.toMillis()))
                 .signWith(getSignInKey(), Jwts.SIG.HS256)
                 .compact();
     }
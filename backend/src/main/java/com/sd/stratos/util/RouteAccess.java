@@ -0,0 +1,17 @@
+package com.sd.stratos.util;
+
+public enum RouteAccess {
+    PUBLIC,
+    AUTHENTICATED,
+    ADMIN,
+    ENGINEER,
+    // the token subject must equal the {variable} captured from the path
+    OWNER;
+
+    public boolean allowsRole(String role) {
+        return switch (this) {
+            case ADMIN, ENGINEER -> name().equalsIgnoreCase(role);
+            default -> true;
+        };
+    }
+}
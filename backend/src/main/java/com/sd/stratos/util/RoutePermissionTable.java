@@ -0,0 +1,151 @@
+package com.sd.stratos.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Route permissions compiled into a trie of path segments, one trie per HTTP method plus one for rules that
+ * apply to every method. Patterns are made of literal segments, a single-segment variable such as
+ * {@code {username}}, and a trailing {@code **} that matches the rest of the path (including nothing).
+ * Literal segments win over variables, and an exact match wins over the deepest {@code **} on the way.
+ * Rules declared for a method take precedence over method-agnostic rules.
+ * <p>
+ * Requests must be resolved by their lookup path rather than the raw request URI: Spring MVC ignores
+ * {@code ;} path parameters and matches decoded segments, so {@code /api/users;x} and {@code /api/%75sers} reach
+ * the same controller as {@code /api/users} and have to resolve to the same rule.
+ */
+public class RoutePermissionTable {
+
+    public record Match(RouteAccess access, String variable) {
+    }
+
+    private static final String ANY_METHOD = "*";
+
+    private final Map<String, Node> roots;
+    private final RouteAccess defaultAccess;
+
+    private RoutePermissionTable(Map<String, Node> roots, RouteAccess defaultAccess) {
+        this.roots = roots;
+        this.defaultAccess = defaultAccess;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The path Spring MVC matches handlers against: decoded, without {@code ;} parameters and without the
+     * context path.
+     */
+    public static String lookupPath(HttpServletRequest request) {
+        return UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+    }
+
+    public Match resolve(HttpServletRequest request) {
+        return resolve(request.getMethod(), lookupPath(request));
+    }
+
+    public Match resolve(String method, String path) {
+        Node methodRoot = method == null ? null : roots.get(method.toUpperCase());
+        if (methodRoot != null) {
+            Match match = resolve(methodRoot, path);
+            if (match != null) {
+                return match;
+            }
+        }
+        Node anyRoot = roots.get(ANY_METHOD);
+        Match match = anyRoot == null ? null : resolve(anyRoot, path);
+        return match != null ? match : new Match(defaultAccess, null);
+    }
+
+    private static Match resolve(Node root, String path) {
+        Node node = root;
+        RouteAccess restAccess = node.restAccess;
+        String variable = null;
+
+        int length = path.length();
+        int start = 0;
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                Node next = node.children.get(path.substring(start, end));
+                if (next == null && node.variableChild != null) {
+                    next = node.variableChild;
+                    variable = path.substring(start, end);
+                }
+                if (next == null) {
+                    return restAccess == null ? null : new Match(restAccess, variable);
+                }
+                node = next;
+                if (node.restAccess != null) {
+                    restAccess = node.restAccess;
+                }
+            }
+            start = end + 1;
+        }
+
+        if (node.access != null) {
+            return new Match(node.access, variable);
+        }
+        return restAccess == null ? null : new Match(restAccess, variable);
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Node variableChild;
+        private RouteAccess access;
+        private RouteAccess restAccess;
+    }
+
+    public static class Builder {
+        private final Map<String, Node> roots = new HashMap<>();
+        private RouteAccess defaultAccess = RouteAccess.AUTHENTICATED;
+
+        public Builder route(String pattern, RouteAccess access) {
+            return route(ANY_METHOD, pattern, access);
+        }
+
+        public Builder route(String method, String pattern, RouteAccess access) {
+            Node node = roots.computeIfAbsent(method.toUpperCase(), key -> new Node());
+            String[] segments = pattern.split("/");
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segment.equals("**")) {
+                    if (i != segments.length - 1) {
+                        throw new IllegalArgumentException("'**' must be the last segment of " + pattern);
+                    }
+                    node.restAccess = access;
+                    return this;
+                }
+                if (segment.startsWith("{") && segment.endsWith("}")) {
+                    if (node.variableChild == null) {
+                        node.variableChild = new Node();
+                    }
+                    node = node.variableChild;
+                } else {
+                    node = node.children.computeIfAbsent(segment, key -> new Node());
+                }
+            }
+            node.access = access;
+            return this;
+        }
+
+        public Builder defaultAccess(RouteAccess access) {
+            this.defaultAccess = access;
+            return this;
+        }
+
+        public RoutePermissionTable build() {
+            return new RoutePermissionTable(Map.copyOf(roots), defaultAccess);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.sd.stratos.util;
+
+import org.hibernate.exception.spi.TemplatedViolatedConstraintNameExtractor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+public final class ScheduleConstraints {
+    public static final String FLIGHT_AIRCRAFT_PERIOD = "ex_flight_aircraft_period";
+    public static final String MAINTENANCE_AIRCRAFT_PERIOD = "ex_maintenance_aircraft_period";
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private ScheduleConstraints() {
+    }
+
+    // Hibernate's PostgreSQL dialect does not extract names of exclusion constraints, so the driver message is read directly
+    public static boolean isViolated(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return constraintName.equals(TemplatedViolatedConstraintNameExtractor.extractUsingTemplate(
+                        "violates exclusion constraint \"", "\"", sqlException.getMessage()));
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,89 @@
+package com.sd.stratos.util;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final String STARTED = "stratos.started";
+
+    private final ThreadLocal<Stats> current = new ThreadLocal<>();
+    private final DefaultQueryLogEntryCreator logEntryCreator = new DefaultQueryLogEntryCreator();
+    private final long slowQueryThresholdNanos;
+
+    public SqlStatementListener(@Value("${stratos.sql.slow-query-threshold:200ms}") Duration slowQueryThreshold) {
+        this.slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+    }
+
+    public Stats begin() {
+        Stats stats = new Stats();
+        current.set(stats);
+        return stats;
+    }
+
+    public void end() {
+        current.remove();
+    }
+
+    public Stats current() {
+        return current.get();
+    }
+
+    // Counts statements of work handed to another thread against the request that started it
+    public void attach(Stats stats) {
+        current.set(stats);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long started = execInfo.getCustomValue(STARTED, Long.class);
+        long elapsed = started == null ? 0 : System.nanoTime() - started;
+        Stats stats = current.get();
+        if (stats != null) {
+            stats.add(elapsed);
+        }
+        if (elapsed >= slowQueryThresholdNanos) {
+            // Bind parameters can hold password hashes and OTP secrets, so they are only logged at debug level
+            log.warn("Slow query ({} ms): {}", elapsed / 1_000_000,
+                    queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+            if (log.isDebugEnabled()) {
+                log.debug("Slow query parameters: {}", logEntryCreator.getLogEntry(execInfo, queryInfoList, false, false, false));
+            }
+        }
+    }
+
+    // Statements run by the request thread and by lookups it attached to other threads
+    public static class Stats {
+        private int statements;
+        private long nanos;
+
+        synchronized void add(long elapsedNanos) {
+            statements++;
+            nanos += elapsedNanos;
+        }
+
+        public synchronized int getStatements() {
+            return statements;
+        }
+
+        public synchronized long getNanos() {
+            return nanos;
+        }
+    }
+}
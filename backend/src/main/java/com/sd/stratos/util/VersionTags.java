@@ -0,0 +1,43 @@
+package com.sd.stratos.util;
+
+import com.sd.stratos.exception.StaleVersionException;
+import org.springframework.http.ETag;
+
+import java.util.List;
+
+/**
+ * Entity tags of versioned entities are their {@code @Version} value, so an {@code If-Match} header maps
+ * straight onto the version an update expects to replace.
+ */
+public final class VersionTags {
+
+    private VersionTags() {
+    }
+
+    public static String of(Long version) {
+        return ETag.quoteETagIfNecessary(String.valueOf(version));
+    }
+
+    // null when the request does not ask for a particular version
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.size() != 1) {
+            throw new IllegalArgumentException("If-Match must name a single version");
+        }
+        ETag tag = tags.getFirst();
+        if (tag.isWildcard()) {
+            return null;
+        }
+        if (tag.weak()) {
+            throw new StaleVersionException("If-Match needs a strong entity tag");
+        }
+        try {
+            return Long.valueOf(tag.tag());
+        } catch (NumberFormatException e) {
+            throw new StaleVersionException("Entity tag does not match any version");
+        }
+    }
+}
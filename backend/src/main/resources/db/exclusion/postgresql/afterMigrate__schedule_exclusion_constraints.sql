@@ -0,0 +1,23 @@
+-- Runs after every migration when stratos.schedule.exclusion-constraints=true, so every statement is idempotent.
+-- Bounds are closed to match the service overlap checks: windows that touch count as a conflict.
+
+create extension if not exists btree_gist;
+
+alter table flight add column if not exists period tstzrange
+    generated always as (tstzrange(departure_time, arrival_time, '[]')) stored;
+
+alter table maintenance_record add column if not exists period tstzrange
+    generated always as (tstzrange(start_date, end_date, '[]')) stored;
+
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conname = 'ex_flight_aircraft_period') then
+        alter table flight add constraint ex_flight_aircraft_period
+            exclude using gist (aircraft_id with =, period with &&);
+    end if;
+    if not exists (select 1 from pg_constraint where conname = 'ex_maintenance_aircraft_period') then
+        alter table maintenance_record add constraint ex_maintenance_aircraft_period
+            exclude using gist (aircraft_id with =, period with &&);
+    end if;
+end
+$$;
@@ -0,0 +1,96 @@
+-- Schema as generated by Hibernate (ddl-auto=update) before migrations were introduced. Every statement is
+-- conditional, so databases that ddl-auto already created only get whatever objects they are missing.
+
+create table if not exists aircraft (
+    id uuid not null,
+    registration_number varchar(255) not null unique,
+    type varchar(255) not null check (type in ('A320','A330','A340','A350','A380','B737','B747','B757','B767','B777','B787')),
+    status varchar(255) not null check (status in ('OPERATIONAL','IN_MAINTENANCE','RETIRED')),
+    primary key (id)
+);
+
+create table if not exists aircraft_type_info (
+    aircraft_type varchar(255) not null check (aircraft_type in ('A320','A330','A340','A350','A380','B737','B747','B757','B767','B777','B787')),
+    cruising_speed_knots integer not null,
+    cruising_distance_miles integer not null,
+    primary key (aircraft_type)
+);
+
+create table if not exists airport (
+    id uuid not null,
+    type varchar(255),
+    name varchar(255),
+    latitude_deg float4,
+    longitude_deg float4,
+    elevation_ft integer,
+    continent varchar(255),
+    iso_country varchar(255),
+    iso_region varchar(255),
+    municipality varchar(255),
+    scheduled_service boolean,
+    icao_code varchar(255),
+    iata_code varchar(255) not null unique,
+    primary key (id)
+);
+
+create table if not exists app_user (
+    id uuid not null,
+    username varchar(255) not null unique,
+    password varchar(255) not null,
+    role varchar(255) not null check (role in ('ADMIN','ENGINEER','PILOT')),
+    otp_secret varchar(255),
+    otp_enabled boolean default false not null,
+    primary key (id)
+);
+
+create table if not exists flight (
+    id uuid not null,
+    flight_number varchar(255) not null unique,
+    departure_airport varchar(255) not null,
+    arrival_airport varchar(255) not null,
+    departure_time timestamp(6) with time zone not null,
+    arrival_time timestamp(6) with time zone not null,
+    aircraft_id uuid not null,
+    primary key (id),
+    constraint fk_flight_aircraft foreign key (aircraft_id) references aircraft (id)
+);
+
+create table if not exists maintenance_record (
+    id uuid not null,
+    aircraft_id uuid not null,
+    engineer_id uuid not null,
+    type varchar(255) not null check (type in ('ROUTINE','REPAIR','OVERHAUL','INCIDENT')),
+    start_date timestamp(6) with time zone not null,
+    end_date timestamp(6) with time zone not null,
+    status varchar(255) not null check (status in ('PENDING','SCHEDULED','IN_PROGRESS','COMPLETED')),
+    primary key (id),
+    constraint fk_maintenance_aircraft foreign key (aircraft_id) references aircraft (id) on delete cascade,
+    constraint fk_maintenance_engineer foreign key (engineer_id) references app_user (id) on delete cascade
+);
+
+create table if not exists maintenance_record_log_entry (
+    log_entry_id uuid not null,
+    action_type varchar(255) not null check (action_type in ('CREATED','UPDATED','DELETED')),
+    maintenance_record_id uuid not null,
+    aircraft_registration_number varchar(255) not null,
+    performed_by varchar(255) not null,
+    timestamp timestamp(6) not null,
+    changes varchar(255),
+    primary key (log_entry_id)
+);
+
+create table if not exists maintenance_audit_outbox_entry (
+    id uuid not null,
+    action_type varchar(255) not null check (action_type in ('CREATED','UPDATED','DELETED')),
+    maintenance_record_id uuid not null,
+    aircraft_registration_number varchar(255) not null,
+    performed_by varchar(255) not null,
+    timestamp timestamp(6) not null,
+    changes varchar(255),
+    primary key (id)
+);
+
+create index if not exists idx_audit_timestamp on maintenance_record_log_entry (timestamp, log_entry_id);
+create index if not exists idx_audit_record_timestamp on maintenance_record_log_entry (maintenance_record_id, timestamp);
+create index if not exists idx_audit_aircraft_timestamp on maintenance_record_log_entry (aircraft_registration_number, timestamp);
+create index if not exists idx_audit_engineer_timestamp on maintenance_record_log_entry (performed_by, timestamp);
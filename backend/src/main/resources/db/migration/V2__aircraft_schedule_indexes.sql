@@ -0,0 +1,8 @@
+-- Per-aircraft schedule lookups: overlap checks range-scan (aircraft_id, start) and filter on the end column
+-- from the same index entry; the predecessor lookup walks (aircraft_id, arrival) backwards and stops at the first row.
+
+create index idx_flight_aircraft_departure_arrival on flight (aircraft_id, departure_time, arrival_time);
+create index idx_flight_aircraft_arrival on flight (aircraft_id, arrival_time);
+
+create index idx_maintenance_aircraft_start_end on maintenance_record (aircraft_id, start_date, end_date);
+create index idx_maintenance_aircraft_end on maintenance_record (aircraft_id, end_date);
@@ -0,0 +1,4 @@
+-- Optimistic locking for flight and maintenance edits; existing rows start at version 0.
+
+alter table flight add column version bigint default 0 not null;
+alter table maintenance_record add column version bigint default 0 not null;
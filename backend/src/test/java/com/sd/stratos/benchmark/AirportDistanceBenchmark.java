@@ -0,0 +1,84 @@
+package com.sd.stratos.benchmark;
+
+import com.sd.stratos.cache.AirportDistanceTable;
+import com.sd.stratos.entity.Airport;
+import com.sd.stratos.repository.AirportRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Great-circle distance on its own, a repeated lookup served from the pair cache, and lookups cycling through
+ * more airport pairs than the pair cache holds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AirportDistanceBenchmark {
+
+    private static final int AIRPORTS = 500;
+    private static final int PAIRS = 1 << 16;
+
+    // Non-final state, so the JIT cannot fold the haversine inputs into constants
+    private double latRad1 = 0.7765;
+    private double lonRad1 = 0.4558;
+    private double cosLat1;
+    private double latRad2 = 0.8526;
+    private double lonRad2 = 0.0401;
+    private double cosLat2;
+
+    private AirportDistanceTable table;
+    private String[] origins;
+    private String[] destinations;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cosLat1 = Math.cos(latRad1);
+        cosLat2 = Math.cos(latRad2);
+
+        Random random = new Random(42);
+        List<Airport> airports = new ArrayList<>();
+        for (int i = 0; i < AIRPORTS; i++) {
+            Airport airport = new Airport();
+            airport.setIataCode("" + (char) ('A' + i / 676 % 26) + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26));
+            airport.setLatitudeDeg(random.nextFloat() * 140 - 70);
+            airport.setLongitudeDeg(random.nextFloat() * 360 - 180);
+            airports.add(airport);
+        }
+        AirportRepository airportRepository = Mockito.mock(AirportRepository.class);
+        Mockito.when(airportRepository.findAll()).thenReturn(airports);
+        table = new AirportDistanceTable(airportRepository);
+        table.load();
+
+        origins = new String[PAIRS];
+        destinations = new String[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            origins[i] = airports.get(random.nextInt(AIRPORTS)).getIataCode();
+            destinations[i] = airports.get(random.nextInt(AIRPORTS)).getIataCode();
+        }
+    }
+
+    @Benchmark
+    public int haversine() {
+        return AirportDistanceTable.haversine(latRad1, lonRad1, cosLat1, latRad2, lonRad2, cosLat2);
+    }
+
+    @Benchmark
+    public int repeatedPair() {
+        return table.distanceBetween("AAA", "ABC");
+    }
+
+    @Benchmark
+    public int manyPairs() {
+        int i = next++ & (PAIRS - 1);
+        return table.distanceBetween(origins[i], destinations[i]);
+    }
+}
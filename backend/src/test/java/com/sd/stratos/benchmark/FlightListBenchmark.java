@@ -0,0 +1,66 @@
+package com.sd.stratos.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sd.stratos.dto.FlightDisplayDTO;
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.entity.AircraftStatus;
+import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.entity.Flight;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two halves of a flight list response: mapping entities to {@link FlightDisplayDTO} and serializing the
+ * list with an ObjectMapper configured the way Spring Boot configures the one used by the controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightListBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Flight> flights;
+    private List<FlightDisplayDTO> dtos;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Aircraft> fleet = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            fleet.add(new Aircraft(UUID.randomUUID(), "YR-%03d".formatted(i), AircraftType.A320, AircraftStatus.OPERATIONAL));
+        }
+        ZonedDateTime base = ZonedDateTime.parse("2030-01-01T00:00:00Z");
+        flights = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ZonedDateTime departure = base.plusMinutes(i * 7L);
+            flights.add(new Flight(UUID.randomUUID(), "RO" + (i % 9999 + 1), "OTP", "CLJ", departure, departure.plusMinutes(50), fleet.get(i % fleet.size())));
+        }
+        dtos = mapFlights();
+    }
+
+    @Benchmark
+    public List<FlightDisplayDTO> mapFlights() {
+        List<FlightDisplayDTO> mapped = new ArrayList<>(flights.size());
+        for (Flight flight : flights) {
+            mapped.add(FlightDisplayDTO.fromFlight(flight));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public byte[] serializeFlights() throws Exception {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+}
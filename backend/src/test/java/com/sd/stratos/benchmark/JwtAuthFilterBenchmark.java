@@ -0,0 +1,89 @@
+package com.sd.stratos.benchmark;
+
+import com.sd.stratos.cache.VerifiedTokenCache;
+import com.sd.stratos.config.RoutePermissionConfig;
+import com.sd.stratos.entity.User;
+import com.sd.stratos.entity.UserRole;
+import com.sd.stratos.util.JwtAuthFilter;
+import com.sd.stratos.util.JwtUtil;
+import com.sd.stratos.util.RoutePermissionTable;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of token verification: the previous filter (key decoded, parser built and the token
+ * verified twice per request), the current filter with the verified-token cache disabled, and the current
+ * filter serving a repeat token from the cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private String secret;
+    private String token;
+    private JwtAuthFilter uncachedFilter;
+    private JwtAuthFilter cachedFilter;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        secret = Encoders.BASE64.encode(Jwts.SIG.HS256.key().build().getEncoded());
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", secret);
+        token = jwtUtil.generateToken(new User(UUID.randomUUID(), "benchmark", "secret", UserRole.ADMIN, null, false), 60);
+
+        RoutePermissionTable routes = new RoutePermissionConfig().routePermissionTable();
+        uncachedFilter = new JwtAuthFilter(secret, new VerifiedTokenCache(0), routes, new SimpleMeterRegistry());
+        cachedFilter = new JwtAuthFilter(secret, new VerifiedTokenCache(), routes, new SimpleMeterRegistry());
+
+        request = new MockHttpServletRequest("GET", "/api/aircraft");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public void previousFilter(Blackhole blackhole) {
+        for (int i = 0; i < 2; i++) {
+            Claims claims = Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            blackhole.consume(claims.get("role"));
+        }
+    }
+
+    @Benchmark
+    public int verifiedParse() throws Exception {
+        return filter(uncachedFilter);
+    }
+
+    @Benchmark
+    public int cachedToken() throws Exception {
+        return filter(cachedFilter);
+    }
+
+    private int filter(JwtAuthFilter filter) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response.getStatus();
+    }
+}
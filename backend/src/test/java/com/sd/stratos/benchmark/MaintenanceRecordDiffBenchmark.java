@@ -0,0 +1,48 @@
+package com.sd.stratos.benchmark;
+
+import com.sd.stratos.entity.*;
+import com.sd.stratos.util.MaintenanceRecordDiffUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit diff written on every maintenance record update, for an update that changes nothing and for one that
+ * changes every tracked field.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MaintenanceRecordDiffBenchmark {
+
+    private MaintenanceRecord original;
+    private MaintenanceRecord unchanged;
+    private MaintenanceRecord changed;
+
+    @Setup
+    public void setUp() {
+        ZonedDateTime start = ZonedDateTime.parse("2030-01-01T08:00:00Z");
+        User engineer = new User(UUID.randomUUID(), "engineer", "secret", UserRole.ENGINEER, null, false);
+        Aircraft aircraft = new Aircraft(UUID.randomUUID(), "YR-ABC", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        Aircraft other = new Aircraft(UUID.randomUUID(), "YR-DEF", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        UUID id = UUID.randomUUID();
+        original = new MaintenanceRecord(id, aircraft, engineer, MaintenanceType.ROUTINE, start, start.plusHours(4), MaintenanceStatus.SCHEDULED);
+        unchanged = new MaintenanceRecord(id, aircraft, engineer, MaintenanceType.ROUTINE, start, start.plusHours(4), MaintenanceStatus.SCHEDULED);
+        changed = new MaintenanceRecord(id, other, engineer, MaintenanceType.REPAIR, start.plusDays(1), start.plusDays(1).plusHours(6), MaintenanceStatus.IN_PROGRESS);
+    }
+
+    @Benchmark
+    public String noChanges() {
+        return MaintenanceRecordDiffUtil.diffRecords(original, unchanged);
+    }
+
+    @Benchmark
+    public String allFieldsChanged() {
+        return MaintenanceRecordDiffUtil.diffRecords(original, changed);
+    }
+}
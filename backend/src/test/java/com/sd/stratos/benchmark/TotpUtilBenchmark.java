@@ -0,0 +1,33 @@
+package com.sd.stratos.benchmark;
+
+import com.sd.stratos.util.TotpUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OTP check on login. A wrong code is the worst case: every window in the drift allowance is computed
+ * before the code is rejected.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TotpUtilBenchmark {
+
+    private TotpUtil totpUtil;
+    private String secret;
+
+    @Setup
+    public void setUp() {
+        totpUtil = new TotpUtil();
+        secret = totpUtil.generateSecret();
+    }
+
+    @Benchmark
+    public boolean rejectedCode() {
+        return totpUtil.verifyCode("benchmark", "not-a-code", secret);
+    }
+}
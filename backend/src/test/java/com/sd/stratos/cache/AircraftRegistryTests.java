@@ -0,0 +1,140 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.entity.AircraftStatus;
+import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.repository.AircraftRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AircraftRegistryTests {
+
+    @Mock
+    private AircraftRepository aircraftRepository;
+
+    private AircraftRegistry registry;
+
+    private final Aircraft aircraft = new Aircraft(UUID.randomUUID(), "YR-ABC", AircraftType.A320, AircraftStatus.OPERATIONAL);
+
+    @BeforeEach
+    void setUp() {
+        registry = new AircraftRegistry(aircraftRepository, 2);
+    }
+
+    @Test
+    void testLookupsByIdAndRegistrationShareEntries() {
+        /// Given:
+        when(aircraftRepository.findAircraftByRegistrationNumber("YR-ABC")).thenReturn(Optional.of(aircraft));
+
+        /// When:
+        registry.findByRegistrationNumber("YR-ABC");
+        Optional<Aircraft> byId = registry.findById(aircraft.getId());
+        Optional<Aircraft> byRegistration = registry.findByRegistrationNumber("YR-ABC");
+
+        /// Then:
+        assertEquals(aircraft, byId.orElseThrow());
+        assertEquals(aircraft, byRegistration.orElseThrow());
+        assertEquals(new AircraftRegistry.Stats(2, 1, 1), registry.stats());
+        verify(aircraftRepository, never()).findById(any());
+    }
+
+    @Test
+    void testReturnedAircraftAreCopies() {
+        /// Given:
+        registry.put(aircraft);
+
+        /// When:
+        registry.findById(aircraft.getId()).orElseThrow().setStatus(AircraftStatus.RETIRED);
+
+        /// Then:
+        assertEquals(AircraftStatus.OPERATIONAL, registry.findById(aircraft.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testPutAndEvictWriteThrough() {
+        /// Given:
+        registry.put(aircraft);
+        Aircraft renamed = new Aircraft(aircraft.getId(), "YR-XYZ", AircraftType.A320, AircraftStatus.IN_MAINTENANCE);
+
+        /// When:
+        registry.put(renamed);
+
+        /// Then:
+        assertEquals(AircraftStatus.IN_MAINTENANCE, registry.findByRegistrationNumber("YR-XYZ").orElseThrow().getStatus());
+        assertTrue(registry.findByRegistrationNumber("YR-ABC").isEmpty());
+
+        /// When:
+        registry.evict(aircraft.getId());
+
+        /// Then:
+        assertTrue(registry.findById(aircraft.getId()).isEmpty());
+        verify(aircraftRepository).findById(aircraft.getId());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        /// Given:
+        Aircraft second = new Aircraft(UUID.randomUUID(), "YR-DEF", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        Aircraft third = new Aircraft(UUID.randomUUID(), "YR-GHI", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        registry.put(aircraft);
+        registry.put(second);
+        registry.findById(aircraft.getId());
+
+        /// When:
+        registry.put(third);
+
+        /// Then:
+        assertEquals(2, registry.stats().size());
+        assertTrue(registry.findByRegistrationNumber("YR-DEF").isEmpty());
+        assertTrue(registry.findByRegistrationNumber("YR-ABC").isPresent());
+    }
+
+    @Test
+    void testBulkLookupLoadsMissesWithOneQuery() {
+        /// Given:
+        Aircraft second = new Aircraft(UUID.randomUUID(), "YR-DEF", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        registry.put(aircraft);
+        when(aircraftRepository.findAllByRegistrationNumberIn(Set.of("YR-DEF", "YR-NON"))).thenReturn(List.of(second));
+
+        /// When:
+        List<Aircraft> found = registry.findAllByRegistrationNumberIn(List.of("YR-ABC", "YR-DEF", "YR-NON"));
+
+        /// Then:
+        assertEquals(2, found.size());
+        assertTrue(registry.findByRegistrationNumber("YR-DEF").isPresent());
+        verify(aircraftRepository, times(1)).findAllByRegistrationNumberIn(any());
+    }
+
+    @Test
+    void testOperationalFleetIsCachedUntilNextWrite() {
+        /// Given:
+        when(aircraftRepository.findAllOperational(null)).thenReturn(List.of(aircraft));
+
+        /// When:
+        registry.findAllOperational();
+        registry.findAllOperational().getFirst().setStatus(AircraftStatus.RETIRED);
+
+        /// Then:
+        assertEquals(AircraftStatus.OPERATIONAL, registry.findAllOperational().getFirst().getStatus());
+        verify(aircraftRepository, times(1)).findAllOperational(null);
+
+        /// When:
+        registry.put(new Aircraft(aircraft.getId(), "YR-ABC", AircraftType.A320, AircraftStatus.RETIRED));
+        registry.findAllOperational();
+
+        /// Then:
+        verify(aircraftRepository, times(2)).findAllOperational(null);
+    }
+}
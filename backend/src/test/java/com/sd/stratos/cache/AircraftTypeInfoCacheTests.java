@@ -0,0 +1,80 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.entity.AircraftTypeInfo;
+import com.sd.stratos.repository.AircraftTypeInfoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AircraftTypeInfoCacheTests {
+
+    @Mock
+    private AircraftTypeInfoRepository aircraftTypeInfoRepository;
+
+    private AircraftTypeInfoCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AircraftTypeInfoCache(aircraftTypeInfoRepository);
+        when(aircraftTypeInfoRepository.findAll()).thenReturn(List.of(new AircraftTypeInfo(AircraftType.A320, 450, 3300)));
+    }
+
+    @Test
+    void testLookupsAreServedFromMemory() {
+        /// When:
+        cache.load();
+        for (int i = 0; i < 100; i++) {
+            cache.get(AircraftType.A320);
+        }
+
+        /// Then:
+        assertEquals(3300, cache.get(AircraftType.A320).orElseThrow().getCruisingDistanceMiles());
+        assertTrue(cache.get(AircraftType.B787).isEmpty());
+        assertTrue(cache.get(null).isEmpty());
+        verify(aircraftTypeInfoRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testInvalidateReloadsOnNextRead() {
+        /// Given:
+        cache.load();
+        when(aircraftTypeInfoRepository.findAll()).thenReturn(List.of(
+                new AircraftTypeInfo(AircraftType.A320, 450, 3500),
+                new AircraftTypeInfo(AircraftType.B787, 490, 7300)));
+
+        /// When:
+        cache.invalidate();
+
+        /// Then:
+        assertEquals(3500, cache.get(AircraftType.A320).orElseThrow().getCruisingDistanceMiles());
+        assertEquals(2, cache.getAll().size());
+        verify(aircraftTypeInfoRepository, times(2)).findAll();
+    }
+
+    @Test
+    void testInvalidationDuringReloadIsNotLost() {
+        /// Given:
+        when(aircraftTypeInfoRepository.findAll()).thenAnswer(invocation -> {
+            // A write commits while the table is being read
+            cache.invalidate();
+            return List.of(new AircraftTypeInfo(AircraftType.A320, 450, 3300));
+        }).thenReturn(List.of(new AircraftTypeInfo(AircraftType.A320, 450, 3500)));
+
+        /// When:
+        cache.load();
+
+        /// Then:
+        assertEquals(3500, cache.get(AircraftType.A320).orElseThrow().getCruisingDistanceMiles());
+        assertEquals(3500, cache.get(AircraftType.A320).orElseThrow().getCruisingDistanceMiles());
+        verify(aircraftTypeInfoRepository, times(2)).findAll();
+    }
+}
@@ -0,0 +1,84 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.Airport;
+import com.sd.stratos.repository.AirportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AirportDistanceTableTests {
+
+    @Mock
+    private AirportRepository airportRepository;
+
+    private AirportDistanceTable airportDistanceTable;
+
+    @BeforeEach
+    void setUp() {
+        airportDistanceTable = new AirportDistanceTable(airportRepository);
+    }
+
+    @Test
+    void testDistanceBetween() {
+        /// When:
+        when(airportRepository.findAll()).thenReturn(List.of(airport("OTP", 44.5711f, 26.085f), airport("CLJ", 46.7852f, 23.6862f)));
+        airportDistanceTable.load();
+
+        /// Then:
+        assertEquals(172, airportDistanceTable.distanceBetween("OTP", "CLJ"));
+        assertEquals(172, airportDistanceTable.distanceBetween("CLJ", "OTP"));
+        assertEquals(172, airportDistanceTable.distanceBetween("OTP", "CLJ"));
+        assertEquals(-1, airportDistanceTable.distanceBetween("OTP", "JFK"));
+        assertEquals(-1, airportDistanceTable.distanceBetween("otp", "CLJ"));
+        verify(airportRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testPutRefreshesTable() {
+        /// When:
+        when(airportRepository.findAll()).thenReturn(List.of(airport("CDG", 49.0097f, 2.5479f)));
+        airportDistanceTable.put(airport("LHR", 51.47f, -0.4543f));
+
+        /// Then:
+        assertEquals(193, airportDistanceTable.distanceBetween("CDG", "LHR"));
+    }
+
+    @Test
+    void testMovedAirportIsNotServedFromCache() {
+        /// Given:
+        when(airportRepository.findAll()).thenReturn(List.of(airport("OTP", 44.5711f, 26.085f), airport("CLJ", 46.7852f, 23.6862f)));
+        assertEquals(172, airportDistanceTable.distanceBetween("OTP", "CLJ"));
+
+        /// When:
+        airportDistanceTable.put(airport("CLJ", 49.0097f, 2.5479f));
+
+        /// Then:
+        assertNotEquals(172, airportDistanceTable.distanceBetween("OTP", "CLJ"));
+        assertEquals(airportDistanceTable.distanceBetween("CLJ", "OTP"), airportDistanceTable.distanceBetween("OTP", "CLJ"));
+    }
+
+    @Test
+    void testEncodeIata() {
+        /// Then:
+        assertEquals(0, AirportDistanceTable.encodeIata("AAA"));
+        assertEquals(26 * 26 * 26 - 1, AirportDistanceTable.encodeIata("ZZZ"));
+        assertEquals(-1, AirportDistanceTable.encodeIata("AB"));
+        assertEquals(-1, AirportDistanceTable.encodeIata(null));
+    }
+
+    private static Airport airport(String iataCode, float latitude, float longitude) {
+        Airport airport = new Airport();
+        airport.setIataCode(iataCode);
+        airport.setLatitudeDeg(latitude);
+        airport.setLongitudeDeg(longitude);
+        return airport;
+    }
+}
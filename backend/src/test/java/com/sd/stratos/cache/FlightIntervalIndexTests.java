@@ -0,0 +1,88 @@
+package com.sd.stratos.cache;
+
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.entity.AircraftStatus;
+import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.entity.Flight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightIntervalIndexTests {
+
+    private static final ZonedDateTime BASE = ZonedDateTime.parse("2030-01-01T00:00:00Z");
+
+    private FlightIntervalIndex index;
+    private Aircraft aircraft;
+    private Flight morningFlight;
+    private Flight eveningFlight;
+
+    @BeforeEach
+    void setUp() {
+        index = new FlightIntervalIndex();
+        aircraft = new Aircraft(UUID.randomUUID(), "YR-ABC", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        morningFlight = new Flight(UUID.randomUUID(), "RO100", "OTP", "CLJ", BASE.plusHours(8), BASE.plusHours(9), aircraft);
+        eveningFlight = new Flight(UUID.randomUUID(), "RO101", "CLJ", "ORY", BASE.plusHours(18), BASE.plusHours(21), aircraft);
+        index.load(List.of(morningFlight, eveningFlight));
+    }
+
+    @Test
+    void testExistsOverlap() {
+        /// Then:
+        assertTrue(index.isWarm());
+        assertTrue(index.existsOverlap(null, aircraft.getId(), BASE.plusHours(7).toInstant(), BASE.plusHours(8).toInstant()));
+        assertTrue(index.existsOverlap(null, aircraft.getId(), BASE.plusHours(19).toInstant(), BASE.plusHours(20).toInstant()));
+        assertFalse(index.existsOverlap(null, aircraft.getId(), BASE.plusHours(10).toInstant(), BASE.plusHours(17).toInstant()));
+        assertFalse(index.existsOverlap(null, UUID.randomUUID(), BASE.plusHours(8).toInstant(), BASE.plusHours(9).toInstant()));
+    }
+
+    @Test
+    void testExistsOverlapIgnoresFlightBeingUpdated() {
+        /// Then:
+        assertFalse(index.existsOverlap(eveningFlight.getId(), aircraft.getId(), BASE.plusHours(17).toInstant(), BASE.plusHours(20).toInstant()));
+        assertTrue(index.existsOverlap(eveningFlight.getId(), aircraft.getId(), BASE.plusHours(9).toInstant(), BASE.plusHours(20).toInstant()));
+    }
+
+    @Test
+    void testFindLastBefore() {
+        /// When:
+        Optional<FlightWindow> beforeEvening = index.findLastBefore(aircraft.getId(), BASE.plusHours(18).toInstant());
+        Optional<FlightWindow> beforeMorning = index.findLastBefore(aircraft.getId(), BASE.plusHours(8).toInstant());
+
+        /// Then:
+        assertTrue(beforeEvening.isPresent());
+        assertEquals(morningFlight.getId(), beforeEvening.get().flightId());
+        assertEquals("CLJ", beforeEvening.get().arrivalAirport());
+        assertTrue(beforeMorning.isEmpty());
+    }
+
+    @Test
+    void testPutMovesFlightBetweenAircraft() {
+        /// Given:
+        Aircraft otherAircraft = new Aircraft(UUID.randomUUID(), "YR-DEF", AircraftType.A320, AircraftStatus.OPERATIONAL);
+
+        /// When:
+        eveningFlight.setAircraft(otherAircraft);
+        index.put(eveningFlight);
+
+        /// Then:
+        assertFalse(index.existsOverlap(null, aircraft.getId(), BASE.plusHours(19).toInstant(), BASE.plusHours(20).toInstant()));
+        assertTrue(index.existsOverlap(null, otherAircraft.getId(), BASE.plusHours(19).toInstant(), BASE.plusHours(20).toInstant()));
+    }
+
+    @Test
+    void testRemove() {
+        /// When:
+        index.remove(morningFlight.getId());
+
+        /// Then:
+        assertFalse(index.existsOverlap(null, aircraft.getId(), BASE.plusHours(8).toInstant(), BASE.plusHours(9).toInstant()));
+        assertTrue(index.findLastBefore(aircraft.getId(), BASE.plusHours(18).toInstant()).isEmpty());
+    }
+}
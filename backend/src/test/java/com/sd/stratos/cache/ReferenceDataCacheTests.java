@@ -0,0 +1,78 @@
+package com.sd.stratos.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReferenceDataCacheTests {
+
+    private final ReferenceDataCache referenceDataCache = new ReferenceDataCache(new ObjectMapper(), Duration.ofMinutes(5));
+
+    @Test
+    void testListIsLoadedOnceAndRevalidatedWithItsETag() {
+        /// Given:
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<List<String>> loader = () -> {
+            loads.incrementAndGet();
+            return List.of("CLJ", "OTP");
+        };
+
+        /// When:
+        ResponseEntity<byte[]> first = referenceDataCache.respond("airports", loader, null, null);
+        String eTag = first.getHeaders().getETag();
+        ResponseEntity<byte[]> revalidated = referenceDataCache.respond("airports", loader, eTag, null);
+        ResponseEntity<byte[]> otherTag = referenceDataCache.respond("airports", loader, "\"other\"", null);
+
+        /// Then:
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals("[\"CLJ\",\"OTP\"]", new String(first.getBody()));
+        assertEquals("max-age=300, must-revalidate, private", first.getHeaders().getCacheControl());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+        assertNull(revalidated.getBody());
+        assertEquals(HttpStatus.OK, otherTag.getStatusCode());
+        assertEquals(1, loads.get());
+        assertEquals(2, referenceDataCache.hits());
+    }
+
+    @Test
+    void testGzipHasItsOwnETag() throws IOException {
+        /// When:
+        ResponseEntity<byte[]> plain = referenceDataCache.respond("roles", () -> List.of("ADMIN"), null, "br;q=1.0");
+        ResponseEntity<byte[]> gzip = referenceDataCache.respond("roles", () -> List.of("ADMIN"), null, "br, gzip;q=0.8");
+        ResponseEntity<byte[]> refused = referenceDataCache.respond("roles", () -> List.of("ADMIN"), null, "gzip;q=0");
+
+        /// Then:
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNotEquals(plain.getHeaders().getETag(), gzip.getHeaders().getETag());
+        assertNull(refused.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+            assertArrayEquals(plain.getBody(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testInvalidatedListIsReloaded() {
+        /// Given:
+        String eTag = referenceDataCache.respond("airports", () -> List.of("OTP"), null, null).getHeaders().getETag();
+
+        /// When:
+        referenceDataCache.invalidate("airports");
+        ResponseEntity<byte[]> reloaded = referenceDataCache.respond("airports", () -> List.of("CLJ", "OTP"), eTag, null);
+
+        /// Then:
+        assertEquals(HttpStatus.OK, reloaded.getStatusCode());
+        assertNotEquals(eTag, reloaded.getHeaders().getETag());
+    }
+}
@@ -0,0 +1,94 @@
+package com.sd.stratos.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.sd.stratos.entity.User;
+import com.sd.stratos.entity.UserRole;
+import com.sd.stratos.repository.UserRepository;
+import com.sd.stratos.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class EventControllerIntegrationTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User engineer;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository.findByUsername("events-engineer").ifPresent(userRepository::delete);
+        engineer = userRepository.save(new User(null, "events-engineer", "secret", UserRole.ENGINEER, null, false));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.delete(engineer);
+    }
+
+    @Test
+    void testEventStreamRequiresAToken() throws Exception {
+        mockMvc.perform(get("/api/events"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/events/token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testEventStreamOpensWithScopedToken() throws Exception {
+        String response = mockMvc.perform(post("/api/events/token")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(engineer, 5)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(response, "$.token");
+
+        mockMvc.perform(get("/api/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .param("access_token", token))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void testSessionTokenIsNotAcceptedInQuery() throws Exception {
+        mockMvc.perform(get("/api/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .param("access_token", jwtUtil.generateToken(engineer, 5)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testScopedTokenOnlyOpensTheEventStream() throws Exception {
+        String scoped = jwtUtil.generateScopedToken(engineer, JwtUtil.EVENT_STREAM_SCOPE, Duration.ofMinutes(1));
+
+        mockMvc.perform(get("/api/flights/page")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + scoped))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/events/token")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + scoped))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,342 @@
+package com.sd.stratos.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.sd.stratos.entity.*;
+import com.sd.stratos.repository.AircraftRepository;
+import com.sd.stratos.repository.AircraftTypeInfoRepository;
+import com.sd.stratos.repository.FlightRepository;
+import com.sd.stratos.repository.MaintenanceRecordRepository;
+import com.sd.stratos.service.AircraftScheduleLock;
+import com.sd.stratos.service.AirportService;
+import com.sd.stratos.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Status codes and access rules of the schedule routes: bulk import, paged and streamed listing, tail
+ * assignment, fleet availability and conditional flight updates.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class FlightScheduleIntegrationTests {
+
+    private static final ZonedDateTime BASE = ZonedDateTime.parse("2031-05-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    @Autowired
+    private AircraftRepository aircraftRepository;
+
+    @Autowired
+    private AircraftTypeInfoRepository aircraftTypeInfoRepository;
+
+    @Autowired
+    private AirportService airportService;
+
+    @Autowired
+    private AircraftScheduleLock aircraftScheduleLock;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private Aircraft aircraft;
+    private Flight flight;
+    private String admin;
+    private String pilot;
+
+    @BeforeEach
+    public void setUp() {
+        clearSchedule();
+        aircraftTypeInfoRepository.save(new AircraftTypeInfo(AircraftType.A320, 450, 3300));
+        addAirport("OTP", 44.5711f, 26.0850f);
+        addAirport("CLJ", 46.7852f, 23.6862f);
+        aircraft = aircraftRepository.save(new Aircraft(null, "YR-SCH", AircraftType.A320, AircraftStatus.OPERATIONAL));
+        flight = flightRepository.save(new Flight(null, "RO900", "OTP", "CLJ", BASE.plusHours(8), BASE.plusHours(9), aircraft));
+
+        admin = bearer(UserRole.ADMIN);
+        pilot = bearer(UserRole.PILOT);
+    }
+
+    // The other controller tests delete all aircraft before seeding, which flights left behind here would block
+    @AfterEach
+    public void tearDown() {
+        clearSchedule();
+    }
+
+    @Test
+    void testScheduleRoutesRequireAToken() throws Exception {
+        mockMvc.perform(get("/api/flights/page"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/flights/stream"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/flights/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/flights/assign").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/aircraft/availability").param("from", BASE.toString()).param("to", BASE.plusDays(1).toString()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(put("/api/flights/" + flight.getId()).contentType(MediaType.APPLICATION_JSON).content(updateJson("RO901")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testAvailabilityIsAdminOnly() throws Exception {
+        mockMvc.perform(get("/api/aircraft/availability")
+                        .header(HttpHeaders.AUTHORIZATION, pilot)
+                        .param("from", BASE.toString())
+                        .param("to", BASE.plusDays(1).toString()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/aircraft;x/" + aircraft.getId() + "/availability")
+                        .header(HttpHeaders.AUTHORIZATION, pilot)
+                        .param("from", BASE.toString())
+                        .param("to", BASE.plusDays(1).toString()))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/aircraft/" + aircraft.getId() + "/availability")
+                        .header(HttpHeaders.AUTHORIZATION, admin)
+                        .param("from", BASE.toString())
+                        .param("to", BASE.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.occupied[0].kind").value("FLIGHT"));
+    }
+
+    @Test
+    void testAvailabilityRejectsInvalidRange() throws Exception {
+        mockMvc.perform(get("/api/aircraft/availability")
+                        .header(HttpHeaders.AUTHORIZATION, admin)
+                        .param("from", BASE.toString())
+                        .param("to", BASE.plusDays(32).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Time range cannot exceed 31 days"));
+    }
+
+    @Test
+    void testImportFlightsReportsEachRow() throws Exception {
+        String batch = """
+                [
+                    {"flightNumber": "RO910", "departureAirport": "CLJ", "arrivalAirport": "OTP",
+                     "departureTime": "2031-05-01T10:00:00Z", "arrivalTime": "2031-05-01T11:00:00Z", "aircraft": "YR-SCH"},
+                    {"flightNumber": "RO911", "departureAirport": "OTP", "arrivalAirport": "CLJ",
+                     "departureTime": "2031-05-01T08:30:00Z", "arrivalTime": "2031-05-01T09:30:00Z", "aircraft": "YR-SCH"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/flights/batch")
+                        .header(HttpHeaders.AUTHORIZATION, pilot)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rows[1].message").value("Flight overlaps assigned aircraft's existing flight"));
+    }
+
+    @Test
+    void testImportFlightsFromCsv() throws Exception {
+        String csv = """
+                flightNumber,departureAirport,arrivalAirport,departureTime,arrivalTime,aircraft
+                RO920,CLJ,OTP,2031-05-01T10:00:00Z,2031-05-01T11:00:00Z,YR-SCH
+                RO921,CLJ
+                """;
+
+        mockMvc.perform(post("/api/flights/batch")
+                        .header(HttpHeaders.AUTHORIZATION, pilot)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rows[1].message").value(startsWith("Malformed row: ")));
+    }
+
+    @Test
+    void testFlightPageFollowsCursor() throws Exception {
+        flightRepository.save(new Flight(null, "RO902", "CLJ", "OTP", BASE.plusHours(10), BASE.plusHours(11), aircraft));
+
+        MvcResult first = mockMvc.perform(get("/api/flights/page")
+                        .header(HttpHeaders.AUTHORIZATION, pilot)
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn();
+        String cursor = JsonPath.read(first.getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get("/api/flights/page")
+                        .header(HttpHeaders.AUTHORIZATION, pilot)
+                        .param("limit", "1")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1));
+    }
+
+    @Test
+    void testFlightPageRejectsMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/flights/page")
+                        .header(HttpHeaders.AUTHORIZATION, pilot)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFlightStreamWritesNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/flights/stream")
+                        .header(HttpHeaders.AUTHORIZATION, pilot)
+                        .param("aircraft", "YR-SCH"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"flightNumber\":\"RO900\"")));
+    }
+
+    @Test
+    void testAssignFlightsPicksAnOperationalAircraft() throws Exception {
+        String legs = """
+                [
+                    {"flightNumber": "RO930", "departureAirport": "CLJ", "arrivalAirport": "OTP",
+                     "departureTime": "2031-05-01T12:00:00Z", "arrivalTime": "2031-05-01T13:00:00Z"},
+                    {"flightNumber": "RO931", "departureAirport": "CLJ", "arrivalAirport": "CLJ",
+                     "departureTime": "2031-05-01T14:00:00Z", "arrivalTime": "2031-05-01T15:00:00Z"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/flights/assign")
+                        .header(HttpHeaders.AUTHORIZATION, pilot)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(legs))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assigned").value(1))
+                .andExpect(jsonPath("$.flights[0].aircraft").value("YR-SCH"))
+                .andExpect(jsonPath("$.flights[1].message").value("Arrival and departure airports must be different"))
+                .andExpect(jsonPath("$.saved").doesNotExist());
+    }
+
+    @Test
+    void testGetFlightReturnsVersionAsETag() throws Exception {
+        mockMvc.perform(get("/api/flights/" + flight.getId())
+                        .header(HttpHeaders.AUTHORIZATION, pilot))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+    }
+
+    @Test
+    void testUpdateWithStaleIfMatchIsRejected() throws Exception {
+        mockMvc.perform(put("/api/flights/" + flight.getId())
+                        .header(HttpHeaders.AUTHORIZATION, pilot)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateJson("RO901")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(put("/api/flights/" + flight.getId())
+                        .header(HttpHeaders.AUTHORIZATION, pilot)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateJson("RO902")))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Flight was changed by another request"));
+        mockMvc.perform(put("/api/flights/" + flight.getId())
+                        .header(HttpHeaders.AUTHORIZATION, pilot)
+                        .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateJson("RO902")))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testUpdateWhileScheduleIsLockedConflicts() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Thread holder = Thread.ofPlatform().start(() -> transactionTemplate.executeWithoutResult(status -> {
+            aircraftScheduleLock.lock(aircraft.getId());
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        locked.await();
+
+        try {
+            mockMvc.perform(put("/api/flights/" + flight.getId())
+                            .header(HttpHeaders.AUTHORIZATION, pilot)
+                            .header(HttpHeaders.IF_MATCH, "\"0\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(updateJson("RO901")))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.message").value("The aircraft schedule is being changed by another request, try again"));
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    private void clearSchedule() {
+        maintenanceRecordRepository.deleteAll();
+        maintenanceRecordRepository.flush();
+        flightRepository.deleteAll();
+        flightRepository.flush();
+        aircraftRepository.deleteAll();
+        aircraftRepository.flush();
+    }
+
+    private String updateJson(String flightNumber) {
+        return """
+                {
+                    "id": "%s",
+                    "flightNumber": "%s",
+                    "departureAirport": "OTP",
+                    "arrivalAirport": "CLJ",
+                    "departureTime": "2031-05-01T08:00:00Z",
+                    "arrivalTime": "2031-05-01T09:00:00Z",
+                    "aircraft": "YR-SCH"
+                }
+                """.formatted(flight.getId(), flightNumber);
+    }
+
+    private void addAirport(String iataCode, float latitude, float longitude) {
+        if (!airportService.getAllIataCodes().contains(iataCode)) {
+            airportService.add(new Airport(null, "large_airport", iataCode, latitude, longitude, 0, "EU", "RO", null, null, true, null, iataCode));
+        }
+    }
+
+    private String bearer(UserRole role) {
+        return "Bearer " + jwtUtil.generateToken(new User(UUID.randomUUID(), "schedule-" + role.name().toLowerCase(), "secret", role, null, false), 5);
+    }
+}
@@ -0,0 +1,140 @@
+package com.sd.stratos.controller;
+
+import com.sd.stratos.entity.User;
+import com.sd.stratos.entity.UserRole;
+import com.sd.stratos.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Conditional GET on the reference-data lists (airports and enum values) and the access rules in front of them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class ReferenceDataIntegrationTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String admin;
+    private String engineer;
+
+    @BeforeEach
+    public void setUp() {
+        admin = bearer(UserRole.ADMIN);
+        engineer = bearer(UserRole.ENGINEER);
+    }
+
+    @Test
+    void testAirportsAnswerNotModifiedForCurrentETag() throws Exception {
+        String eTag = mockMvc.perform(get("/api/airports"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("must-revalidate")))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/airports").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/api/airports").header(HttpHeaders.IF_NONE_MATCH, "W/" + eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/airports").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testAddingAnAirportChangesTheETag() throws Exception {
+        String before = mockMvc.perform(get("/api/airports"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/api/airports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"type": "small_airport", "name": "Reference Test", "latitudeDeg": 45.0, "longitudeDeg": 25.0, "iataCode": "ZZT"}
+                                """))
+                .andExpect(status().isOk());
+
+        String after = mockMvc.perform(get("/api/airports").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("ZZT")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void testGzipRepresentationHasItsOwnETag() throws Exception {
+        String plain = mockMvc.perform(get("/api/airports"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String gzip = mockMvc.perform(get("/api/airports").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, not(plain)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/airports").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, plain))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/airports").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzip))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testEnumListsKeepTheirRouteRoles() throws Exception {
+        mockMvc.perform(get("/api/aircraft/types"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/aircraft/types").header(HttpHeaders.AUTHORIZATION, engineer))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/users/roles").header(HttpHeaders.AUTHORIZATION, engineer))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/maintenance-records/types").header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testEnumListsAnswerNotModifiedForCurrentETag() throws Exception {
+        assertNotModifiedOnRevalidation("/api/aircraft/types", admin);
+        assertNotModifiedOnRevalidation("/api/aircraft/statuses", admin);
+        assertNotModifiedOnRevalidation("/api/users/roles", admin);
+        assertNotModifiedOnRevalidation("/api/maintenance-records/types", engineer);
+        assertNotModifiedOnRevalidation("/api/maintenance-records/statuses", engineer);
+    }
+
+    private void assertNotModifiedOnRevalidation(String path, String token) throws Exception {
+        String eTag = mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, token).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String bearer(UserRole role) {
+        return "Bearer " + jwtUtil.generateToken(new User(UUID.randomUUID(), "reference-" + role.name().toLowerCase(), "secret", role, null, false), 5);
+    }
+}
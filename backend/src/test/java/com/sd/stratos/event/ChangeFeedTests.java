@@ -0,0 +1,122 @@
+package com.sd.stratos.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeFeedTests {
+
+    private final ChangeFeed changeFeed = new ChangeFeed(2, Duration.ofHours(1), new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.stop();
+    }
+
+    @Test
+    void testResumingSubscriberReceivesMissedVisibleEvents() {
+        /// Given:
+        RecordingEmitter first = new RecordingEmitter();
+        changeFeed.subscribe(first, topic -> true, null);
+        String ready = first.next().id();
+        UUID flightId = UUID.randomUUID();
+
+        /// When:
+        changeFeed.publish(ChangeTopic.AIRCRAFT, ChangeType.UPDATED, UUID.randomUUID(), null);
+        changeFeed.publish(ChangeTopic.FLIGHT, ChangeType.DELETED, flightId, null);
+        RecordingEmitter resumed = new RecordingEmitter();
+        changeFeed.subscribe(resumed, topic -> topic == ChangeTopic.FLIGHT, ready);
+
+        /// Then:
+        assertEquals("flight", resumed.next().name());
+        assertEquals(List.of("aircraft", "flight"), List.of(first.next().name(), first.next().name()));
+        assertEquals(2, changeFeed.subscriberCount());
+    }
+
+    @Test
+    void testSubscriberBehindTheBufferIsReset() {
+        /// Given:
+        RecordingEmitter first = new RecordingEmitter();
+        changeFeed.subscribe(first, topic -> true, null);
+        String ready = first.next().id();
+
+        /// When:
+        for (int i = 0; i < 3; i++) {
+            changeFeed.publish(ChangeTopic.FLIGHT, ChangeType.CREATED, UUID.randomUUID(), null);
+        }
+        RecordingEmitter behind = new RecordingEmitter();
+        changeFeed.subscribe(behind, topic -> true, ready);
+        RecordingEmitter restarted = new RecordingEmitter();
+        changeFeed.subscribe(restarted, topic -> true, "earlier-run-1");
+
+        /// Then:
+        assertEquals(ChangeFeed.RESET, behind.next().name());
+        assertEquals(ChangeFeed.RESET, restarted.next().name());
+    }
+
+    @Test
+    void testStopCompletesEverySubscriber() {
+        /// Given:
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        changeFeed.subscribe(first, topic -> true, null);
+        changeFeed.subscribe(second, topic -> true, null);
+
+        /// When:
+        changeFeed.stop();
+
+        /// Then:
+        assertTrue(first.completed);
+        assertTrue(second.completed);
+        assertEquals(0, changeFeed.subscriberCount());
+    }
+
+    private record Received(String id, String name) {
+    }
+
+    // Captures what would be written to the client, one entry per event
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<Received> received = new LinkedBlockingQueue<>();
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String text = builder.build().stream()
+                    .map(part -> part.getData() instanceof String line ? line : "")
+                    .collect(Collectors.joining());
+            received.add(new Received(field(text, "id:"), field(text, "event:")));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        Received next() {
+            try {
+                Received next = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(next, "no event received");
+                return next;
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static String field(String text, String prefix) {
+            return text.lines().filter(line -> line.startsWith(prefix)).findFirst()
+                    .map(line -> line.substring(prefix.length())).orElse(null);
+        }
+    }
+}
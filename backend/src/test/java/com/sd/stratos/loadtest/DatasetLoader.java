@@ -0,0 +1,141 @@
+package com.sd.stratos.loadtest;
+
+import com.sd.stratos.entity.*;
+import com.sd.stratos.util.PasswordUtil;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Writes a {@link SyntheticDataset} into an empty Stratos schema with batched JDBC inserts; going through the
+ * REST API would validate every row and take hours at full size. Start the backend once against the database
+ * first so the Flyway migrations create the tables, then:
+ * <pre>
+ * mvn -Ploadtest test -Dloadtest.main=com.sd.stratos.loadtest.DatasetLoader \
+ *     -Dloadtest.args="--url=jdbc:postgresql://localhost:5432/stratos?reWriteBatchedInserts=true --user=postgres --password=..."
+ * </pre>
+ * {@code --scale} shrinks or grows the default 500 aircraft / 1M flights / 200k maintenance records and
+ * {@code --seed} picks another dataset; the load driver has to be given the same values.
+ * All users get the password {@value SyntheticDataset#PASSWORD}.
+ */
+public class DatasetLoader implements SyntheticDataset.Sink, AutoCloseable {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final Connection connection;
+    private final String passwordHash;
+    private final Batch typeInfo;
+    private final Batch airports;
+    private final Batch users;
+    private final Batch aircraft;
+    private final Batch flights;
+    private final Batch maintenanceRecords;
+
+    public DatasetLoader(Connection connection) throws SQLException {
+        this.connection = connection;
+        this.passwordHash = new PasswordUtil().hashPassword(SyntheticDataset.PASSWORD);
+        connection.setAutoCommit(false);
+        typeInfo = new Batch("INSERT INTO aircraft_type_info (aircraft_type, cruising_speed_knots, cruising_distance_miles) VALUES (?, ?, ?) ON CONFLICT DO NOTHING");
+        airports = new Batch("INSERT INTO airport (id, type, name, latitude_deg, longitude_deg, elevation_ft, continent, iso_country, iso_region, municipality, scheduled_service, icao_code, iata_code) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        users = new Batch("INSERT INTO app_user (id, username, password, role, otp_secret, otp_enabled) VALUES (?, ?, ?, ?, ?, ?)");
+        aircraft = new Batch("INSERT INTO aircraft (id, registration_number, type, status) VALUES (?, ?, ?, ?)");
+        flights = new Batch("INSERT INTO flight (id, flight_number, departure_airport, arrival_airport, departure_time, arrival_time, aircraft_id) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        maintenanceRecords = new Batch("INSERT INTO maintenance_record (id, aircraft_id, engineer_id, type, start_date, end_date, status) VALUES (?, ?, ?, ?, ?, ?, ?)");
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestArgs arguments = new LoadTestArgs(args);
+        SyntheticDataset.Config config = arguments.datasetConfig();
+        long started = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(arguments.require("url"), arguments.get("user", "postgres"), arguments.get("password", ""));
+             DatasetLoader loader = new DatasetLoader(connection)) {
+            new SyntheticDataset(config).generate(loader);
+            loader.flush();
+            System.out.printf("Loaded %d aircraft, %d flights and %d maintenance records in %d s%n",
+                    loader.aircraft.rows, loader.flights.rows, loader.maintenanceRecords.rows, (System.nanoTime() - started) / 1_000_000_000L);
+        }
+    }
+
+    @Override
+    public void aircraftTypeInfo(AircraftTypeInfo info) {
+        typeInfo.add(info.getAircraftType().name(), info.getCruisingSpeedKnots(), info.getCruisingDistanceMiles());
+    }
+
+    @Override
+    public void airport(Airport airport) {
+        airports.add(airport.getId(), airport.getType(), airport.getName(), airport.getLatitudeDeg(), airport.getLongitudeDeg(),
+                airport.getElevationFt(), airport.getContinent(), airport.getIsoCountry(), airport.getIsoRegion(),
+                airport.getMunicipality(), airport.isScheduledService(), airport.getIcaoCode(), airport.getIataCode());
+    }
+
+    @Override
+    public void user(User user) {
+        users.add(user.getId(), user.getUsername(), passwordHash, user.getRole().name(), null, false);
+    }
+
+    @Override
+    public void aircraft(Aircraft aircraft) {
+        this.aircraft.add(aircraft.getId(), aircraft.getRegistrationNumber(), aircraft.getType().name(), aircraft.getStatus().name());
+    }
+
+    @Override
+    public void flight(Flight flight) {
+        flights.add(flight.getId(), flight.getFlightNumber(), flight.getDepartureAirport(), flight.getArrivalAirport(),
+                flight.getDepartureTime().toOffsetDateTime(), flight.getArrivalTime().toOffsetDateTime(), flight.getAircraft().getId());
+    }
+
+    @Override
+    public void maintenanceRecord(MaintenanceRecord record) {
+        maintenanceRecords.add(record.getId(), record.getAircraft().getId(), record.getEngineer().getId(), record.getType().name(),
+                record.getStartDate().toOffsetDateTime(), record.getEndDate().toOffsetDateTime(), record.getStatus().name());
+    }
+
+    // Parents are flushed before children so foreign keys resolve
+    public void flush() throws SQLException {
+        for (Batch batch : new Batch[]{typeInfo, airports, users, aircraft, flights, maintenanceRecords}) {
+            batch.execute();
+        }
+        connection.commit();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        for (Batch batch : new Batch[]{typeInfo, airports, users, aircraft, flights, maintenanceRecords}) {
+            batch.statement.close();
+        }
+    }
+
+    private class Batch {
+        private final PreparedStatement statement;
+        private int pending;
+        private long rows;
+
+        Batch(String sql) throws SQLException {
+            statement = connection.prepareStatement(sql);
+        }
+
+        void add(Object... values) {
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    statement.setObject(i + 1, values[i]);
+                }
+                statement.addBatch();
+                rows++;
+                if (++pending == BATCH_SIZE) {
+                    flush();
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Loading the dataset failed", e);
+            }
+        }
+
+        void execute() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+    }
+}
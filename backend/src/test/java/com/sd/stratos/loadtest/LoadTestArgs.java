@@ -0,0 +1,53 @@
+package com.sd.stratos.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code --key=value} arguments of the load test entry points.
+ */
+class LoadTestArgs {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    LoadTestArgs(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+    }
+
+    String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    boolean has(String key) {
+        return values.containsKey(key);
+    }
+
+    String require(String key) {
+        String value = values.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required argument --" + key);
+        }
+        return value;
+    }
+
+    int getInt(String key, int defaultValue) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+    }
+
+    double getDouble(String key, double defaultValue) {
+        return values.containsKey(key) ? Double.parseDouble(values.get(key)) : defaultValue;
+    }
+
+    SyntheticDataset.Config datasetConfig() {
+        SyntheticDataset.Config defaults = SyntheticDataset.Config.defaults();
+        SyntheticDataset.Config seeded = new SyntheticDataset.Config(getInt("seed", (int) defaults.seed()), defaults.airports(),
+                defaults.aircraft(), defaults.flights(), defaults.maintenanceRecords(), defaults.engineers(), defaults.start(), defaults.now());
+        return seeded.scaled(getDouble("scale", 1.0));
+    }
+}
@@ -0,0 +1,235 @@
+package com.sd.stratos.loadtest;
+
+import com.sd.stratos.entity.*;
+import com.sd.stratos.util.JwtUtil;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Closed-loop HTTP load against a running backend that holds a {@link SyntheticDataset} (see {@link DatasetLoader}).
+ * Each scenario runs on its own: {@code --concurrency} virtual threads send requests back to back for
+ * {@code --warmup} and then {@code --duration} seconds, and the measured part is reported as throughput,
+ * p50, p99 and max latency per endpoint.
+ * <pre>
+ * mvn -Ploadtest test -Dloadtest.args="--url=http://localhost:8080 --jwt-secret=... --concurrency=32 --duration=30"
+ * </pre>
+ * Requests are authenticated with an admin token minted from {@code --jwt-secret}, so no login or OTP round trip
+ * is measured. Targets (ids, registrations, time ranges) come from regenerating the dataset with the same
+ * {@code --seed} and {@code --scale} it was loaded with. Unpaged list endpoints that return the whole table are left
+ * out on purpose; {@code --scenarios} takes a comma separated subset of scenario names.
+ */
+public class LoadTestDriver {
+
+    private static final int SAMPLE_SIZE = 10_000;
+
+    record Scenario(String name, int expectedStatus, Function<Targets, Call> call) {
+    }
+
+    record Call(String path, String jsonBody) {
+        static Call get(String path) {
+            return new Call(path, null);
+        }
+
+        static Call post(String path, String jsonBody) {
+            return new Call(path, jsonBody);
+        }
+    }
+
+    record Targets(List<Flight> flights, List<Aircraft> aircraft, List<MaintenanceRecord> maintenanceRecords, List<Airport> airports) {
+        <T> T any(List<T> items) {
+            return items.get(ThreadLocalRandom.current().nextInt(items.size()));
+        }
+    }
+
+    private final String baseUrl;
+    private final String token;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    LoadTestDriver(String baseUrl, String token) {
+        this.baseUrl = baseUrl;
+        this.token = token;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestArgs arguments = new LoadTestArgs(args);
+        Targets targets = sample(arguments.datasetConfig());
+        LoadTestDriver driver = new LoadTestDriver(arguments.get("url", "http://localhost:8080"), adminToken(arguments.require("jwt-secret")));
+        Set<String> selected = new HashSet<>(Arrays.asList(arguments.get("scenarios", "").split(",")));
+        selected.remove("");
+
+        int concurrency = arguments.getInt("concurrency", 16);
+        Duration warmup = Duration.ofSeconds(arguments.getInt("warmup", 5));
+        Duration duration = Duration.ofSeconds(arguments.getInt("duration", 20));
+        System.out.printf("%-32s %9s %7s %10s %9s %9s %9s%n", "scenario", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Scenario scenario : scenarios()) {
+            if (!selected.isEmpty() && !selected.contains(scenario.name())) {
+                continue;
+            }
+            driver.run(scenario, targets, concurrency, warmup);
+            LatencyRecorder result = driver.run(scenario, targets, concurrency, duration);
+            System.out.printf("%-32s %9d %7d %10.1f %9.2f %9.2f %9.2f%n", scenario.name(), result.count(), result.errors(),
+                    result.count() / (double) duration.toSeconds(), result.percentileMillis(50), result.percentileMillis(99),
+                    result.percentileMillis(100));
+        }
+    }
+
+    static List<Scenario> scenarios() {
+        return List.of(
+                new Scenario("GET /api/flights/page", 200,
+                        t -> Call.get("/api/flights/page?limit=100")),
+                new Scenario("GET /api/flights/page?aircraft", 200,
+                        t -> {
+                            Flight flight = t.any(t.flights());
+                            return Call.get("/api/flights/page?aircraft=" + flight.getAircraft().getRegistrationNumber()
+                                    + "&from=" + flight.getDepartureTime().minusDays(7).toInstant() + "&to=" + flight.getDepartureTime().toInstant());
+                        }),
+                new Scenario("GET /api/flights/{id}", 200,
+                        t -> Call.get("/api/flights/" + t.any(t.flights()).getId())),
+                // Rejected by the overlap check, so the request exercises validation without adding rows
+                new Scenario("POST /api/flights (overlap)", 400,
+                        t -> {
+                            Flight flight = t.any(t.flights());
+                            String body = """
+                                    {"flightNumber":"ZZ9999","departureAirport":"%s","arrivalAirport":"%s","departureTime":"%s","arrivalTime":"%s","aircraft":"%s"}"""
+                                    .formatted(flight.getDepartureAirport(), flight.getArrivalAirport(), flight.getDepartureTime().toInstant(),
+                                            flight.getArrivalTime().toInstant(), flight.getAircraft().getRegistrationNumber());
+                            return Call.post("/api/flights", body);
+                        }),
+                new Scenario("GET /api/aircraft/{id}", 200,
+                        t -> Call.get("/api/aircraft/" + t.any(t.aircraft()).getId())),
+                new Scenario("GET /api/aircraft/{id}/availability", 200,
+                        t -> {
+                            Flight flight = t.any(t.flights());
+                            return Call.get("/api/aircraft/" + flight.getAircraft().getId() + "/availability?from=" + flight.getDepartureTime().toInstant()
+                                    + "&to=" + flight.getDepartureTime().plusDays(3).toInstant());
+                        }),
+                new Scenario("GET /api/aircraft/availability", 200,
+                        t -> {
+                            ZonedDateTime from = t.any(t.flights()).getDepartureTime();
+                            return Call.get("/api/aircraft/availability?type=" + t.any(t.aircraft()).getType()
+                                    + "&from=" + from.toInstant() + "&to=" + from.plusDays(1).toInstant() + "&minFreeMinutes=120");
+                        }),
+                new Scenario("GET /api/maintenance-records?aircraftId", 200,
+                        t -> Call.get("/api/maintenance-records?aircraftId=" + t.any(t.aircraft()).getId())),
+                new Scenario("GET /api/maintenance-records?engineerId", 200,
+                        t -> Call.get("/api/maintenance-records?status=SCHEDULED&engineerId=" + t.any(t.maintenanceRecords()).getEngineer().getId())),
+                new Scenario("GET /api/maintenance-records/{id}", 200,
+                        t -> Call.get("/api/maintenance-records/" + t.any(t.maintenanceRecords()).getId())),
+                new Scenario("GET /api/airports/distance", 200,
+                        t -> Call.get("/api/airports/distance?origin=" + t.any(t.airports()).getIataCode() + "&destination=" + t.any(t.airports()).getIataCode()))
+        );
+    }
+
+    LatencyRecorder run(Scenario scenario, Targets targets, int concurrency, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<LatencyRecorder>> results = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                results.add(workers.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = request(scenario.call().apply(targets));
+                        long started = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = -1;
+                        }
+                        recorder.record(System.nanoTime() - started, status == scenario.expectedStatus());
+                    }
+                    return recorder;
+                }));
+            }
+            LatencyRecorder merged = new LatencyRecorder();
+            for (Future<LatencyRecorder> result : results) {
+                merged.merge(result.get());
+            }
+            return merged;
+        }
+    }
+
+    private HttpRequest request(Call call) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + call.path()))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+        if (call.jsonBody() == null) {
+            return builder.GET().build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(call.jsonBody()))
+                .build();
+    }
+
+    // Uniform samples of the generated rows, drawn without keeping the full dataset in memory
+    static Targets sample(SyntheticDataset.Config config) {
+        Random random = new Random(config.seed());
+        List<Flight> flights = new ArrayList<>();
+        List<MaintenanceRecord> maintenanceRecords = new ArrayList<>();
+        List<Aircraft> aircraft = new ArrayList<>();
+        List<Airport> airports = new ArrayList<>();
+        new SyntheticDataset(config).generate(new SyntheticDataset.Sink() {
+            private long flightsSeen;
+            private long maintenanceSeen;
+
+            @Override
+            public void aircraftTypeInfo(AircraftTypeInfo info) {
+            }
+
+            @Override
+            public void airport(Airport airport) {
+                airports.add(airport);
+            }
+
+            @Override
+            public void user(User user) {
+            }
+
+            @Override
+            public void aircraft(Aircraft item) {
+                aircraft.add(item);
+            }
+
+            @Override
+            public void flight(Flight flight) {
+                reservoir(flights, flight, ++flightsSeen, random);
+            }
+
+            @Override
+            public void maintenanceRecord(MaintenanceRecord record) {
+                reservoir(maintenanceRecords, record, ++maintenanceSeen, random);
+            }
+        });
+        return new Targets(flights, aircraft, maintenanceRecords, airports);
+    }
+
+    private static <T> void reservoir(List<T> sample, T item, long seen, Random random) {
+        if (sample.size() < SAMPLE_SIZE) {
+            sample.add(item);
+            return;
+        }
+        long slot = (long) (random.nextDouble() * seen);
+        if (slot < SAMPLE_SIZE) {
+            sample.set((int) slot, item);
+        }
+    }
+
+    static String adminToken(String secret) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", secret);
+        return jwtUtil.generateToken(new User(UUID.randomUUID(), SyntheticDataset.ADMIN_USERNAME, null, UserRole.ADMIN, null, false), 24 * 60);
+    }
+}
@@ -0,0 +1,248 @@
+package com.sd.stratos.loadtest;
+
+import com.sd.stratos.cache.AirportDistanceTable;
+import com.sd.stratos.entity.*;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeded generator for a fleet-sized dataset. Every aircraft flies a continuous rotation out of a home airport:
+ * each leg departs from the previous arrival airport after a turnaround, stays within the type's range, and takes
+ * as long as {@code FlightService.getArrivalTime} would estimate. Maintenance windows are slotted into the same
+ * rotation, so no aircraft is double-booked. The same {@link Config} always produces the same rows, ids included,
+ * which lets the load driver pick targets without reading them back from the database.
+ */
+public class SyntheticDataset {
+
+    public static final String PASSWORD = "loadtest";
+    public static final String ADMIN_USERNAME = "loadtest-admin";
+
+    private static final int TAKEOFF_AND_LANDING_MINUTES = 20;
+
+    public record Config(long seed, int airports, int aircraft, int flights, int maintenanceRecords, int engineers,
+                         ZonedDateTime start, ZonedDateTime now) {
+        public static Config defaults() {
+            // Far enough ahead that new flights against the schedule pass the departure-in-the-future check
+            ZonedDateTime start = ZonedDateTime.parse("2030-01-01T00:00:00Z");
+            return new Config(42, 300, 500, 1_000_000, 200_000, 50, start, start.plusDays(120));
+        }
+
+        public Config scaled(double factor) {
+            return new Config(seed, airports, Math.max(1, (int) (aircraft * factor)), (int) (flights * factor),
+                    (int) (maintenanceRecords * factor), engineers, start, now);
+        }
+    }
+
+    public interface Sink {
+        void aircraftTypeInfo(AircraftTypeInfo info);
+
+        void airport(Airport airport);
+
+        void user(User user);
+
+        void aircraft(Aircraft aircraft);
+
+        void flight(Flight flight);
+
+        void maintenanceRecord(MaintenanceRecord record);
+    }
+
+    private final Config config;
+
+    public SyntheticDataset(Config config) {
+        this.config = config;
+    }
+
+    public static List<AircraftTypeInfo> aircraftTypeInfo() {
+        return List.of(
+                new AircraftTypeInfo(AircraftType.A320, 447, 3300),
+                new AircraftTypeInfo(AircraftType.A330, 470, 7200),
+                new AircraftTypeInfo(AircraftType.A340, 475, 7400),
+                new AircraftTypeInfo(AircraftType.A350, 488, 8100),
+                new AircraftTypeInfo(AircraftType.A380, 490, 8000),
+                new AircraftTypeInfo(AircraftType.B737, 453, 3500),
+                new AircraftTypeInfo(AircraftType.B747, 490, 7700),
+                new AircraftTypeInfo(AircraftType.B757, 459, 3900),
+                new AircraftTypeInfo(AircraftType.B767, 459, 5900),
+                new AircraftTypeInfo(AircraftType.B777, 482, 7300),
+                new AircraftTypeInfo(AircraftType.B787, 488, 7500)
+        );
+    }
+
+    public void generate(Sink sink) {
+        Random random = new Random(config.seed());
+        List<AircraftTypeInfo> typeInfo = aircraftTypeInfo();
+        typeInfo.forEach(sink::aircraftTypeInfo);
+
+        List<Airport> airports = airports(random);
+        airports.forEach(sink::airport);
+        int[][] distances = distances(airports);
+
+        User admin = new User(uuid(random), ADMIN_USERNAME, null, UserRole.ADMIN, null, false);
+        sink.user(admin);
+        List<User> engineers = new ArrayList<>();
+        for (int i = 0; i < config.engineers(); i++) {
+            User engineer = new User(uuid(random), "loadtest-engineer-" + (i + 1), null, UserRole.ENGINEER, null, false);
+            engineers.add(engineer);
+            sink.user(engineer);
+        }
+
+        AircraftType[] types = AircraftType.values();
+        int flightNumber = 0;
+        for (int a = 0; a < config.aircraft(); a++) {
+            AircraftTypeInfo info = typeInfo.get(a % types.length);
+            Aircraft aircraft = new Aircraft(uuid(random), registration(a), info.getAircraftType(), AircraftStatus.OPERATIONAL);
+            sink.aircraft(aircraft);
+
+            int flights = share(config.flights(), a);
+            int maintenance = share(config.maintenanceRecords(), a);
+            int location = regionalAirport(random);
+            ZonedDateTime clock = config.start().plusMinutes(random.nextInt(24 * 60));
+            for (int leg = 0, done = 0; leg < flights || done < maintenance; ) {
+                boolean maintenanceDue = done < maintenance && (leg >= flights || (long) done * flights <= (long) leg * maintenance);
+                if (maintenanceDue) {
+                    MaintenanceType type = maintenanceType(random);
+                    ZonedDateTime end = clock.plusMinutes(maintenanceMinutes(type, random));
+                    sink.maintenanceRecord(new MaintenanceRecord(uuid(random), aircraft, engineers.get(random.nextInt(engineers.size())),
+                            type, clock, end, maintenanceStatus(clock, end)));
+                    clock = end.plusMinutes(30);
+                    done++;
+                    continue;
+                }
+                int destination = destination(random, distances[location], info.getCruisingDistanceMiles());
+                int distance = distances[location][destination];
+                ZonedDateTime arrival = clock.plusMinutes((int) ((double) distance / info.getCruisingSpeedKnots() * 60) + TAKEOFF_AND_LANDING_MINUTES);
+                sink.flight(new Flight(uuid(random), flightNumber(flightNumber++), airports.get(location).getIataCode(),
+                        airports.get(destination).getIataCode(), clock, arrival, aircraft));
+                location = destination;
+                clock = arrival.plusMinutes(35 + random.nextInt(90));
+                leg++;
+            }
+        }
+    }
+
+    // Spreads a total over the fleet so that the per-aircraft counts add up exactly
+    private int share(int total, int aircraftIndex) {
+        return total / config.aircraft() + (aircraftIndex < total % config.aircraft() ? 1 : 0);
+    }
+
+    private List<Airport> airports(Random random) {
+        List<Airport> airports = new ArrayList<>();
+        for (int i = 0; i < config.airports(); i++) {
+            // Mostly a dense regional network, with a long-haul tail for the widebody types
+            boolean regional = isRegional(i);
+            float latitude = regional ? 35 + random.nextFloat() * 25 : -40 + random.nextFloat() * 100;
+            float longitude = regional ? -10 + random.nextFloat() * 40 : -180 + random.nextFloat() * 360;
+            String iata = iata(i);
+            airports.add(new Airport(uuid(random), regional ? "medium_airport" : "large_airport", "Loadtest " + iata,
+                    latitude, longitude, random.nextInt(2000), regional ? "EU" : "XX", "XX", "XX-LT", "Loadtest",
+                    true, "X" + iata, iata));
+        }
+        return airports;
+    }
+
+    private static boolean isRegional(int airportIndex) {
+        return airportIndex % 5 != 0;
+    }
+
+    // Rotations start at regional airports, which always have neighbours within narrowbody range
+    private int regionalAirport(Random random) {
+        int airport;
+        do {
+            airport = random.nextInt(config.airports());
+        } while (!isRegional(airport));
+        return airport;
+    }
+
+    private static int[][] distances(List<Airport> airports) {
+        int n = airports.size();
+        double[] latitude = new double[n];
+        double[] longitude = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitude[i] = Math.toRadians(airports.get(i).getLatitudeDeg());
+            longitude[i] = Math.toRadians(airports.get(i).getLongitudeDeg());
+        }
+        int[][] distances = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int distance = AirportDistanceTable.haversine(latitude[i], longitude[i], Math.cos(latitude[i]),
+                        latitude[j], longitude[j], Math.cos(latitude[j]));
+                distances[i][j] = distance;
+                distances[j][i] = distance;
+            }
+        }
+        return distances;
+    }
+
+    private static int destination(Random random, int[] distancesFrom, int range) {
+        for (int attempt = 0; attempt < 32; attempt++) {
+            int candidate = random.nextInt(distancesFrom.length);
+            if (distancesFrom[candidate] > 0 && distancesFrom[candidate] <= range) {
+                return candidate;
+            }
+        }
+        // Distances are symmetric, so the airport the aircraft came from is always reachable
+        for (int candidate = 0; candidate < distancesFrom.length; candidate++) {
+            if (distancesFrom[candidate] > 0 && distancesFrom[candidate] <= range) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("No airport within range");
+    }
+
+    private static MaintenanceType maintenanceType(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 70) {
+            return MaintenanceType.ROUTINE;
+        }
+        if (roll < 90) {
+            return MaintenanceType.REPAIR;
+        }
+        return roll < 97 ? MaintenanceType.INCIDENT : MaintenanceType.OVERHAUL;
+    }
+
+    private static int maintenanceMinutes(MaintenanceType type, Random random) {
+        return switch (type) {
+            case ROUTINE -> 120 + random.nextInt(240);
+            case REPAIR -> 240 + random.nextInt(720);
+            case INCIDENT -> 60 + random.nextInt(480);
+            case OVERHAUL -> 24 * 60 + random.nextInt(48 * 60);
+        };
+    }
+
+    private MaintenanceStatus maintenanceStatus(ZonedDateTime start, ZonedDateTime end) {
+        if (!end.isAfter(config.now())) {
+            return MaintenanceStatus.COMPLETED;
+        }
+        return start.isAfter(config.now()) ? MaintenanceStatus.SCHEDULED : MaintenanceStatus.IN_PROGRESS;
+    }
+
+    static String registration(int index) {
+        return "LT-" + letters(index, 3);
+    }
+
+    static String iata(int index) {
+        return "Q" + letters(index, 2);
+    }
+
+    static String flightNumber(int index) {
+        return letters(index / 9999, 2) + (index % 9999 + 1);
+    }
+
+    private static String letters(int value, int length) {
+        char[] letters = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            letters[i] = (char) ('A' + value % 26);
+            value /= 26;
+        }
+        return new String(letters);
+    }
+
+    private static UUID uuid(Random random) {
+        return UUID.nameUUIDFromBytes(Long.toString(random.nextLong()).getBytes());
+    }
+}
@@ -0,0 +1,90 @@
+package com.sd.stratos.loadtest;
+
+import com.sd.stratos.entity.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyntheticDatasetTests {
+
+    private static final SyntheticDataset.Config CONFIG = new SyntheticDataset.Config(7, 60, 22, 5_000, 1_000, 5,
+            ZonedDateTime.parse("2030-01-01T00:00:00Z"), ZonedDateTime.parse("2030-03-01T00:00:00Z"));
+
+    @Test
+    void testSameSeedProducesSameRows() {
+        /// When:
+        Collected first = collect(CONFIG);
+        Collected second = collect(CONFIG);
+
+        /// Then:
+        assertEquals(first.flights, second.flights);
+        assertEquals(first.maintenanceRecords, second.maintenanceRecords);
+    }
+
+    @Test
+    void testScheduleIsConsistentForEveryAircraft() {
+        /// When:
+        Collected dataset = collect(CONFIG);
+
+        /// Then:
+        assertEquals(CONFIG.flights(), dataset.flights.size());
+        assertEquals(CONFIG.maintenanceRecords(), dataset.maintenanceRecords.size());
+        assertEquals(EnumSet.allOf(AircraftType.class), EnumSet.copyOf(dataset.aircraft.stream().map(Aircraft::getType).toList()));
+        assertEquals(dataset.flights.size(), dataset.flights.stream().map(Flight::getFlightNumber).distinct().count());
+        assertTrue(dataset.flights.stream().allMatch(flight -> flight.getFlightNumber().matches("^[A-Z]{2}[1-9][0-9]{0,3}$")));
+        assertTrue(dataset.aircraft.stream().allMatch(aircraft -> aircraft.getRegistrationNumber().matches("^[A-Z0-9]{1,2}-[A-Z]{3,4}$")));
+
+        Map<UUID, List<Flight>> flightsByAircraft = new HashMap<>();
+        dataset.flights.forEach(flight -> flightsByAircraft.computeIfAbsent(flight.getAircraft().getId(), id -> new ArrayList<>()).add(flight));
+        flightsByAircraft.values().forEach(flights -> {
+            for (int i = 1; i < flights.size(); i++) {
+                assertTrue(flights.get(i - 1).getArrivalTime().isBefore(flights.get(i).getDepartureTime()));
+                assertEquals(flights.get(i - 1).getArrivalAirport(), flights.get(i).getDepartureAirport());
+            }
+        });
+        dataset.maintenanceRecords.forEach(record -> assertTrue(flightsByAircraft.get(record.getAircraft().getId()).stream().noneMatch(flight ->
+                flight.getDepartureTime().isBefore(record.getEndDate()) && record.getStartDate().isBefore(flight.getArrivalTime()))));
+    }
+
+    private static Collected collect(SyntheticDataset.Config config) {
+        Collected collected = new Collected();
+        new SyntheticDataset(config).generate(collected);
+        return collected;
+    }
+
+    private static class Collected implements SyntheticDataset.Sink {
+        private final List<Aircraft> aircraft = new ArrayList<>();
+        private final List<Flight> flights = new ArrayList<>();
+        private final List<MaintenanceRecord> maintenanceRecords = new ArrayList<>();
+
+        @Override
+        public void aircraftTypeInfo(AircraftTypeInfo info) {
+        }
+
+        @Override
+        public void airport(Airport airport) {
+        }
+
+        @Override
+        public void user(User user) {
+        }
+
+        @Override
+        public void aircraft(Aircraft item) {
+            aircraft.add(item);
+        }
+
+        @Override
+        public void flight(Flight flight) {
+            flights.add(flight);
+        }
+
+        @Override
+        public void maintenanceRecord(MaintenanceRecord record) {
+            maintenanceRecords.add(record);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.sd.stratos.loadtest;
+
+import com.sd.stratos.StratosApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Compares request throughput with Tomcat on platform threads and on virtual threads. The backend is started in
+ * this JVM once per mode against the database configured as usual (DB_HOST, POSTGRES_PSWD), which must already hold
+ * a {@link SyntheticDataset} loaded with the same {@code --seed} and {@code --scale}. Each mode then gets the same
+ * closed-loop load from {@link LoadTestDriver}.
+ * <pre>
+ * mvn -Ploadtest test -Dloadtest.main=com.sd.stratos.loadtest.ThreadModeComparison -Dloadtest.args="--jwt-secret=... --concurrency=400"
+ * </pre>
+ * {@code --concurrency} should exceed {@code --tomcat-threads} (200 by default, Tomcat's own default), otherwise
+ * both modes have a thread per client and only the connection pool is measured. The driver shares the CPU with
+ * the backend, so compare the two rows of a scenario with each other rather than with production numbers.
+ */
+public class ThreadModeComparison {
+
+    private static final List<String> DEFAULT_SCENARIOS = List.of(
+            "POST /api/flights (overlap)",
+            "GET /api/flights/{id}",
+            "GET /api/aircraft/{id}/availability"
+    );
+
+    public static void main(String[] args) throws Exception {
+        LoadTestArgs arguments = new LoadTestArgs(args);
+        String jwtSecret = arguments.require("jwt-secret");
+        LoadTestDriver.Targets targets = LoadTestDriver.sample(arguments.datasetConfig());
+        Set<String> selected = new HashSet<>(arguments.has("scenarios")
+                ? Arrays.asList(arguments.get("scenarios", "").split(","))
+                : DEFAULT_SCENARIOS);
+
+        int concurrency = arguments.getInt("concurrency", 400);
+        int tomcatThreads = arguments.getInt("tomcat-threads", 200);
+        Duration warmup = Duration.ofSeconds(arguments.getInt("warmup", 5));
+        Duration duration = Duration.ofSeconds(arguments.getInt("duration", 20));
+
+        Map<String, Map<Boolean, LatencyRecorder>> results = new LinkedHashMap<>();
+        for (boolean virtualThreads : List.of(false, true)) {
+            try (ConfigurableApplicationContext context = start(jwtSecret, virtualThreads, tomcatThreads)) {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                LoadTestDriver driver = new LoadTestDriver("http://localhost:" + port, LoadTestDriver.adminToken(jwtSecret));
+                for (LoadTestDriver.Scenario scenario : LoadTestDriver.scenarios()) {
+                    if (!selected.contains(scenario.name())) {
+                        continue;
+                    }
+                    driver.run(scenario, targets, concurrency, warmup);
+                    results.computeIfAbsent(scenario.name(), name -> new HashMap<>())
+                            .put(virtualThreads, driver.run(scenario, targets, concurrency, duration));
+                }
+            }
+        }
+
+        System.out.printf("%-40s %-9s %9s %7s %10s %9s %9s%n", "scenario", "threads", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+        results.forEach((scenario, byMode) -> byMode.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    LatencyRecorder result = entry.getValue();
+                    System.out.printf("%-40s %-9s %9d %7d %10.1f %9.2f %9.2f%n", scenario, entry.getKey() ? "virtual" : "platform",
+                            result.count(), result.errors(), result.count() / (double) duration.toSeconds(),
+                            result.percentileMillis(50), result.percentileMillis(99));
+                }));
+    }
+
+    private static ConfigurableApplicationContext start(String jwtSecret, boolean virtualThreads, int tomcatThreads) {
+        return new SpringApplicationBuilder(StratosApplication.class)
+                .properties(
+                        "server.port=0",
+                        "management.server.port=0",
+                        "jwt.secret=" + jwtSecret,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + tomcatThreads)
+                .run();
+    }
+}
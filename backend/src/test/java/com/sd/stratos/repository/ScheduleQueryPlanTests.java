@@ -0,0 +1,179 @@
+package com.sd.stratos.repository;
+
+import com.sd.stratos.entity.*;
+import com.sd.stratos.service.MaintenanceAuditWriter;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the schedule lookups against a schema built by the Flyway migrations (validated against the entities),
+ * replays the SQL Hibernate generated for them under EXPLAIN and checks that the planner can use the per-aircraft
+ * indexes. Uses H2 in PostgreSQL mode with the PostgreSQL dialect unless STRATOS_EXPLAIN_DB_URL points at a
+ * PostgreSQL database, where sequential scans are disabled so the plan shows whether an index is usable at all.
+ */
+@SpringBootTest
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = {
+                "spring.datasource.url=${STRATOS_EXPLAIN_DB_URL:jdbc:h2:mem:plans;MODE=PostgreSQL}",
+                "spring.datasource.username=${STRATOS_EXPLAIN_DB_USER:sa}",
+                "spring.datasource.password=${STRATOS_EXPLAIN_DB_PASSWORD:}",
+                "spring.datasource.driverClassName=",
+                "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                "spring.jpa.hibernate.ddl-auto=validate"
+        }
+)
+public class ScheduleQueryPlanTests {
+
+    private static final ZonedDateTime BASE = ZonedDateTime.parse("2032-03-01T00:00:00Z");
+
+    // Its outbox sweep locks rows with PostgreSQL-only syntax, which H2 rejects under this dialect
+    @MockitoBean
+    private MaintenanceAuditWriter maintenanceAuditWriter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    @Autowired
+    private AircraftRepository aircraftRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<QueryInfo> captured = new ArrayList<>();
+    private final QueryExecutionListener capture = new QueryExecutionListener() {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            captured.addAll(queryInfoList);
+        }
+    };
+
+    private Aircraft aircraft;
+    private User engineer;
+    private Flight flight;
+    private MaintenanceRecord maintenanceRecord;
+
+    @BeforeEach
+    void setUp() {
+        aircraft = aircraftRepository.save(new Aircraft(null, "QP-AAA", AircraftType.A320, AircraftStatus.OPERATIONAL));
+        engineer = userRepository.save(new User(null, "query-plan-engineer", "secret", UserRole.ENGINEER, null, false));
+        flight = flightRepository.save(new Flight(null, "QP1", "OTP", "CLJ", BASE.plusHours(8), BASE.plusHours(9), aircraft));
+        maintenanceRecord = maintenanceRecordRepository.save(new MaintenanceRecord(null, aircraft, engineer, MaintenanceType.ROUTINE,
+                BASE.plusHours(12), BASE.plusHours(16), MaintenanceStatus.SCHEDULED));
+        ((ProxyDataSource) dataSource).addListener(capture);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().getListeners().remove(capture);
+        maintenanceRecordRepository.delete(maintenanceRecord);
+        flightRepository.delete(flight);
+        aircraftRepository.delete(aircraft);
+        userRepository.delete(engineer);
+    }
+
+    @Test
+    void testExistsOverlappingFlightUsesScheduleIndex() throws Exception {
+        /// When:
+        boolean overlapping = flightRepository.existsOverlappingFlight(null, aircraft.getId(), BASE.plusHours(9), BASE.plusHours(10));
+        boolean free = flightRepository.existsOverlappingFlight(null, aircraft.getId(), BASE.plusHours(10), BASE.plusHours(11));
+
+        /// Then:
+        assertTrue(overlapping);
+        assertFalse(free);
+        assertPlanUses("idx_flight_aircraft_departure_arrival");
+    }
+
+    @Test
+    void testFindLastFlightBeforeUsesArrivalIndex() throws Exception {
+        /// When:
+        UUID found = flightRepository.findLastFlightBefore(aircraft, BASE.plusHours(10)).orElseThrow().getId();
+
+        /// Then:
+        assertEquals(flight.getId(), found);
+        assertPlanUses("idx_flight_aircraft_arrival");
+    }
+
+    @Test
+    void testExistsOverlappingMaintenanceUsesScheduleIndex() throws Exception {
+        /// When:
+        boolean overlapping = maintenanceRecordRepository.existsOverlappingMaintenance(null, aircraft.getId(), BASE.plusHours(15), BASE.plusHours(18));
+        boolean free = maintenanceRecordRepository.existsOverlappingMaintenance(null, aircraft.getId(), BASE.plusHours(17), BASE.plusHours(18));
+
+        /// Then:
+        assertTrue(overlapping);
+        assertFalse(free);
+        assertPlanUses("idx_maintenance_aircraft_start_end");
+    }
+
+    private void assertPlanUses(String index) throws Exception {
+        assertFalse(captured.isEmpty());
+        String plan = explain(captured.getFirst());
+        assertTrue(plan.contains(index), plan);
+    }
+
+    private String explain(QueryInfo query) throws Exception {
+        try (Connection connection = ((ProxyDataSource) dataSource).getDataSource().getConnection()) {
+            // SET LOCAL ends with the transaction, so the pooled connection goes back with its planner settings intact
+            connection.setAutoCommit(false);
+            try {
+                if ("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("SET LOCAL enable_seqscan = off");
+                    }
+                }
+                return explain(connection, query);
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static String explain(Connection connection, QueryInfo query) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.getQuery())) {
+            for (ParameterSetOperation operation : query.getParametersList().getFirst()) {
+                operation.getMethod().invoke(statement, operation.getArgs());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString().toLowerCase();
+        }
+    }
+}
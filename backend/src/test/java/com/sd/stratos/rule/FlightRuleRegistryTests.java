@@ -0,0 +1,133 @@
+package com.sd.stratos.rule;
+
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.service.ParallelValidator;
+import com.sd.stratos.util.SqlStatementListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRuleRegistryTests {
+
+    private final ParallelValidator parallelValidator = new ParallelValidator(new SqlStatementListener(Duration.ofMillis(500)), 4);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        parallelValidator.stop();
+    }
+
+    @Test
+    void testRulesThatRejectOftenMoveToTheFront() {
+        /// Given:
+        StubRule permissive = new StubRule("permissive", flight -> false);
+        StubRule strict = new StubRule("strict", flight -> true);
+        FlightRuleRegistry registry = new FlightRuleRegistry(List.of(permissive, strict), parallelValidator, meterRegistry);
+
+        /// When:
+        for (int i = 0; i < FlightRuleRegistry.RERANK_INTERVAL; i++) {
+            assertThrows(IllegalStateException.class, () -> registry.validate(new Flight()));
+        }
+
+        /// Then:
+        assertEquals(List.of("strict", "permissive"), registry.ruleNames());
+        assertEquals(FlightRuleRegistry.RERANK_INTERVAL, meterRegistry.get("stratos.flight.rule")
+                .tags("rule", "strict", "outcome", "reject").timer().count());
+        // The re-ranked strict rule rejected the last flight first; the permissive one, declared before it, still
+        // ran so the reported violation follows declaration order
+        assertEquals(FlightRuleRegistry.RERANK_INTERVAL, meterRegistry.get("stratos.flight.rule")
+                .tags("rule", "permissive", "outcome", "pass").timer().count());
+    }
+
+    @Test
+    void testViolationIsReportedInDeclaredOrderAfterReranking() {
+        /// Given:
+        Flight brokenTwice = new Flight();
+        StubRule declaredFirst = new StubRule("declaredFirst", flight -> flight == brokenTwice);
+        StubRule strict = new StubRule("strict", flight -> true);
+        FlightRuleRegistry registry = new FlightRuleRegistry(List.of(declaredFirst, strict), parallelValidator, meterRegistry);
+        for (int i = 0; i < FlightRuleRegistry.RERANK_INTERVAL; i++) {
+            assertThrows(IllegalStateException.class, () -> registry.validate(new Flight()));
+        }
+
+        /// When:
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> registry.validate(brokenTwice));
+        List<FlightRuleViolation> violations = registry.validateAll(List.of(brokenTwice, new Flight()));
+
+        /// Then:
+        assertEquals(List.of("strict", "declaredFirst"), registry.ruleNames());
+        assertEquals("declaredFirst rejected", exception.getMessage());
+        assertEquals(new FlightRuleViolation("declaredFirst", "declaredFirst rejected"), violations.get(0));
+        assertEquals(new FlightRuleViolation("strict", "strict rejected"), violations.get(1));
+    }
+
+    @Test
+    void testValidateAllLeavesScheduleRulesToTheCaller() {
+        /// Given:
+        StubRule schedule = new StubRule("schedule", flight -> true);
+        FlightRule scheduleRule = new FlightRule() {
+            @Override
+            public String check(Flight flight) {
+                return schedule.check(flight);
+            }
+
+            @Override
+            public boolean checksSchedule() {
+                return true;
+            }
+        };
+        FlightRuleRegistry registry = new FlightRuleRegistry(List.of(scheduleRule), parallelValidator, meterRegistry);
+
+        /// When:
+        List<FlightRuleViolation> violations = registry.validateAll(List.of(new Flight()));
+
+        /// Then:
+        assertNull(violations.get(0));
+        assertTrue(schedule.checked().isEmpty());
+        assertThrows(IllegalStateException.class, () -> registry.validate(new Flight()));
+    }
+
+    @Test
+    void testValidateAllSkipsRejectedFlightsInLaterRules() {
+        /// Given:
+        Flight rejectedEarly = new Flight();
+        Flight rejectedLate = new Flight();
+        Flight accepted = new Flight();
+        StubRule first = new StubRule("first", flight -> flight == rejectedEarly);
+        StubRule second = new StubRule("second", flight -> flight == rejectedLate);
+        FlightRuleRegistry registry = new FlightRuleRegistry(List.of(first, second), parallelValidator, meterRegistry);
+
+        /// When:
+        List<FlightRuleViolation> violations = registry.validateAll(List.of(rejectedEarly, accepted, rejectedLate));
+
+        /// Then:
+        assertEquals(new FlightRuleViolation("first", "first rejected"), violations.get(0));
+        assertNull(violations.get(1));
+        assertEquals(new FlightRuleViolation("second", "second rejected"), violations.get(2));
+        assertEquals(3, first.checked.size());
+        assertEquals(2, second.checked.size());
+        assertTrue(second.checked.stream().noneMatch(flight -> flight == rejectedEarly));
+    }
+
+    private record StubRule(String name, Predicate<Flight> rejects, List<Flight> checked) implements FlightRule {
+
+        StubRule(String name, Predicate<Flight> rejects) {
+            this(name, rejects, Collections.synchronizedList(new ArrayList<>()));
+        }
+
+        @Override
+        public String check(Flight flight) {
+            checked.add(flight);
+            return rejects.test(flight) ? name + " rejected" : null;
+        }
+    }
+}
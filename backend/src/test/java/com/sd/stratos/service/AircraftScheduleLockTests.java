@@ -0,0 +1,91 @@
+package com.sd.stratos.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AircraftScheduleLockTests {
+
+    private AircraftScheduleLock aircraftScheduleLock;
+
+    private final UUID aircraft = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        aircraftScheduleLock = new AircraftScheduleLock(Duration.ofMillis(100));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            completeTransaction();
+        }
+    }
+
+    @Test
+    void testLockIsHeldUntilTransactionCompletes() {
+        /// Given:
+        UUID other = otherStripe(aircraft);
+        aircraftScheduleLock.lock(aircraft, aircraft);
+
+        /// Then:
+        assertThrows(CannotAcquireLockException.class, () -> lockInOtherTransaction(aircraft));
+        assertDoesNotThrow(() -> lockInOtherTransaction(other));
+
+        /// When:
+        completeTransaction();
+
+        /// Then:
+        assertDoesNotThrow(() -> lockInOtherTransaction(aircraft));
+    }
+
+    @Test
+    void testLockNeedsTransaction() {
+        /// Given:
+        completeTransaction();
+
+        /// Then:
+        assertThrows(IllegalStateException.class, () -> aircraftScheduleLock.lock(aircraft));
+    }
+
+    private void lockInOtherTransaction(UUID aircraftId) {
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            CompletableFuture.runAsync(() -> {
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                    aircraftScheduleLock.lock(aircraftId);
+                } finally {
+                    completeTransaction();
+                }
+            }, executor).join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    private static void completeTransaction() {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static UUID otherStripe(UUID aircraftId) {
+        UUID other = UUID.randomUUID();
+        while (AircraftScheduleLock.stripe(other) == AircraftScheduleLock.stripe(aircraftId)) {
+            other = UUID.randomUUID();
+        }
+        return other;
+    }
+}
@@ -1,5 +1,6 @@
 package com.sd.stratos.service;
 
+import com.sd.stratos.cache.AircraftRegistry;
 import com.sd.stratos.dto.AircraftCreateDTO;
 import com.sd.stratos.dto.AircraftUpdateDTO;
 import com.sd.stratos.entity.Aircraft;
@@ -26,6 +27,9 @@ public class AircraftServiceTests {
     @Mock
     private AircraftRepository aircraftRepository;
 
+    @Mock
+    private AircraftRegistry aircraftRegistry;
+
     @InjectMocks
     private AircraftService aircraftService;
 
@@ -100,6 +104,7 @@ public class AircraftServiceTests {
         assertEquals(savedAircraft, result);
         verify(aircraftRepository, times(1)).findAircraftByRegistrationNumber("YR-REG");
         verify(aircraftRepository, times(1)).save(any(Aircraft.class));
+        verify(aircraftRegistry).put(savedAircraft);
     }
 
     @Test
@@ -173,6 +178,7 @@ public class AircraftServiceTests {
 
         /// Then:
         verify(aircraftRepository, times(1)).deleteById(aircraftId);
+        verify(aircraftRegistry).evict(aircraftId);
     }
 
     @Test
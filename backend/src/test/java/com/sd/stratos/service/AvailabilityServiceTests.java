@@ -0,0 +1,127 @@
+package com.sd.stratos.service;
+
+import com.sd.stratos.cache.AircraftRegistry;
+import com.sd.stratos.cache.FlightIntervalIndex;
+import com.sd.stratos.cache.MaintenanceIntervalIndex;
+import com.sd.stratos.dto.AircraftAvailabilityDTO;
+import com.sd.stratos.dto.OccupancyDTO;
+import com.sd.stratos.dto.TimeWindowDTO;
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.entity.AircraftStatus;
+import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.entity.MaintenanceRecord;
+import com.sd.stratos.entity.MaintenanceStatus;
+import com.sd.stratos.entity.MaintenanceType;
+import com.sd.stratos.repository.AircraftRepository;
+import com.sd.stratos.repository.FlightRepository;
+import com.sd.stratos.repository.MaintenanceRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AvailabilityServiceTests {
+
+    private static final ZonedDateTime BASE = ZonedDateTime.parse("2030-01-01T00:00:00Z");
+
+    @Mock
+    private AircraftRepository aircraftRepository;
+
+    @Mock
+    private AircraftRegistry aircraftRegistry;
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    private FlightIntervalIndex flightIntervalIndex;
+    private MaintenanceIntervalIndex maintenanceIntervalIndex;
+    private AvailabilityService availabilityService;
+
+    private final Aircraft busy = new Aircraft(UUID.randomUUID(), "YR-ABC", AircraftType.A320, AircraftStatus.OPERATIONAL);
+    private final Aircraft idle = new Aircraft(UUID.randomUUID(), "YR-DEF", AircraftType.A320, AircraftStatus.OPERATIONAL);
+    private Flight flight;
+    private MaintenanceRecord maintenance;
+
+    @BeforeEach
+    void setUp() {
+        flightIntervalIndex = new FlightIntervalIndex();
+        maintenanceIntervalIndex = new MaintenanceIntervalIndex();
+        availabilityService = new AvailabilityService(aircraftRepository, aircraftRegistry, flightRepository, maintenanceRecordRepository, flightIntervalIndex, maintenanceIntervalIndex);
+        flight = new Flight(UUID.randomUUID(), "RO100", "OTP", "CLJ", BASE.plusHours(8), BASE.plusHours(9), busy);
+        maintenance = new MaintenanceRecord(UUID.randomUUID(), busy, null, MaintenanceType.ROUTINE, BASE.plusHours(12), BASE.plusHours(20), MaintenanceStatus.SCHEDULED);
+    }
+
+    @Test
+    void testGetAvailabilityMergesFlightsAndMaintenanceFromIndexes() {
+        /// Given:
+        flightIntervalIndex.load(List.of(flight), BASE.toInstant());
+        maintenanceIntervalIndex.load(List.of(maintenance), BASE.toInstant());
+        when(aircraftRegistry.findById(busy.getId())).thenReturn(Optional.of(busy));
+
+        /// When:
+        AircraftAvailabilityDTO availability = availabilityService.getAvailability(busy.getId(), BASE, BASE.plusDays(1));
+
+        /// Then:
+        assertFalse(availability.available());
+        assertEquals(List.of(OccupancyDTO.Kind.FLIGHT, OccupancyDTO.Kind.MAINTENANCE), availability.occupied().stream().map(OccupancyDTO::kind).toList());
+        assertEquals(List.of(
+                new TimeWindowDTO(BASE, BASE.plusHours(8)),
+                new TimeWindowDTO(BASE.plusHours(9), BASE.plusHours(12)),
+                new TimeWindowDTO(BASE.plusHours(20), BASE.plusDays(1))
+        ), availability.free());
+        verifyNoInteractions(flightRepository, maintenanceRecordRepository);
+    }
+
+    @Test
+    void testGetFleetAvailabilityFallsBackToRepositoriesBeforeIndexHorizon() {
+        /// Given:
+        flightIntervalIndex.load(List.of(), BASE.plusDays(10).toInstant());
+        when(aircraftRepository.findAllOperational(AircraftType.A320)).thenReturn(List.of(busy, idle));
+        when(flightRepository.findAllForAircraftBetween(anyCollection(), any(), any())).thenReturn(List.of(flight));
+        when(maintenanceRecordRepository.findAllForAircraftBetween(anyCollection(), any(), any())).thenReturn(List.of(maintenance));
+
+        /// When:
+        List<AircraftAvailabilityDTO> fleet = availabilityService.getFleetAvailability(AircraftType.A320, BASE, BASE.plusDays(1), Duration.ofHours(6));
+
+        /// Then:
+        assertEquals(2, fleet.size());
+        assertEquals(List.of(new TimeWindowDTO(BASE, BASE.plusHours(8))), fleet.get(0).free());
+        assertTrue(fleet.get(1).available());
+        assertEquals(List.of(new TimeWindowDTO(BASE, BASE.plusDays(1))), fleet.get(1).free());
+    }
+
+    @Test
+    void testAvailableOnlyWhenNothingOverlapsTheRange() {
+        /// Given:
+        flightIntervalIndex.load(List.of(flight), BASE.toInstant());
+        maintenanceIntervalIndex.load(List.of(maintenance), BASE.toInstant());
+        when(aircraftRegistry.findById(busy.getId())).thenReturn(Optional.of(busy));
+
+        /// Then:
+        assertTrue(availabilityService.getAvailability(busy.getId(), BASE.plusHours(9).plusMinutes(1), BASE.plusHours(11)).available());
+        assertFalse(availabilityService.getAvailability(busy.getId(), BASE.plusHours(11), BASE.plusHours(13)).available());
+    }
+
+    @Test
+    void testInvalidRange() {
+        /// Then:
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.getAvailability(busy.getId(), BASE, BASE));
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.getAvailability(busy.getId(), BASE, BASE.plusDays(32)));
+    }
+}
@@ -0,0 +1,339 @@
+package com.sd.stratos.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sd.stratos.cache.AircraftRegistry;
+import com.sd.stratos.cache.AircraftTypeInfoCache;
+import com.sd.stratos.dto.FlightCreateDTO;
+import com.sd.stratos.dto.FlightImportReport;
+import com.sd.stratos.dto.FlightImportRowResult;
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.entity.AircraftStatus;
+import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.entity.AircraftTypeInfo;
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.repository.FlightRepository;
+import com.sd.stratos.repository.MaintenanceRecordRepository;
+import com.sd.stratos.rule.*;
+import com.sd.stratos.util.SqlStatementListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FlightImportServiceTests {
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private AircraftRegistry aircraftRegistry;
+
+    @Mock
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    @Mock
+    private AirportService airportService;
+
+    @Mock
+    private AircraftTypeInfoCache aircraftTypeInfoCache;
+
+    @Mock
+    private AircraftScheduleLock aircraftScheduleLock;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ParallelValidator parallelValidator = new ParallelValidator(new SqlStatementListener(Duration.ofMillis(500)), 4);
+
+    private FlightImportService flightImportService;
+
+    private final Aircraft aircraft = new Aircraft(UUID.randomUUID(), "YR-ABC", AircraftType.A320, AircraftStatus.OPERATIONAL);
+    private final ZonedDateTime base = ZonedDateTime.now().plusDays(2).truncatedTo(ChronoUnit.DAYS);
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        FlightRuleRegistry flightRuleRegistry = new FlightRuleRegistry(List.of(
+                new FlightTimesRule(),
+                new FlightEndpointsRule(),
+                new AircraftOperationalRule(),
+                new AircraftRangeRule(airportService, aircraftTypeInfoCache),
+                new ClosedAirportRule()
+        ), parallelValidator, new SimpleMeterRegistry());
+        flightImportService = new FlightImportService(
+                flightRepository,
+                aircraftRegistry,
+                maintenanceRecordRepository,
+                flightRuleRegistry,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                objectMapper,
+                aircraftScheduleLock,
+                transactionManager
+        );
+        lenient().when(aircraftRegistry.findAllByRegistrationNumberIn(any())).thenReturn(List.of(aircraft));
+        lenient().when(aircraftTypeInfoCache.get(AircraftType.A320)).thenReturn(Optional.of(new AircraftTypeInfo(AircraftType.A320, 450, 3300)));
+        lenient().when(flightRepository.findExistingFlightNumbers(any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelValidator.stop();
+    }
+
+    @Test
+    void testImportFlightsAppliesRegisteredRules() {
+        /// Given:
+        List<FlightCreateDTO> flights = List.of(
+                new FlightCreateDTO("RO100", "OTP", "CLJ", base.plusHours(8), base.plusHours(9), "YR-ABC"),
+                new FlightCreateDTO("RO101", "TSR", "OTP", base.plusHours(10), base.plusHours(11), "YR-ABC"),
+                new FlightCreateDTO("RO102", "CLJ", "OTP", base.plusHours(12), base.plusHours(13), "YR-XYZ")
+        );
+
+        /// When:
+        when(flightRepository.findAllForAircraftBetween(any(), any(), any())).thenReturn(List.of());
+        FlightImportReport report = flightImportService.importFlights(flights);
+
+        /// Then:
+        assertTrue(report.rows().get(0).accepted());
+        assertEquals("Departure airport is closed", report.rows().get(1).message());
+        assertEquals("Aircraft not found", report.rows().get(2).message());
+    }
+
+    @Test
+    void testImportFlightsRejectsOverlapsInsideBatch() {
+        /// Given:
+        List<FlightCreateDTO> flights = List.of(
+                new FlightCreateDTO("RO100", "OTP", "CLJ", base.plusHours(8), base.plusHours(9), "YR-ABC"),
+                new FlightCreateDTO("RO101", "CLJ", "ORY", base.plusHours(12), base.plusHours(15), "YR-ABC"),
+                new FlightCreateDTO("RO102", "CLJ", "OTP", base.plusHours(14), base.plusHours(16), "YR-ABC")
+        );
+
+        /// When:
+        when(flightRepository.findAllForAircraftBetween(any(), any(), any())).thenReturn(List.of());
+        FlightImportReport report = flightImportService.importFlights(flights);
+
+        /// Then:
+        assertEquals(2, report.accepted());
+        assertEquals(1, report.rejected());
+        assertEquals("Flight overlaps another flight in the batch", report.rows().get(2).message());
+        verify(flightRepository, times(1)).saveAll(anyList());
+        verify(aircraftScheduleLock).lock(aircraft.getId());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testFlightNumberBelongsToFirstAcceptedRow() {
+        /// Given:
+        List<FlightCreateDTO> flights = List.of(
+                new FlightCreateDTO("RO100", "OTP", "CLJ", base.plusHours(8), base.plusHours(9), "YR-ABC"),
+                new FlightCreateDTO("RO101", "CLJ", "OTP", base.plusHours(12), base.plusHours(15), "YR-ABC"),
+                new FlightCreateDTO("RO102", "CLJ", "OTP", base.plusHours(14), base.plusHours(16), "YR-ABC"),
+                new FlightCreateDTO("RO102", "OTP", "CLJ", base.plusHours(18), base.plusHours(19), "YR-ABC"),
+                new FlightCreateDTO("RO100", "CLJ", "OTP", base.plusHours(21), base.plusHours(22), "YR-ABC")
+        );
+
+        /// When:
+        when(flightRepository.findAllForAircraftBetween(any(), any(), any())).thenReturn(List.of());
+        FlightImportReport report = flightImportService.importFlights(flights);
+
+        /// Then:
+        List<FlightImportRowResult> rows = report.rows();
+        assertEquals("Flight overlaps another flight in the batch", rows.get(2).message());
+        assertTrue(rows.get(3).accepted());
+        assertEquals("Flight number already exists", rows.get(4).message());
+        assertEquals(3, report.accepted());
+    }
+
+    @Test
+    void testImportFlightsChecksExistingSchedule() {
+        /// Given:
+        Flight existing = new Flight(UUID.randomUUID(), "RO200", "OTP", "ORY", base.plusHours(10), base.plusHours(13), aircraft);
+        List<FlightCreateDTO> flights = List.of(
+                new FlightCreateDTO("RO100", "OTP", "CLJ", base.plusHours(8), base.plusHours(11), "YR-ABC"),
+                new FlightCreateDTO("RO101", "CLJ", "OTP", base.plusHours(15), base.plusHours(16), "YR-ABC"),
+                new FlightCreateDTO("RO102", "ORY", "OTP", base.plusHours(18), base.plusHours(19), "YR-ABC")
+        );
+
+        /// When:
+        when(flightRepository.findAllForAircraftBetween(any(), any(), any())).thenReturn(List.of(existing));
+        FlightImportReport report = flightImportService.importFlights(flights);
+
+        /// Then:
+        List<FlightImportRowResult> rows = report.rows();
+        assertEquals("Flight overlaps assigned aircraft's existing flight", rows.get(0).message());
+        assertEquals("Aircraft cannot reach departure airport", rows.get(1).message());
+        assertTrue(rows.get(2).accepted());
+    }
+
+    @Test
+    void testImportCsvReportsMalformedRows() throws Exception {
+        /// Given:
+        String csv = """
+                flightNumber,departureAirport,arrivalAirport,departureTime,arrivalTime,aircraft
+                RO100,OTP,CLJ,%s,%s,YR-ABC
+                RO101,CLJ
+                RO102,CLJ,CLJ,%s,%s,YR-ABC
+                """.formatted(base.plusHours(8), base.plusHours(9), base.plusHours(12), base.plusHours(13));
+
+        /// When:
+        when(flightRepository.findAllForAircraftBetween(any(), any(), any())).thenReturn(List.of());
+        FlightImportReport report = flightImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        /// Then:
+        assertEquals(3, report.rows().size());
+        assertTrue(report.rows().get(0).accepted());
+        assertEquals("Malformed row: Expected 6 columns but got 2", report.rows().get(1).message());
+        assertEquals("Arrival and departure airports must be different", report.rows().get(2).message());
+    }
+
+    @Test
+    void testImportNdjsonReportsParseReason() throws Exception {
+        /// Given:
+        String ndjson = """
+                {"flightNumber":"RO100","departureAirport":"OTP","arrivalAirport":"CLJ","departureTime":"%s","arrivalTime":"%s","aircraft":"YR-ABC"}
+                {"flightNumber":"RO101","departureTime":"tomorrow"}
+                """.formatted(base.plusHours(8).toOffsetDateTime(), base.plusHours(9).toOffsetDateTime());
+
+        /// When:
+        when(flightRepository.findAllForAircraftBetween(any(), any(), any())).thenReturn(List.of());
+        FlightImportReport report = flightImportService.importNdjson(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        /// Then:
+        assertTrue(report.rows().get(0).accepted());
+        assertTrue(report.rows().get(1).message().startsWith("Malformed row: "));
+        assertTrue(report.rows().get(1).message().contains("tomorrow"));
+    }
+
+    @Test
+    void testImportFlightsRejectsEmptyRows() {
+        /// Given:
+        List<FlightCreateDTO> flights = new ArrayList<>();
+        flights.add(new FlightCreateDTO("RO100", "OTP", "CLJ", base.plusHours(8), base.plusHours(9), "YR-ABC"));
+        flights.add(null);
+
+        /// When:
+        when(flightRepository.findAllForAircraftBetween(any(), any(), any())).thenReturn(List.of());
+        FlightImportReport report = flightImportService.importFlights(flights);
+
+        /// Then:
+        assertTrue(report.rows().get(0).accepted());
+        assertEquals(2, report.rows().get(1).row());
+        assertEquals("Empty row", report.rows().get(1).message());
+    }
+
+    @Test
+    void testImportFlightsRunsOneTransactionPerChunk() {
+        /// Given:
+        List<FlightCreateDTO> flights = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            ZonedDateTime departure = base.plusHours(2L * i);
+            flights.add(new FlightCreateDTO("RO" + (i + 1), i % 2 == 0 ? "OTP" : "CLJ", i % 2 == 0 ? "CLJ" : "OTP",
+                    departure, departure.plusHours(1), "YR-ABC"));
+        }
+
+        /// When:
+        when(flightRepository.findAllForAircraftBetween(any(), any(), any())).thenReturn(List.of());
+        FlightImportReport report = flightImportService.importFlights(flights);
+
+        /// Then:
+        assertEquals(501, report.accepted());
+        assertEquals(501, report.rows().get(500).row());
+        verify(flightRepository, times(2)).findExistingFlightNumbers(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testExclusionViolationRejectsOnlyTheCollidingRow() throws Exception {
+        /// Given:
+        StringBuilder csv = new StringBuilder("flightNumber,departureAirport,arrivalAirport,departureTime,arrivalTime,aircraft\n");
+        for (int i = 0; i < 501; i++) {
+            ZonedDateTime departure = base.plusHours(2L * i);
+            csv.append("RO").append(i + 1).append(i % 2 == 0 ? ",OTP,CLJ," : ",CLJ,OTP,")
+                    .append(departure).append(',').append(departure.plusHours(1)).append(",YR-ABC\n");
+        }
+
+        /// When:
+        when(flightRepository.findAllForAircraftBetween(any(), any(), any())).thenReturn(List.of());
+        failFlushWhenSaving("RO1");
+        FlightImportReport report = flightImportService.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        /// Then:
+        assertEquals(500, report.accepted());
+        assertEquals(1, report.rejected());
+        assertEquals("Flight overlaps assigned aircraft's existing flight", report.rows().get(0).message());
+        assertTrue(report.rows().get(1).accepted());
+        assertTrue(report.rows().get(500).accepted());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void testExclusionViolationDoesNotBlameOtherAircraft() {
+        /// Given:
+        Aircraft other = new Aircraft(UUID.randomUUID(), "YR-DEF", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        when(aircraftRegistry.findAllByRegistrationNumberIn(any())).thenReturn(List.of(aircraft, other));
+        List<FlightCreateDTO> flights = List.of(
+                new FlightCreateDTO("RO100", "OTP", "CLJ", base.plusHours(8), base.plusHours(9), "YR-ABC"),
+                new FlightCreateDTO("RO200", "OTP", "CLJ", base.plusHours(8), base.plusHours(9), "YR-DEF")
+        );
+
+        /// When:
+        when(flightRepository.findAllForAircraftBetween(any(), any(), any())).thenReturn(List.of());
+        failFlushWhenSaving("RO100");
+        FlightImportReport report = flightImportService.importFlights(flights);
+
+        /// Then:
+        assertEquals("Flight overlaps assigned aircraft's existing flight", report.rows().get(0).message());
+        assertTrue(report.rows().get(1).accepted());
+        assertNull(report.rows().get(1).message());
+    }
+
+    // Simulates a flight stored outside the schedule locks: the exclusion constraint fires whenever the flush
+    // includes the given flight
+    private void failFlushWhenSaving(String flightNumber) {
+        SQLException overlap = new SQLException("ERROR: conflicting key value violates exclusion constraint \"ex_flight_aircraft_period\"", "23P01");
+        AtomicReference<List<Flight>> saved = new AtomicReference<>(List.of());
+        when(flightRepository.saveAll(any())).thenAnswer(invocation -> {
+            saved.set(invocation.getArgument(0));
+            return saved.get();
+        });
+        doAnswer(invocation -> {
+            if (saved.get().stream().anyMatch(flight -> flightNumber.equals(flight.getFlightNumber()))) {
+                throw new DataIntegrityViolationException("could not execute statement", overlap);
+            }
+            return null;
+        }).when(flightRepository).flush();
+    }
+
+    // A rule the import knows nothing about, declared like any other FlightRule component
+    private static class ClosedAirportRule implements FlightRule {
+        @Override
+        public String check(Flight flight) {
+            return "TSR".equals(flight.getDepartureAirport()) ? "Departure airport is closed" : null;
+        }
+    }
+}
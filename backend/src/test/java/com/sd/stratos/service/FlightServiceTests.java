@@ -1,23 +1,45 @@
 package com.sd.stratos.service;
 
+import com.sd.stratos.cache.AircraftRegistry;
+import com.sd.stratos.cache.AircraftTypeInfoCache;
+import com.sd.stratos.cache.FlightIntervalIndex;
+import com.sd.stratos.cache.MaintenanceIntervalIndex;
 import com.sd.stratos.dto.FlightCreateDTO;
 import com.sd.stratos.dto.FlightDisplayDTO;
+import com.sd.stratos.dto.FlightFilterDTO;
+import com.sd.stratos.dto.FlightPageDTO;
 import com.sd.stratos.dto.FlightUpdateDTO;
 import com.sd.stratos.entity.Aircraft;
 import com.sd.stratos.entity.AircraftStatus;
 import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.entity.AircraftTypeInfo;
 import com.sd.stratos.entity.Flight;
 import com.sd.stratos.exception.FlightNumberAlreadyExistsException;
 import com.sd.stratos.exception.InvalidFlightEndpointsException;
 import com.sd.stratos.exception.InvalidTimeIntervalException;
-import com.sd.stratos.repository.AircraftRepository;
+import com.sd.stratos.exception.StaleVersionException;
 import com.sd.stratos.repository.FlightRepository;
+import com.sd.stratos.repository.MaintenanceRecordRepository;
+import com.sd.stratos.rule.AircraftContinuityRule;
+import com.sd.stratos.rule.AircraftOperationalRule;
+import com.sd.stratos.rule.AircraftRangeRule;
+import com.sd.stratos.rule.FlightEndpointsRule;
+import com.sd.stratos.rule.FlightOverlapRule;
+import com.sd.stratos.rule.FlightRuleRegistry;
+import com.sd.stratos.rule.FlightTimesRule;
+import com.sd.stratos.rule.MaintenanceOverlapRule;
+import com.sd.stratos.util.SqlStatementListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -33,23 +55,88 @@ public class FlightServiceTests {
     private FlightRepository flightRepository;
 
     @Mock
-    private AircraftRepository aircraftRepository;
+    private AircraftRegistry aircraftRegistry;
+
+    @Mock
+    private AirportService airportService;
+
+    @Mock
+    private AircraftTypeInfoCache aircraftTypeInfoCache;
+
+    @Mock
+    private FlightIntervalIndex flightIntervalIndex;
+
+    @Mock
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    @Mock
+    private MaintenanceIntervalIndex maintenanceIntervalIndex;
+
+    @Mock
+    private AircraftScheduleLock aircraftScheduleLock;
 
-    @InjectMocks
     private FlightService flightService;
 
+    @BeforeEach
+    void setUp() {
+        FlightRuleRegistry flightRuleRegistry = new FlightRuleRegistry(List.of(
+                new FlightTimesRule(),
+                new FlightEndpointsRule(),
+                new AircraftOperationalRule(),
+                new AircraftRangeRule(airportService, aircraftTypeInfoCache),
+                new FlightOverlapRule(flightRepository, flightIntervalIndex),
+                new MaintenanceOverlapRule(maintenanceRecordRepository, maintenanceIntervalIndex),
+                new AircraftContinuityRule(flightRepository, flightIntervalIndex)
+        ), new ParallelValidator(new SqlStatementListener(Duration.ofMillis(500)), 4), new SimpleMeterRegistry());
+        flightService = new FlightService(flightRepository, aircraftRegistry, airportService, aircraftTypeInfoCache,
+                flightIntervalIndex, aircraftScheduleLock, flightRuleRegistry);
+    }
+
     @Test
     void testGetAllFlights() {
         /// Given:
-        List<Flight> flights = List.of(new Flight(), new Flight());
+        ZonedDateTime departure = ZonedDateTime.now().plusHours(2);
+        List<FlightDisplayDTO> flights = List.of(
+                new FlightDisplayDTO(UUID.randomUUID(), "RO100", "OTP", "CLJ", departure, departure.plusHours(1), "YR-ABC"),
+                new FlightDisplayDTO(UUID.randomUUID(), "RO101", "CLJ", "OTP", departure.plusHours(2), departure.plusHours(3), "YR-ABC")
+        );
 
         /// When:
-        when(flightRepository.findAll()).thenReturn(flights);
+        when(flightRepository.findAllForDisplay()).thenReturn(flights);
         List<FlightDisplayDTO> result = flightService.getAllFlights();
 
         /// Then:
         assertEquals(2, result.size());
-        verify(flightRepository, times(1)).findAll();
+        verify(flightRepository, times(1)).findAllForDisplay();
+        verify(flightRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetFlightPageReturnsCursorForNextPage() {
+        /// Given:
+        FlightFilterDTO filter = new FlightFilterDTO("YR-ABC", null, null, null, null);
+        ZonedDateTime departure = ZonedDateTime.parse("2030-01-01T08:00:00Z");
+        FlightDisplayDTO first = new FlightDisplayDTO(UUID.randomUUID(), "RO100", "OTP", "CLJ", departure, departure.plusHours(1), "YR-ABC");
+        FlightDisplayDTO second = new FlightDisplayDTO(UUID.randomUUID(), "RO101", "CLJ", "OTP", departure.plusHours(2), departure.plusHours(3), "YR-ABC");
+
+        /// When:
+        when(flightRepository.findPage("YR-ABC", null, null, null, null, null, null, Limit.of(2))).thenReturn(List.of(first, second));
+        FlightPageDTO page = flightService.getFlightPage(filter, null, 1);
+        when(flightRepository.findPage("YR-ABC", null, null, null, null, departure, first.id(), Limit.of(2))).thenReturn(List.of(second));
+        FlightPageDTO nextPage = flightService.getFlightPage(filter, page.nextCursor(), 1);
+
+        /// Then:
+        assertEquals(List.of(first), page.items());
+        assertNotNull(page.nextCursor());
+        assertEquals(List.of(second), nextPage.items());
+        assertNull(nextPage.nextCursor());
+    }
+
+    @Test
+    void testGetFlightPageWithInvalidCursor() {
+        /// Then:
+        assertThrows(IllegalArgumentException.class,
+                () -> flightService.getFlightPage(new FlightFilterDTO(null, null, null, null, null), "not-a-cursor", 10));
     }
 
     @Test
@@ -61,14 +148,36 @@ public class FlightServiceTests {
 
         /// When:
         when(flightRepository.findByFlightNumber("FL123")).thenReturn(Optional.empty());
-        when(aircraftRepository.findById(any())).thenReturn(Optional.of(aircraft));
-        when(aircraftRepository.findAircraftByRegistrationNumber(any())).thenReturn(Optional.of(aircraft));
-        when(flightRepository.save(any(Flight.class))).thenReturn(savedFlight);
+        when(aircraftRegistry.findByRegistrationNumber(any())).thenReturn(Optional.of(aircraft));
+        when(aircraftTypeInfoCache.get(AircraftType.A320)).thenReturn(Optional.of(new AircraftTypeInfo(AircraftType.A320, 450, 3300)));
+        when(flightRepository.saveAndFlush(any(Flight.class))).thenReturn(savedFlight);
         Flight result = flightService.addFlight(flightCreateDTO);
 
         /// Then:
         assertEquals(savedFlight, result);
-        verify(flightRepository, times(1)).save(any(Flight.class));
+        verify(flightRepository, times(1)).saveAndFlush(any(Flight.class));
+    }
+
+    @Test
+    void testAddFlightMapsExclusionConstraintViolation() {
+        /// Given:
+        Aircraft aircraft = new Aircraft(UUID.randomUUID(), "YR-ABC", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        FlightCreateDTO flightCreateDTO = new FlightCreateDTO("FL123", "OTP", "JFK", ZonedDateTime.now().plusHours(2), ZonedDateTime.now().plusHours(6), "YR-ABC");
+        SQLException overlap = new SQLException("ERROR: conflicting key value violates exclusion constraint \"ex_flight_aircraft_period\"", "23P01");
+        SQLException duplicate = new SQLException("ERROR: duplicate key value violates unique constraint \"flight_flight_number_key\"", "23505");
+
+        /// When:
+        when(flightRepository.findByFlightNumber("FL123")).thenReturn(Optional.empty());
+        when(aircraftRegistry.findByRegistrationNumber(any())).thenReturn(Optional.of(aircraft));
+        when(aircraftTypeInfoCache.get(AircraftType.A320)).thenReturn(Optional.of(new AircraftTypeInfo(AircraftType.A320, 450, 3300)));
+        when(flightRepository.saveAndFlush(any(Flight.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", overlap))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", duplicate));
+
+        /// Then:
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> flightService.addFlight(flightCreateDTO));
+        assertEquals("Flight overlaps assigned aircraft's existing flight", exception.getMessage());
+        assertThrows(DataIntegrityViolationException.class, () -> flightService.addFlight(flightCreateDTO));
     }
 
     @Test
@@ -90,8 +199,7 @@ public class FlightServiceTests {
         FlightCreateDTO flightCreateDTO = new FlightCreateDTO("FL124", "OTP", "JFK", ZonedDateTime.now().plusHours(6), ZonedDateTime.now().plusHours(2), "YR-ABC");
 
         /// When:
-        lenient().when(aircraftRepository.findById(any())).thenReturn(Optional.of(new Aircraft()));
-        lenient().when(aircraftRepository.findAircraftByRegistrationNumber(any())).thenReturn(Optional.of(new Aircraft()));
+        lenient().when(aircraftRegistry.findByRegistrationNumber(any())).thenReturn(Optional.of(new Aircraft()));
 
         /// Then:
         assertThrows(InvalidTimeIntervalException.class, () -> flightService.addFlight(flightCreateDTO));
@@ -109,8 +217,7 @@ public class FlightServiceTests {
 
         /// When:
         when(flightRepository.findByFlightNumber("FL125")).thenReturn(Optional.empty());
-        when(aircraftRepository.findById(any())).thenReturn(Optional.of(aircraft));
-        when(aircraftRepository.findAircraftByRegistrationNumber(registrationNumber)).thenReturn(Optional.of(aircraft));
+        when(aircraftRegistry.findByRegistrationNumber(registrationNumber)).thenReturn(Optional.of(aircraft));
 
         /// Then:
         assertThrows(InvalidFlightEndpointsException.class, () -> flightService.addFlight(flightCreateDTO));
@@ -131,8 +238,8 @@ public class FlightServiceTests {
 
         /// When:
         when(flightRepository.findByFlightNumber("FL999")).thenReturn(Optional.empty());
-        when(aircraftRepository.findAircraftByRegistrationNumber(registrationNumber)).thenReturn(Optional.of(aircraft));
-        when(aircraftRepository.findById(any())).thenReturn(Optional.of(aircraft));
+        when(aircraftRegistry.findByRegistrationNumber(registrationNumber)).thenReturn(Optional.of(aircraft));
+        when(aircraftTypeInfoCache.get(AircraftType.A320)).thenReturn(Optional.of(new AircraftTypeInfo(AircraftType.A320, 450, 3300)));
         when(flightRepository.existsOverlappingFlight(null, aircraft.getId(), newDeparture, newArrival)).thenReturn(true);
 
         /// Then:
@@ -168,17 +275,39 @@ public class FlightServiceTests {
 
         /// When:
         when(flightRepository.findById(flightId)).thenReturn(Optional.of(existingFlight));
-        when(aircraftRepository.findById(aircraft.getId())).thenReturn(Optional.of(aircraft));
-        lenient().when(aircraftRepository.findAircraftByRegistrationNumber(registrationNumber)).thenReturn(Optional.of(aircraft));
+        lenient().when(aircraftRegistry.findByRegistrationNumber(registrationNumber)).thenReturn(Optional.of(aircraft));
         when(flightRepository.existsOverlappingFlight(existingFlight.getId(), aircraft.getId(), departureTime, arrivalTime)).thenReturn(false);
         when(flightRepository.findLastFlightBefore(aircraft, departureTime)).thenReturn(Optional.empty());
-        when(flightRepository.save(any(Flight.class))).thenReturn(updatedFlight);
+        when(aircraftTypeInfoCache.get(AircraftType.A320)).thenReturn(Optional.of(new AircraftTypeInfo(AircraftType.A320, 450, 3300)));
+        when(flightRepository.saveAndFlush(any(Flight.class))).thenReturn(updatedFlight);
 
         /// Then:
-        Flight result = flightService.updateFlight(flightId, flightUpdateDTO);
+        Flight result = flightService.updateFlight(flightId, flightUpdateDTO, null);
         assertEquals(updatedFlight, result);
         verify(flightRepository, times(1)).findById(flightId);
-        verify(flightRepository, times(1)).save(any(Flight.class));
+        verify(flightRepository, times(1)).saveAndFlush(any(Flight.class));
+    }
+
+    @Test
+    void testUpdateFlightLocksBothAircraftAndRejectsStaleVersion() {
+        /// Given:
+        UUID flightId = UUID.randomUUID();
+        Aircraft current = new Aircraft(UUID.randomUUID(), "YR-ABC", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        Aircraft target = new Aircraft(UUID.randomUUID(), "YR-DEF", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        ZonedDateTime departureTime = ZonedDateTime.now().plusHours(3);
+        Flight existingFlight = new Flight(flightId, "FL126", "OTP", "LHR", departureTime, departureTime.plusHours(4), current, 3L);
+        FlightUpdateDTO flightUpdateDTO = new FlightUpdateDTO(flightId, "FL126", "OTP", "JFK", departureTime, departureTime.plusHours(4), "YR-DEF");
+
+        /// When:
+        when(flightRepository.findById(flightId)).thenReturn(Optional.of(existingFlight));
+        when(aircraftRegistry.findByRegistrationNumber("YR-DEF")).thenReturn(Optional.of(target));
+
+        /// Then:
+        StaleVersionException exception = assertThrows(StaleVersionException.class, () -> flightService.updateFlight(flightId, flightUpdateDTO, 2L));
+        assertEquals("Flight was changed by another request", exception.getMessage());
+        verify(aircraftScheduleLock).lock(current.getId(), target.getId());
+        assertEquals("LHR", existingFlight.getArrivalAirport());
+        verify(flightRepository, never()).saveAndFlush(any(Flight.class));
     }
 
 
@@ -0,0 +1,117 @@
+package com.sd.stratos.service;
+
+import com.sd.stratos.dto.FlightDisplayDTO;
+import com.sd.stratos.dto.MaintenanceRecordListDTO;
+import com.sd.stratos.entity.*;
+import com.sd.stratos.repository.AircraftRepository;
+import com.sd.stratos.repository.FlightRepository;
+import com.sd.stratos.repository.MaintenanceRecordRepository;
+import com.sd.stratos.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
+public class ListQueryStatementCountTests {
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private MaintenanceRecordService maintenanceRecordService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private AircraftRepository aircraftRepository;
+
+    @Autowired
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Flight> flights = new ArrayList<>();
+    private final List<MaintenanceRecord> maintenanceRecords = new ArrayList<>();
+    private final List<Aircraft> aircraft = new ArrayList<>();
+    private User engineer;
+
+    @BeforeEach
+    void setUp() {
+        ZonedDateTime base = ZonedDateTime.parse("2031-06-01T00:00:00Z");
+        engineer = userRepository.save(new User(null, "statement-count-engineer", "secret", UserRole.ENGINEER, "otp-secret", false));
+        for (String registration : List.of("SC-AAA", "SC-BBB", "SC-CCC")) {
+            aircraft.add(aircraftRepository.save(new Aircraft(null, registration, AircraftType.A320, AircraftStatus.OPERATIONAL)));
+        }
+        for (int i = 0; i < aircraft.size(); i++) {
+            Aircraft assigned = aircraft.get(i);
+            flights.add(flightRepository.save(new Flight(null, "SC" + (i + 1), "OTP", "CLJ", base.plusHours(i), base.plusHours(i).plusMinutes(50), assigned)));
+            maintenanceRecords.add(maintenanceRecordRepository.save(new MaintenanceRecord(null, assigned, engineer, MaintenanceType.ROUTINE,
+                    base.plusDays(1 + i), base.plusDays(1 + i).plusHours(4), MaintenanceStatus.SCHEDULED)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        maintenanceRecordRepository.deleteAll(maintenanceRecords);
+        flightRepository.deleteAll(flights);
+        aircraftRepository.deleteAll(aircraft);
+        userRepository.delete(engineer);
+    }
+
+    @Test
+    void testGetAllFlightsRunsSingleStatement() {
+        /// Given:
+        Statistics statistics = statistics();
+
+        /// When:
+        List<FlightDisplayDTO> result = flightService.getAllFlights();
+
+        /// Then:
+        assertTrue(result.size() >= flights.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetMaintenanceRecordsRunsSingleStatement() {
+        /// Given:
+        Statistics statistics = statistics();
+
+        /// When:
+        List<MaintenanceRecordListDTO> result = maintenanceRecordService.getMaintenanceRecords(
+                null, null, engineer.getId(), null, "startDate", "asc");
+
+        /// Then:
+        assertEquals(maintenanceRecords.size(), result.size());
+        assertEquals("SC-AAA", result.getFirst().aircraft().registrationNumber());
+        assertEquals("statement-count-engineer", result.getFirst().engineer().username());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
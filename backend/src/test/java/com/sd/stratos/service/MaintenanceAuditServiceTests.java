@@ -0,0 +1,114 @@
+package com.sd.stratos.service;
+
+import com.sd.stratos.dto.MaintenanceAuditEntryDTO;
+import com.sd.stratos.dto.MaintenanceAuditFilterDTO;
+import com.sd.stratos.dto.MaintenanceAuditPageDTO;
+import com.sd.stratos.entity.ActionType;
+import com.sd.stratos.entity.MaintenanceRecordLogEntry;
+import com.sd.stratos.repository.MaintenanceRecordLogEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class MaintenanceAuditServiceTests {
+
+    private static final String AIRCRAFT = "AU-DIT";
+
+    @Autowired
+    private MaintenanceAuditService maintenanceAuditService;
+
+    @Autowired
+    private MaintenanceRecordLogEntryRepository maintenanceRecordLogEntryRepository;
+
+    private final List<MaintenanceRecordLogEntry> entries = new ArrayList<>();
+    private final UUID recordId = UUID.randomUUID();
+    private final LocalDateTime base = LocalDateTime.parse("2031-03-01T08:00:00");
+
+    @BeforeEach
+    void setUp() {
+        List<ActionType> actions = List.of(ActionType.CREATED, ActionType.UPDATED, ActionType.UPDATED, ActionType.UPDATED, ActionType.DELETED);
+        for (int i = 0; i < actions.size(); i++) {
+            // the two middle updates share a timestamp so paging has to fall back to the id
+            LocalDateTime timestamp = base.plusMinutes(i == 2 ? 1 : i);
+            entries.add(new MaintenanceRecordLogEntry(actions.get(i), recordId, AIRCRAFT, "audit-engineer", timestamp, ""));
+        }
+        maintenanceRecordLogEntryRepository.saveAll(entries);
+    }
+
+    @AfterEach
+    void tearDown() {
+        maintenanceRecordLogEntryRepository.deleteAll(entries);
+    }
+
+    @Test
+    void testGetAuditPageWalksAllEntriesByCursor() {
+        /// Given:
+        MaintenanceAuditFilterDTO filter = new MaintenanceAuditFilterDTO(null, AIRCRAFT, null, null, null, null);
+        List<UUID> seen = new ArrayList<>();
+
+        /// When:
+        String cursor = null;
+        int pages = 0;
+        do {
+            MaintenanceAuditPageDTO page = maintenanceAuditService.getAuditPage(filter, cursor, 2);
+            page.items().forEach(entry -> seen.add(entry.logEntryId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        /// Then:
+        assertEquals(3, pages);
+        assertEquals(entries.size(), seen.size());
+        assertEquals(entries.size(), seen.stream().distinct().count());
+        assertEquals(entries.getFirst().getLogEntryId(), seen.getFirst());
+        assertEquals(entries.getLast().getLogEntryId(), seen.getLast());
+    }
+
+    @Test
+    void testGetAuditPageFilters() {
+        /// Given:
+        MaintenanceAuditFilterDTO updates = new MaintenanceAuditFilterDTO(recordId, null, "audit-engineer", ActionType.UPDATED, null, null);
+        MaintenanceAuditFilterDTO window = new MaintenanceAuditFilterDTO(null, AIRCRAFT, null, null, base.plusMinutes(3), base.plusMinutes(10));
+
+        /// When:
+        MaintenanceAuditPageDTO updatePage = maintenanceAuditService.getAuditPage(updates, null, 100);
+        MaintenanceAuditPageDTO windowPage = maintenanceAuditService.getAuditPage(window, null, 100);
+
+        /// Then:
+        assertEquals(3, updatePage.items().size());
+        assertNull(updatePage.nextCursor());
+        assertEquals(List.of(ActionType.UPDATED, ActionType.DELETED), windowPage.items().stream().map(MaintenanceAuditEntryDTO::actionType).toList());
+    }
+
+    @Test
+    void testStreamAudit() {
+        /// Given:
+        List<MaintenanceAuditEntryDTO> streamed = new ArrayList<>();
+
+        /// When:
+        maintenanceAuditService.streamAudit(new MaintenanceAuditFilterDTO(recordId, null, null, null, null, null), streamed::add);
+
+        /// Then:
+        assertEquals(entries.size(), streamed.size());
+        assertEquals(ActionType.CREATED, streamed.getFirst().actionType());
+    }
+
+    @Test
+    void testInvalidCursor() {
+        /// Then:
+        MaintenanceAuditFilterDTO filter = new MaintenanceAuditFilterDTO(null, AIRCRAFT, null, null, null, null);
+        assertThrows(IllegalArgumentException.class, () -> maintenanceAuditService.getAuditPage(filter, "not-a-cursor", 10));
+    }
+}
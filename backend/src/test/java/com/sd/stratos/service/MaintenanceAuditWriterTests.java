@@ -0,0 +1,99 @@
+package com.sd.stratos.service;
+
+import com.sd.stratos.entity.ActionType;
+import com.sd.stratos.entity.MaintenanceAuditOutboxEntry;
+import com.sd.stratos.entity.MaintenanceRecordLogEntry;
+import com.sd.stratos.repository.MaintenanceAuditOutboxRepository;
+import com.sd.stratos.repository.MaintenanceRecordLogEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MaintenanceAuditWriterTests {
+
+    @Mock
+    private MaintenanceAuditOutboxRepository outboxRepository;
+
+    @Mock
+    private MaintenanceRecordLogEntryRepository logEntryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MaintenanceAuditWriter maintenanceAuditWriter;
+
+    private final List<MaintenanceAuditOutboxEntry> outbox = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        maintenanceAuditWriter = new MaintenanceAuditWriter(outboxRepository, logEntryRepository, transactionManager);
+        lenient().when(outboxRepository.save(any())).thenAnswer(invocation -> {
+            MaintenanceAuditOutboxEntry entry = invocation.getArgument(0);
+            entry.setId(UUID.randomUUID());
+            outbox.add(entry);
+            return entry;
+        });
+        lenient().when(outboxRepository.lockAllById(any())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            return outbox.stream().filter(entry -> ids.contains(entry.getId())).toList();
+        });
+    }
+
+    @Test
+    void testRecordedEntriesAreWrittenInBatches() {
+        /// Given:
+        int entries = MaintenanceAuditWriter.BATCH_SIZE + 10;
+        for (int i = 0; i < entries; i++) {
+            maintenanceAuditWriter.record(logEntry(ActionType.UPDATED));
+        }
+
+        /// When:
+        maintenanceAuditWriter.flushPending();
+
+        /// Then:
+        ArgumentCaptor<List<MaintenanceRecordLogEntry>> written = ArgumentCaptor.captor();
+        verify(logEntryRepository, times(2)).saveAll(written.capture());
+        assertEquals(MaintenanceAuditWriter.BATCH_SIZE, written.getAllValues().get(0).size());
+        assertEquals(10, written.getAllValues().get(1).size());
+        assertEquals(ActionType.UPDATED, written.getAllValues().get(0).getFirst().getActionType());
+        verify(outboxRepository, times(2)).deleteAllInBatch(anyList());
+        verify(logEntryRepository, never()).save(any());
+    }
+
+    @Test
+    void testFailedFlushLeavesEntriesForSweep() {
+        /// Given:
+        maintenanceAuditWriter.record(logEntry(ActionType.CREATED));
+        when(logEntryRepository.saveAll(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(List.of());
+
+        /// When:
+        maintenanceAuditWriter.flushPending();
+        when(outboxRepository.findAllByOrderByTimestampAsc(any())).thenReturn(List.copyOf(outbox));
+        maintenanceAuditWriter.sweep();
+
+        /// Then:
+        verify(logEntryRepository, times(2)).saveAll(anyList());
+        verify(outboxRepository, times(1)).deleteAllInBatch(outbox);
+    }
+
+    private static MaintenanceRecordLogEntry logEntry(ActionType actionType) {
+        return new MaintenanceRecordLogEntry(actionType, UUID.randomUUID(), "YR-ABC", "engineer", LocalDateTime.now(), "");
+    }
+}
@@ -0,0 +1,135 @@
+package com.sd.stratos.service;
+
+import com.sd.stratos.cache.AircraftRegistry;
+import com.sd.stratos.cache.FlightIntervalIndex;
+import com.sd.stratos.cache.MaintenanceIntervalIndex;
+import com.sd.stratos.dto.MaintenanceRecordCreateDTO;
+import com.sd.stratos.entity.Aircraft;
+import com.sd.stratos.entity.AircraftStatus;
+import com.sd.stratos.entity.AircraftType;
+import com.sd.stratos.entity.Flight;
+import com.sd.stratos.entity.MaintenanceRecord;
+import com.sd.stratos.entity.MaintenanceStatus;
+import com.sd.stratos.entity.MaintenanceType;
+import com.sd.stratos.entity.User;
+import com.sd.stratos.repository.FlightRepository;
+import com.sd.stratos.repository.MaintenanceRecordRepository;
+import com.sd.stratos.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MaintenanceRecordServiceTests {
+
+    @Mock
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    @Mock
+    private AircraftRegistry aircraftRegistry;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MaintenanceAuditWriter maintenanceAuditWriter;
+
+    @Spy
+    private MaintenanceIntervalIndex maintenanceIntervalIndex = new MaintenanceIntervalIndex();
+
+    @Mock
+    private AircraftScheduleLock aircraftScheduleLock;
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Spy
+    private FlightIntervalIndex flightIntervalIndex = new FlightIntervalIndex();
+
+    @InjectMocks
+    private MaintenanceRecordService maintenanceRecordService;
+
+    @Test
+    void testAddPastMaintenanceOverlappingOlderRecordIsCheckedInDatabase() {
+        /// Given:
+        Aircraft aircraft = new Aircraft(UUID.randomUUID(), "YR-ABC", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        User engineer = new User();
+        engineer.setId(UUID.randomUUID());
+        ZonedDateTime start = ZonedDateTime.now().minusDays(10);
+        ZonedDateTime end = start.plusDays(2);
+        MaintenanceRecordCreateDTO dto = new MaintenanceRecordCreateDTO(
+                "YR-ABC", engineer.getId(), start, end, MaintenanceType.ROUTINE, MaintenanceStatus.COMPLETED);
+        // Warm, but only for windows ending in the last 24 hours; the overlapping record is older than that
+        maintenanceIntervalIndex.load(List.of(), ZonedDateTime.now().minusHours(24).toInstant());
+
+        /// When:
+        when(aircraftRegistry.findByRegistrationNumber("YR-ABC")).thenReturn(Optional.of(aircraft));
+        when(userRepository.findById(engineer.getId())).thenReturn(Optional.of(engineer));
+        when(maintenanceRecordRepository.existsOverlappingMaintenance(null, aircraft.getId(), start, end)).thenReturn(true);
+
+        /// Then:
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> maintenanceRecordService.addMaintenanceRecord(dto));
+        assertEquals("Overlaps existing maintenance", exception.getMessage());
+        verify(maintenanceRecordRepository, never()).saveAndFlush(any(MaintenanceRecord.class));
+    }
+
+    @Test
+    void testAddMaintenanceOverScheduledFlightIsRejected() {
+        /// Given:
+        Aircraft aircraft = new Aircraft(UUID.randomUUID(), "YR-ABC", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        User engineer = new User();
+        engineer.setId(UUID.randomUUID());
+        ZonedDateTime start = ZonedDateTime.now().plusDays(3);
+        Flight flight = new Flight(UUID.randomUUID(), "RO100", "OTP", "CLJ", start.plusHours(2), start.plusHours(3), aircraft);
+        MaintenanceRecordCreateDTO dto = new MaintenanceRecordCreateDTO(
+                "YR-ABC", engineer.getId(), start, start.plusHours(6), MaintenanceType.ROUTINE, MaintenanceStatus.SCHEDULED);
+        maintenanceIntervalIndex.load(List.of(), ZonedDateTime.now().minusHours(24).toInstant());
+        flightIntervalIndex.load(List.of(flight), ZonedDateTime.now().minusHours(24).toInstant());
+
+        /// When:
+        when(aircraftRegistry.findByRegistrationNumber("YR-ABC")).thenReturn(Optional.of(aircraft));
+        when(userRepository.findById(engineer.getId())).thenReturn(Optional.of(engineer));
+
+        /// Then:
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> maintenanceRecordService.addMaintenanceRecord(dto));
+        assertEquals("Overlaps scheduled flight", exception.getMessage());
+        verify(maintenanceRecordRepository, never()).saveAndFlush(any(MaintenanceRecord.class));
+        verifyNoInteractions(flightRepository);
+    }
+
+    @Test
+    void testAddPastMaintenanceOverOlderFlightIsCheckedInDatabase() {
+        /// Given:
+        Aircraft aircraft = new Aircraft(UUID.randomUUID(), "YR-ABC", AircraftType.A320, AircraftStatus.OPERATIONAL);
+        User engineer = new User();
+        engineer.setId(UUID.randomUUID());
+        ZonedDateTime start = ZonedDateTime.now().minusDays(10);
+        ZonedDateTime end = start.plusDays(2);
+        MaintenanceRecordCreateDTO dto = new MaintenanceRecordCreateDTO(
+                "YR-ABC", engineer.getId(), start, end, MaintenanceType.ROUTINE, MaintenanceStatus.COMPLETED);
+        flightIntervalIndex.load(List.of(), ZonedDateTime.now().minusHours(24).toInstant());
+
+        /// When:
+        when(aircraftRegistry.findByRegistrationNumber("YR-ABC")).thenReturn(Optional.of(aircraft));
+        when(userRepository.findById(engineer.getId())).thenReturn(Optional.of(engineer));
+        when(flightRepository.existsOverlappingFlight(null, aircraft.getId(), start, end)).thenReturn(true);
+
+        /// Then:
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> maintenanceRecordService.addMaintenanceRecord(dto));
+        assertEquals("Overlaps scheduled flight", exception.getMessage());
+        verify(maintenanceRecordRepository, never()).saveAndFlush(any(MaintenanceRecord.class));
+    }
+}
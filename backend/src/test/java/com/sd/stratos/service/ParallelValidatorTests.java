@@ -0,0 +1,125 @@
+package com.sd.stratos.service;
+
+import com.sd.stratos.util.SqlStatementListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelValidatorTests {
+
+    private final ParallelValidator parallelValidator = new ParallelValidator(new SqlStatementListener(Duration.ofMillis(500)), 4);
+
+    @AfterEach
+    void tearDown() {
+        parallelValidator.stop();
+    }
+
+    @Test
+    void testDatabaseChecksRunConcurrently() {
+        /// Given:
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ValidationCheck first = new ValidationCheck(true, () -> rendezvous(bothStarted));
+        ValidationCheck second = new ValidationCheck(true, () -> rendezvous(bothStarted));
+
+        /// Then:
+        assertEquals(Optional.empty(), parallelValidator.firstViolation(List.of(first, second, new ValidationCheck(false, () -> null))));
+    }
+
+    @Test
+    void testFirstViolationInListOrderIsReported() {
+        /// Given:
+        ValidationCheck slowViolation = new ValidationCheck(true, () -> {
+            sleep(100);
+            return "first";
+        });
+        ValidationCheck fastViolation = new ValidationCheck(true, () -> "second");
+
+        /// When:
+        Optional<ParallelValidator.Violation> violation = parallelValidator.firstViolation(List.of(slowViolation, fastViolation));
+
+        /// Then:
+        assertEquals(Optional.of(new ParallelValidator.Violation(0, "first")), violation);
+    }
+
+    @Test
+    void testLaterLookupsFinishUninterruptedAfterViolation() {
+        /// Given:
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        ValidationCheck violation = new ValidationCheck(true, () -> {
+            await(slowStarted);
+            return "rejected";
+        });
+        ValidationCheck slow = new ValidationCheck(true, () -> {
+            slowStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            finished.countDown();
+            return null;
+        });
+
+        /// When:
+        assertTrue(parallelValidator.firstViolation(List.of(violation, slow)).isPresent());
+        release.countDown();
+
+        /// Then:
+        assertDoesNotThrow(() -> assertTrue(finished.await(5, TimeUnit.SECONDS)));
+        assertFalse(interrupted.get());
+    }
+
+    @Test
+    void testInMemoryViolationIsReportedBeforeAnyLookup() {
+        /// Given:
+        CountDownLatch lookedUp = new CountDownLatch(1);
+        ValidationCheck lookup = new ValidationCheck(true, () -> {
+            lookedUp.countDown();
+            return "lookup";
+        });
+
+        /// When:
+        Optional<ParallelValidator.Violation> violation = parallelValidator.firstViolation(
+                List.of(lookup, lookup, new ValidationCheck(false, () -> "in memory")));
+
+        /// Then:
+        assertEquals(Optional.of(new ParallelValidator.Violation(2, "in memory")), violation);
+        assertEquals(1, lookedUp.getCount());
+    }
+
+    private static String rendezvous(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS) ? null : "checks ran one after another";
+        } catch (InterruptedException e) {
+            return "interrupted";
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.sd.stratos.service;
+
+import com.sd.stratos.cache.AircraftRegistry;
+import com.sd.stratos.cache.AircraftTypeInfoCache;
+import com.sd.stratos.cache.FlightIntervalIndex;
+import com.sd.stratos.cache.MaintenanceIntervalIndex;
+import com.sd.stratos.dto.FlightAssignmentLegDTO;
+import com.sd.stratos.dto.FlightAssignmentReport;
+import com.sd.stratos.dto.FlightAssignmentResultDTO;
+import com.sd.stratos.dto.FlightCreateDTO;
+import com.sd.stratos.entity.*;
+import com.sd.stratos.repository.FlightRepository;
+import com.sd.stratos.repository.MaintenanceRecordRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TailAssignmentServiceTests {
+
+    @Mock
+    private AircraftRegistry aircraftRegistry;
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+
+    @Mock
+    private AirportService airportService;
+
+    @Mock
+    private AircraftTypeInfoCache aircraftTypeInfoCache;
+
+    @Mock
+    private FlightImportService flightImportService;
+
+    private TailAssignmentService tailAssignmentService;
+
+    private final Aircraft first = new Aircraft(UUID.randomUUID(), "YR-AAA", AircraftType.A320, AircraftStatus.OPERATIONAL);
+    private final Aircraft second = new Aircraft(UUID.randomUUID(), "YR-BBB", AircraftType.A320, AircraftStatus.OPERATIONAL);
+    private final Aircraft widebody = new Aircraft(UUID.randomUUID(), "YR-WWW", AircraftType.A380, AircraftStatus.OPERATIONAL);
+    private final ZonedDateTime base = ZonedDateTime.now().plusDays(2).truncatedTo(ChronoUnit.DAYS);
+
+    @BeforeEach
+    void setUp() {
+        tailAssignmentService = new TailAssignmentService(
+                aircraftRegistry,
+                flightRepository,
+                maintenanceRecordRepository,
+                new FlightIntervalIndex(),
+                new MaintenanceIntervalIndex(),
+                airportService,
+                aircraftTypeInfoCache,
+                flightImportService,
+                Validation.buildDefaultValidatorFactory().getValidator()
+        );
+        lenient().when(aircraftTypeInfoCache.getAll()).thenReturn(Map.of(
+                AircraftType.A320, new AircraftTypeInfo(AircraftType.A320, 450, 3300),
+                AircraftType.A380, new AircraftTypeInfo(AircraftType.A380, 490, 8000)));
+        lenient().when(aircraftRegistry.findAllOperational()).thenReturn(List.of(first, second, widebody));
+        lenient().when(flightRepository.findExistingFlightNumbers(any())).thenReturn(List.of());
+        lenient().when(airportService.getDistanceBetween(anyString(), anyString())).thenReturn(300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tailAssignmentService.stop();
+    }
+
+    @Test
+    void testAssignChainsConnectingLegsOnOneAircraft() {
+        /// Given:
+        List<FlightAssignmentLegDTO> legs = List.of(
+                leg("RO100", "OTP", "CLJ", 8, 9),
+                leg("RO101", "CLJ", "OTP", 10, 11),
+                leg("RO102", "OTP", "ORY", 8, 11)
+        );
+
+        /// When:
+        FlightAssignmentReport report = tailAssignmentService.assign(legs, false);
+
+        /// Then:
+        assertEquals(3, report.assigned());
+        assertEquals("YR-AAA", report.flights().get(0).aircraft());
+        assertEquals("YR-AAA", report.flights().get(1).aircraft());
+        assertEquals("YR-BBB", report.flights().get(2).aircraft());
+        assertEquals(AircraftType.A320, report.flights().get(0).aircraftType());
+        assertNull(report.saved());
+        verifyNoInteractions(flightImportService);
+    }
+
+    @Test
+    void testFlightNumberBelongsToFirstAssignedLeg() {
+        /// Given:
+        List<FlightAssignmentLegDTO> legs = List.of(
+                leg("RO100", "OTP", "CLJ", 8, 9),
+                leg("RO101", "OTP", "IAS", 8, 9),
+                leg("RO102", "OTP", "ORY", 8, 9),
+                leg("RO102", "CLJ", "ORY", 12, 13),
+                leg("RO100", "IAS", "OTP", 12, 13)
+        );
+
+        /// When:
+        FlightAssignmentReport report = tailAssignmentService.assign(legs, false);
+
+        /// Then:
+        assertEquals("No available aircraft can fly the flight", report.flights().get(2).message());
+        assertEquals("YR-AAA", report.flights().get(3).aircraft());
+        assertEquals("Flight number already exists", report.flights().get(4).message());
+        assertEquals(3, report.assigned());
+    }
+
+    @Test
+    void testAssignAvoidsExistingFlightsAndMaintenance() {
+        /// Given:
+        Flight existing = new Flight(UUID.randomUUID(), "RO900", "OTP", "CLJ", base.plusHours(7), base.plusHours(9), first);
+        MaintenanceRecord maintenance = new MaintenanceRecord(UUID.randomUUID(), second, null, MaintenanceType.ROUTINE,
+                base.plusHours(6), base.plusHours(12), MaintenanceStatus.SCHEDULED);
+        when(flightRepository.findAllForAircraftBetween(anyCollection(), any(), any())).thenReturn(List.of(existing));
+        when(maintenanceRecordRepository.findAllForAircraftBetween(anyCollection(), any(), any())).thenReturn(List.of(maintenance));
+
+        /// When:
+        FlightAssignmentReport report = tailAssignmentService.assign(List.of(
+                leg("RO100", "OTP", "IAS", 8, 9),
+                leg("RO101", "CLJ", "OTP", 10, 11),
+                leg("RO102", "IAS", "OTP", 10, 11)
+        ), false);
+
+        /// Then:
+        assertFalse(report.flights().get(0).assigned());
+        assertEquals("No available aircraft can fly the flight", report.flights().get(0).message());
+        assertEquals("YR-AAA", report.flights().get(1).aircraft());
+        assertFalse(report.flights().get(2).assigned());
+    }
+
+    @Test
+    void testAssignPicksShortestRangeTypeThatCanFly() {
+        /// Given:
+        when(airportService.getDistanceBetween("OTP", "JFK")).thenReturn(5000);
+        when(airportService.getDistanceBetween("OTP", "SYD")).thenReturn(9000);
+
+        /// When:
+        FlightAssignmentReport report = tailAssignmentService.assign(List.of(
+                leg("RO100", "OTP", "CLJ", 8, 9),
+                leg("RO101", "OTP", "JFK", 8, 18),
+                leg("RO102", "OTP", "SYD", 8, 23),
+                new FlightAssignmentLegDTO("RO103", "OTP", "JFK", base.plusHours(20), base.plusHours(30), AircraftType.A320)
+        ), false);
+
+        /// Then:
+        assertEquals(AircraftType.A320, report.flights().get(0).aircraftType());
+        assertEquals("YR-WWW", report.flights().get(1).aircraft());
+        assertEquals("No aircraft type has enough range to complete flight", report.flights().get(2).message());
+        assertEquals("Aircraft doesn't have enough range to complete flight", report.flights().get(3).message());
+    }
+
+    @Test
+    void testAssignLargeScheduleKeepsEveryAircraftConsistent() {
+        /// Given:
+        List<Aircraft> fleet = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            fleet.add(new Aircraft(UUID.randomUUID(), "YR-%03d".formatted(i), i % 2 == 0 ? AircraftType.A320 : AircraftType.B737, AircraftStatus.OPERATIONAL));
+        }
+        when(aircraftRegistry.findAllOperational()).thenReturn(fleet);
+        when(aircraftTypeInfoCache.getAll()).thenReturn(Map.of(
+                AircraftType.A320, new AircraftTypeInfo(AircraftType.A320, 450, 3300),
+                AircraftType.B737, new AircraftTypeInfo(AircraftType.B737, 450, 3500)));
+        List<String> airports = List.of("OTP", "CLJ", "IAS", "TSR");
+        List<FlightAssignmentLegDTO> legs = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            ZonedDateTime departure = base.plusMinutes(i * 7L);
+            legs.add(new FlightAssignmentLegDTO("RO" + (i + 1), airports.get(i % 4), airports.get((i + 1) % 4),
+                    departure, departure.plusMinutes(50), i % 3 == 0 ? AircraftType.B737 : null));
+        }
+
+        /// When:
+        FlightAssignmentReport report = tailAssignmentService.assign(legs, false);
+
+        /// Then:
+        assertEquals(legs.size(), report.assigned());
+        Map<String, List<Integer>> legsByAircraft = new HashMap<>();
+        for (int i = 0; i < legs.size(); i++) {
+            legsByAircraft.computeIfAbsent(report.flights().get(i).aircraft(), a -> new ArrayList<>()).add(i);
+        }
+        legsByAircraft.values().forEach(assigned -> {
+            for (int k = 1; k < assigned.size(); k++) {
+                FlightAssignmentLegDTO previous = legs.get(assigned.get(k - 1));
+                FlightAssignmentLegDTO next = legs.get(assigned.get(k));
+                assertTrue(previous.arrivalTime().isBefore(next.departureTime()));
+                assertEquals(previous.arrivalAirport(), next.departureAirport());
+            }
+        });
+        for (int i = 0; i < legs.size(); i++) {
+            assertEquals(i % 3 == 0 ? AircraftType.B737 : AircraftType.A320, report.flights().get(i).aircraftType());
+        }
+    }
+
+    @Test
+    void testAssignRejectsInvalidLegs() {
+        /// Given:
+        when(flightRepository.findExistingFlightNumbers(any())).thenReturn(List.of("RO100"));
+
+        /// When:
+        FlightAssignmentReport report = tailAssignmentService.assign(List.of(
+                leg("RO100", "OTP", "CLJ", 8, 9),
+                leg("RO101", "OTP", "OTP", 8, 9),
+                leg("RO102", "OTP", "CLJ", 9, 8)
+        ), false);
+
+        /// Then:
+        assertEquals(0, report.assigned());
+        assertEquals(List.of("Flight number already exists", "Arrival and departure airports must be different", "Departure time is after arrival time"),
+                report.flights().stream().map(FlightAssignmentResultDTO::message).toList());
+    }
+
+    @Test
+    void testAssignAndSaveImportsAssignedLegs() {
+        /// When:
+        tailAssignmentService.assign(List.of(
+                leg("RO100", "OTP", "CLJ", 8, 9),
+                leg("RO101", "OTP", "OTP", 8, 9)
+        ), true);
+
+        /// Then:
+        ArgumentCaptor<List<FlightCreateDTO>> imported = ArgumentCaptor.captor();
+        verify(flightImportService).importFlights(imported.capture());
+        assertEquals(List.of(new FlightCreateDTO("RO100", "OTP", "CLJ", base.plusHours(8), base.plusHours(9), "YR-AAA")), imported.getValue());
+    }
+
+    private FlightAssignmentLegDTO leg(String flightNumber, String from, String to, int departureHour, int arrivalHour) {
+        return new FlightAssignmentLegDTO(flightNumber, from, to, base.plusHours(departureHour), base.plusHours(arrivalHour), null);
+    }
+}
@@ -0,0 +1,66 @@
+package com.sd.stratos.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConnectionLimitingDataSourceTests {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void testConnectionsBeyondTheLimitWaitUntilOneIsClosed() throws SQLException {
+        /// Given:
+        when(target.getConnection()).thenReturn(connection);
+        Connection first = dataSource.getConnection();
+
+        /// Then:
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(0, dataSource.availablePermits());
+
+        /// When:
+        first.close();
+        first.close();
+
+        /// Then:
+        assertEquals(1, dataSource.availablePermits());
+        Connection second = dataSource.getConnection();
+        assertEquals(second, second);
+        assertNotEquals(first, second);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void testPermitIsReturnedWhenTheTargetFails() throws SQLException {
+        /// Given:
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted")).thenReturn(connection);
+
+        /// Then:
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertNotNull(dataSource.getConnection());
+        assertEquals(0, dataSource.availablePermits());
+    }
+}
@@ -0,0 +1,177 @@
+package com.sd.stratos.util;
+
+import com.sd.stratos.cache.VerifiedTokenCache;
+import com.sd.stratos.config.RoutePermissionConfig;
+import com.sd.stratos.entity.User;
+import com.sd.stratos.entity.UserRole;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtAuthFilterTests {
+
+    private static final String SECRET = Encoders.BASE64.encode(Jwts.SIG.HS256.key().build().getEncoded());
+    private static final RoutePermissionTable ROUTES = new RoutePermissionConfig().routePermissionTable();
+
+    private VerifiedTokenCache verifiedTokenCache;
+    private SimpleMeterRegistry meterRegistry;
+    private JwtAuthFilter jwtAuthFilter;
+    private JwtUtil jwtUtil;
+    private final AtomicInteger passed = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> passed.incrementAndGet();
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache = new VerifiedTokenCache();
+        meterRegistry = new SimpleMeterRegistry();
+        jwtAuthFilter = new JwtAuthFilter(SECRET, verifiedTokenCache, ROUTES, meterRegistry);
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+    }
+
+    @Test
+    void testValidTokenIsVerifiedOnce() throws Exception {
+        /// Given:
+        String token = jwtUtil.generateToken(user(UserRole.ADMIN), 5);
+
+        /// When:
+        MockHttpServletResponse first = filter("/api/aircraft", token);
+        MockHttpServletResponse second = filter("/api/aircraft", token);
+
+        /// Then:
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+        assertEquals(2, passed.get());
+        assertEquals(1, verifiedTokenCache.size());
+        assertEquals(1, meterRegistry.get("stratos.jwt.verification").tag("result", "parsed").timer().count());
+        assertEquals(1, meterRegistry.get("stratos.jwt.verification").tag("result", "cached").timer().count());
+        assertEquals(1, verifiedTokenCache.hits());
+    }
+
+    @Test
+    void testTamperedTokenIsRejected() throws Exception {
+        /// Given:
+        String token = jwtUtil.generateToken(user(UserRole.ADMIN), 5);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        /// When:
+        MockHttpServletResponse response = filter("/api/flights", tampered);
+
+        /// Then:
+        assertEquals(401, response.getStatus());
+        assertEquals(0, passed.get());
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    void testRoleIsCheckedForCachedToken() throws Exception {
+        /// Given:
+        String token = jwtUtil.generateToken(user(UserRole.ENGINEER), 5);
+
+        /// When:
+        MockHttpServletResponse allowed = filter("/api/maintenance-records", token);
+        MockHttpServletResponse forbidden = filter("/api/users", token);
+
+        /// Then:
+        assertEquals(200, allowed.getStatus());
+        assertEquals(403, forbidden.getStatus());
+        assertEquals(1, passed.get());
+    }
+
+    @Test
+    void testPathParametersAndEncodingDoNotBypassRoleCheck() throws Exception {
+        /// Given:
+        String token = jwtUtil.generateToken(user(UserRole.ENGINEER), 5);
+
+        /// When:
+        MockHttpServletResponse withParameter = filter("/api/users;x", token);
+        MockHttpServletResponse encoded = filter("/api/%75sers", token);
+        MockHttpServletResponse aircraft = filter("/api/aircraft;x/42", token);
+
+        /// Then:
+        assertEquals(403, withParameter.getStatus());
+        assertEquals(403, encoded.getStatus());
+        assertEquals(403, aircraft.getStatus());
+        assertEquals(0, passed.get());
+    }
+
+    @Test
+    void testEnableOtpRequiresMatchingUsername() throws Exception {
+        /// Given:
+        String token = jwtUtil.generateToken(user(UserRole.ENGINEER), 5);
+
+        /// When:
+        MockHttpServletResponse own = filter("/api/auth/enable-otp/jwt-user", token);
+        MockHttpServletResponse other = filter("/api/auth/enable-otp/someone-else", token);
+
+        /// Then:
+        assertEquals(200, own.getStatus());
+        assertEquals(403, other.getStatus());
+    }
+
+    @Test
+    void testInvalidSecretRejectsRequests() throws Exception {
+        /// Given:
+        String token = jwtUtil.generateToken(user(UserRole.ADMIN), 5);
+        jwtAuthFilter = new JwtAuthFilter("$JWT_SECRET", verifiedTokenCache, ROUTES, meterRegistry);
+
+        /// When:
+        MockHttpServletResponse response = filter("/api/flights", token);
+
+        /// Then:
+        assertEquals(401, response.getStatus());
+        assertEquals(0, passed.get());
+    }
+
+    @Test
+    void testEventStreamTokenOnlyOpensTheEventStream() throws Exception {
+        /// Given:
+        String scoped = jwtUtil.generateScopedToken(user(UserRole.ENGINEER), JwtUtil.EVENT_STREAM_SCOPE, Duration.ofMinutes(1));
+        String session = jwtUtil.generateToken(user(UserRole.ENGINEER), 5);
+
+        /// When:
+        MockHttpServletResponse stream = filterWithQueryToken("/api/events", scoped);
+        MockHttpServletResponse sessionInQuery = filterWithQueryToken("/api/events", session);
+        MockHttpServletResponse otherRoute = filter("/api/maintenance-records", scoped);
+        MockHttpServletResponse queryElsewhere = filterWithQueryToken("/api/maintenance-records", scoped);
+
+        /// Then:
+        assertEquals(200, stream.getStatus());
+        assertEquals(401, sessionInQuery.getStatus());
+        assertEquals(401, otherRoute.getStatus());
+        assertEquals(401, queryElsewhere.getStatus());
+        assertEquals(1, passed.get());
+    }
+
+    private MockHttpServletResponse filterWithQueryToken(String path, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setParameter("access_token", token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jwtAuthFilter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse filter(String path, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jwtAuthFilter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static User user(UserRole role) {
+        return new User(UUID.randomUUID(), "jwt-user", "secret", role, null, false);
+    }
+}
@@ -0,0 +1,95 @@
+package com.sd.stratos.util;
+
+import com.sd.stratos.config.RoutePermissionConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoutePermissionTableTests {
+
+    private final RoutePermissionTable table = new RoutePermissionConfig().routePermissionTable();
+
+    @Test
+    void testPublicRoutes() {
+        /// Then:
+        assertEquals(RouteAccess.PUBLIC, table.resolve("POST", "/api/auth/login").access());
+        assertEquals(RouteAccess.PUBLIC, table.resolve("POST", "/api/auth/verify-otp-reset").access());
+        assertEquals(RouteAccess.PUBLIC, table.resolve("GET", "/api/airports").access());
+        assertEquals(RouteAccess.PUBLIC, table.resolve("GET", "/api/airports/distance").access());
+        assertEquals(RouteAccess.PUBLIC, table.resolve("OPTIONS", "/api/users/42").access());
+        assertEquals(RouteAccess.AUTHENTICATED, table.resolve("POST", "/api/auth/login/extra").access());
+    }
+
+    @Test
+    void testRoleRoutes() {
+        /// Then:
+        assertEquals(RouteAccess.ADMIN, table.resolve("GET", "/api/aircraft").access());
+        assertEquals(RouteAccess.ADMIN, table.resolve("DELETE", "/api/users/42").access());
+        assertEquals(RouteAccess.ADMIN, table.resolve("GET", "/api/maintenance-records/audit").access());
+        assertEquals(RouteAccess.ADMIN, table.resolve("GET", "/api/maintenance-records/audit/stream").access());
+        assertEquals(RouteAccess.ENGINEER, table.resolve("GET", "/api/maintenance-records").access());
+        assertEquals(RouteAccess.ENGINEER, table.resolve("PUT", "/api/maintenance-records/42").access());
+        assertEquals(RouteAccess.AUTHENTICATED, table.resolve("GET", "/api/flights/page").access());
+    }
+
+    @Test
+    void testOwnerRouteCapturesUsername() {
+        /// When:
+        RoutePermissionTable.Match match = table.resolve("POST", "/api/auth/enable-otp/alice");
+
+        /// Then:
+        assertEquals(RouteAccess.OWNER, match.access());
+        assertEquals("alice", match.variable());
+        assertEquals(RouteAccess.AUTHENTICATED, table.resolve("POST", "/api/auth/enable-otp/alice/x").access());
+    }
+
+    @Test
+    void testPathParametersDoNotBypassRoleRoutes() {
+        /// Then:
+        assertEquals(RouteAccess.ADMIN, table.resolve(request("GET", "/api/users;x")).access());
+        assertEquals(RouteAccess.ADMIN, table.resolve(request("DELETE", "/api/users;x/42")).access());
+        assertEquals(RouteAccess.ADMIN, table.resolve(request("PUT", "/api/aircraft;x/42;y")).access());
+        assertEquals(RouteAccess.ADMIN, table.resolve(request("GET", "/api/maintenance-records;x/audit")).access());
+        assertEquals(RouteAccess.ENGINEER, table.resolve(request("GET", "/api/maintenance-records;x")).access());
+    }
+
+    @Test
+    void testEncodedSegmentsAreDecodedBeforeMatching() {
+        /// Then:
+        assertEquals(RouteAccess.ADMIN, table.resolve(request("GET", "/api/%75sers")).access());
+        assertEquals(RouteAccess.ADMIN, table.resolve(request("GET", "/api/aircr%61ft/42")).access());
+        assertEquals(RouteAccess.ENGINEER, table.resolve(request("GET", "/api/maintenance%2Drecords")).access());
+    }
+
+    @Test
+    void testOwnerVariableIsTakenFromTheLookupPath() {
+        /// When:
+        RoutePermissionTable.Match match = table.resolve(request("POST", "/api/auth/enable-otp/al%69ce;x"));
+
+        /// Then:
+        assertEquals(RouteAccess.OWNER, match.access());
+        assertEquals("alice", match.variable());
+    }
+
+    @Test
+    void testContextPathIsStripped() {
+        /// Given:
+        MockHttpServletRequest request = request("GET", "/stratos/api/users");
+        request.setContextPath("/stratos");
+
+        /// Then:
+        assertEquals(RouteAccess.ADMIN, table.resolve(request).access());
+    }
+
+    @Test
+    void testMisplacedWildcardIsRejected() {
+        /// Then:
+        assertThrows(IllegalArgumentException.class,
+                () -> RoutePermissionTable.builder().route("/api/**/flights", RouteAccess.PUBLIC));
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
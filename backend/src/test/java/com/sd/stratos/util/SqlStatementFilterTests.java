@@ -0,0 +1,85 @@
+package com.sd.stratos.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlStatementFilterTests {
+
+    private SqlStatementListener sqlStatementListener;
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatementFilter sqlStatementFilter;
+
+    @BeforeEach
+    void setUp() {
+        sqlStatementListener = new SqlStatementListener(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+        sqlStatementFilter = new SqlStatementFilter(sqlStatementListener, meterRegistry);
+    }
+
+    @Test
+    void testStatementsAreCountedPerRequest() throws Exception {
+        /// Given:
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/flights");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/flights");
+            query("select * from flight");
+            query("select * from aircraft where id=?");
+            res.getWriter().write("[]");
+        };
+
+        /// When:
+        sqlStatementFilter.doFilter(request, response, chain);
+
+        /// Then:
+        assertEquals("2", response.getHeader(SqlStatementFilter.STATEMENTS_HEADER));
+        assertTrue(response.getHeader(SqlStatementFilter.TIMING_HEADER).startsWith("sql;dur="));
+        assertEquals(2, meterRegistry.get("stratos.sql.statements").tag("uri", "/api/flights").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("stratos.sql.time").tag("method", "GET").timer().count());
+    }
+
+    @Test
+    void testStatementsAfterBodyStartAreOnlyRecordedAsMetrics() throws Exception {
+        /// Given:
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            res.getOutputStream();
+            query("select * from users");
+        };
+
+        /// When:
+        sqlStatementFilter.doFilter(new MockHttpServletRequest("GET", "/api/users"), response, chain);
+
+        /// Then:
+        assertEquals("0", response.getHeader(SqlStatementFilter.STATEMENTS_HEADER));
+        assertEquals(1, meterRegistry.get("stratos.sql.statements").tag("uri", "UNKNOWN").summary().totalAmount());
+    }
+
+    @Test
+    void testStatementsOutsideRequestsAreIgnored() {
+        /// When:
+        query("select 1");
+
+        /// Then:
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+    private void query(String sql) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        sqlStatementListener.beforeQuery(execInfo, queries);
+        sqlStatementListener.afterQuery(execInfo, queries);
+    }
+}